@@ -2,6 +2,7 @@ package com.golocal.apigateway;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import reactor.core.publisher.Hooks;
 
 /**
  * Main entry point for the Spring Cloud API Gateway application.
@@ -10,6 +11,9 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 public class ApiGatewayApplication {
 
     public static void main(String[] args) {
+        // Propagate the Reactor context (current observation/span) to ThreadLocals/MDC,
+        // so trace IDs show up in filter log lines.
+        Hooks.enableAutomaticContextPropagation();
         SpringApplication.run(ApiGatewayApplication.class, args);
         System.out.println("\n--- API Gateway Started ---\n"); // Simple startup message
     }
@@ -25,8 +25,12 @@ public class CorsConfig {
     // Should match the origin of your frontend app.
     private final List<String> allowedOrigins = Collections.singletonList("http://localhost:3000");
 
+    /**
+     * The CORS rules for the API; also applied by the push endpoint (PushEndpoint), which is
+     * served outside WebFlux and therefore not covered by the CorsWebFilter.
+     */
     @Bean
-    public CorsWebFilter corsWebFilter() {
+    public CorsConfiguration apiCorsConfiguration() {
         CorsConfiguration corsConfig = new CorsConfiguration();
 
         // Origins allowed to make requests
@@ -53,11 +57,15 @@ public class CorsConfig {
 
         // How long the results of a preflight request (OPTIONS) can be cached by the browser.
         corsConfig.setMaxAge(3600L); // 1 hour
+        return corsConfig;
+    }
 
+    @Bean
+    public CorsWebFilter corsWebFilter(CorsConfiguration apiCorsConfiguration) {
         // Apply this CORS configuration to specific paths
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource(new PathPatternParser());
         // Apply CORS rules to all API endpoints routed by the gateway
-        source.registerCorsConfiguration("/api/**", corsConfig);
+        source.registerCorsConfiguration("/api/**", apiCorsConfiguration);
 
         return new CorsWebFilter(source);
     }
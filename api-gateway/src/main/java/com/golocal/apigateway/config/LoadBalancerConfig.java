@@ -0,0 +1,66 @@
+package com.golocal.apigateway.config;
+
+import com.golocal.apigateway.loadbalancer.PowerOfTwoChoicesLoadBalancer;
+import com.golocal.apigateway.loadbalancer.UpstreamStats;
+import com.golocal.apigateway.loadbalancer.UpstreamStatsLifecycle;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+/**
+ * Load balancing for the 'lb://' routes (see application.yml for the instance lists).
+ * Every service uses the health-aware {@link PowerOfTwoChoicesLoadBalancer} by default;
+ * set 'upstream.strategy=round-robin' to go back to Spring Cloud LoadBalancer's default.
+ * Upstream stats are shared across services and fed passively by {@link UpstreamStatsLifecycle}.
+ */
+@Configuration
+@LoadBalancerClients(defaultConfiguration = LoadBalancerConfig.PerServiceConfig.class)
+public class LoadBalancerConfig {
+
+    @Bean
+    public UpstreamStats upstreamStats(MeterRegistry meterRegistry,
+                                       @Value("${upstream.latency-decay:10s}") Duration latencyDecay,
+                                       @Value("${upstream.failure-penalty:1s}") Duration failurePenalty,
+                                       @Value("${upstream.outlier.consecutive-failures:3}") int consecutiveFailures,
+                                       @Value("${upstream.outlier.base-ejection-time:30s}") Duration baseEjectionTime,
+                                       @Value("${upstream.outlier.max-ejection-time:5m}") Duration maxEjectionTime) {
+        return new UpstreamStats(meterRegistry, latencyDecay, failurePenalty,
+                consecutiveFailures, baseEjectionTime, maxEjectionTime);
+    }
+
+    // Picked up by the gateway's load-balancer filter from the parent context for every service
+    @Bean
+    public UpstreamStatsLifecycle upstreamStatsLifecycle(UpstreamStats upstreamStats) {
+        return new UpstreamStatsLifecycle(upstreamStats);
+    }
+
+    /**
+     * Instantiated once per service, in that service's child context (deliberately not a
+     * {@code @Configuration}, so component scanning does not load it into the main context).
+     */
+    public static class PerServiceConfig {
+
+        @Bean
+        public ReactorLoadBalancer<ServiceInstance> reactorServiceInstanceLoadBalancer(
+                Environment environment, LoadBalancerClientFactory loadBalancerClientFactory, UpstreamStats upstreamStats) {
+            String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+            ObjectProvider<ServiceInstanceListSupplier> instances =
+                    loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class);
+            if ("round-robin".equals(environment.getProperty("upstream.strategy"))) {
+                return new RoundRobinLoadBalancer(instances, serviceId);
+            }
+            return new PowerOfTwoChoicesLoadBalancer(instances, serviceId, upstreamStats);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.golocal.apigateway.config;
+
+import com.golocal.apigateway.push.InquiryEvent;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.util.List;
+
+/**
+ * Reflection and resource hints for the native executable (Maven profile 'native', see
+ * docs/performance.md). Spring AOT derives most of them from the beans; these
+ * are the lookups it cannot see:
+ *  - jjwt finds its implementation by class name and its JSON deserializer through
+ *    ServiceLoader (Jwts.parserBuilder(), Claims read by Jackson),
+ *  - InquiryEvent is (de)serialized by PushHub's ObjectMapper and InquiryEventSubscriber's
+ *    WebClient, not by a controller method.
+ * The GraalVM reachability metadata repository (enabled by the 'native' profile) covers
+ * jjwt too; these keep the build working without it.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.JjwtHints.class)
+@RegisterReflectionForBinding(InquiryEvent.class)
+public class NativeHintsConfig {
+
+    static class JjwtHints implements RuntimeHintsRegistrar {
+
+        // Instantiated by name (io.jsonwebtoken.lang.Classes) or as ServiceLoader providers
+        private static final List<String> INSTANTIATED = List.of(
+                "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+                "io.jsonwebtoken.impl.DefaultJwtParser",
+                "io.jsonwebtoken.impl.DefaultClaims",
+                "io.jsonwebtoken.impl.DefaultHeader",
+                "io.jsonwebtoken.impl.DefaultJwsHeader",
+                "io.jsonwebtoken.impl.compression.DeflateCompressionCodec",
+                "io.jsonwebtoken.impl.compression.GzipCompressionCodec",
+                "io.jsonwebtoken.jackson.io.JacksonDeserializer",
+                "io.jsonwebtoken.jackson.io.JacksonSerializer",
+                // The HS256/384/512 MACs, looked up by algorithm name
+                "com.sun.crypto.provider.HmacCore$HmacSHA256",
+                "com.sun.crypto.provider.HmacCore$HmacSHA384",
+                "com.sun.crypto.provider.HmacCore$HmacSHA512");
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            for (String type : INSTANTIATED) {
+                hints.reflection().registerType(TypeReference.of(type),
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+            hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.golocal.apigateway.config;
+
+import com.golocal.apigateway.filter.JwtAuthFilter;
+import com.golocal.apigateway.profiling.ContinuousRecording;
+import com.golocal.apigateway.profiling.JfrEndpoint;
+import com.golocal.apigateway.profiling.JfrEndpointAccessFilter;
+import com.golocal.apigateway.profiling.SloBreachMonitor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Always-on profiling with Java Flight Recorder: the continuous recording
+ * ({@link ContinuousRecording}), its dump endpoint for admins (GET /actuator/jfr, also the
+ * /api/admin/{service}/jfr routes to the services' own) and the automatic dumps on SLO
+ * breaches ({@link SloBreachMonitor}); see 'profiling.*' in application.yml.
+ */
+@Configuration
+public class ProfilingConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public ContinuousRecording continuousRecording(@Value("${spring.application.name}") String applicationName,
+                                                   @Value("${profiling.jfr.dump-directory:logs/jfr}") Path dumpDirectory,
+                                                   @Value("${profiling.jfr.max-age:6h}") Duration maxAge,
+                                                   @Value("${profiling.jfr.max-size:256MB}") DataSize maxSize,
+                                                   @Value("${profiling.jfr.max-dumps:20}") int maxDumps) {
+        return new ContinuousRecording(applicationName, dumpDirectory, maxAge, maxSize, maxDumps);
+    }
+
+    @Bean
+    public JfrEndpoint jfrEndpoint(ContinuousRecording continuousRecording,
+                                   @Value("${profiling.jfr.default-dump-minutes:10}") int defaultMinutes) {
+        return new JfrEndpoint(continuousRecording, defaultMinutes);
+    }
+
+    @Bean
+    public JfrEndpointAccessFilter jfrEndpointAccessFilter(JwtAuthFilter jwtAuthFilter) {
+        return new JfrEndpointAccessFilter(jwtAuthFilter);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public SloBreachMonitor sloBreachMonitor(ContinuousRecording continuousRecording, MeterRegistry meterRegistry,
+                                             @Value("${profiling.slo.latency-threshold:500ms}") Duration latencyThreshold,
+                                             @Value("${profiling.slo.percentile:0.99}") double percentile,
+                                             @Value("${profiling.slo.min-requests:100}") long minRequests,
+                                             @Value("${profiling.slo.gc-pause:200ms}") Duration gcPauseThreshold,
+                                             @Value("${profiling.slo.dump-window:5m}") Duration dumpWindow,
+                                             @Value("${profiling.slo.cooldown:10m}") Duration cooldown,
+                                             @Value("${profiling.slo.check-interval:30s}") Duration checkInterval) {
+        return new SloBreachMonitor(continuousRecording, meterRegistry, latencyThreshold, percentile, minRequests,
+                gcPauseThreshold, dumpWindow, cooldown, checkInterval);
+    }
+}
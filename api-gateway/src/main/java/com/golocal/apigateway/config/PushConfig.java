@@ -0,0 +1,62 @@
+package com.golocal.apigateway.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.golocal.apigateway.filter.JwtAuthFilter;
+import com.golocal.apigateway.push.InquiryEventSubscriber;
+import com.golocal.apigateway.push.PushEndpoint;
+import com.golocal.apigateway.push.PushHub;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+
+/**
+ * Real-time push of inquiry events to browsers (GET /api/events, Server-Sent Events).
+ * The gateway holds the browser connections itself ({@link PushEndpoint}, {@link PushHub})
+ * and follows each inquiry-service instance's event feed ({@link InquiryEventSubscriber});
+ * see 'push.*' in application.yml for the per-instance limits.
+ */
+@Configuration
+public class PushConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public PushHub pushHub(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                           @Value("${push.buffer-size:32}") int bufferSize,
+                           @Value("${push.max-connections:60000}") int maxConnections,
+                           @Value("${push.max-connections-per-user:8}") int maxConnectionsPerUser,
+                           @Value("${push.replay-capacity:10000}") int replayCapacity,
+                           @Value("${push.heartbeat-interval:25s}") Duration heartbeatInterval,
+                           @Value("${push.reconnect-delay:3s}") Duration reconnectDelay) {
+        return new PushHub(objectMapper, meterRegistry, bufferSize, maxConnections, maxConnectionsPerUser,
+                replayCapacity, heartbeatInterval, reconnectDelay);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public InquiryEventSubscriber inquiryEventSubscriber(ReactiveDiscoveryClient discoveryClient,
+                                                         WebClient.Builder webClientBuilder, PushHub pushHub,
+                                                         MeterRegistry meterRegistry,
+                                                         @Value("${push.upstream.service-id:inquiry-service}") String serviceId,
+                                                         @Value("${push.upstream.refresh-interval:30s}") Duration refreshInterval,
+                                                         @Value("${push.upstream.idle-timeout:45s}") Duration idleTimeout) {
+        return new InquiryEventSubscriber(discoveryClient, webClientBuilder.build(), pushHub, meterRegistry,
+                serviceId, refreshInterval, idleTimeout);
+    }
+
+    @Bean
+    public PushEndpoint pushEndpoint(PushHub pushHub, JwtAuthFilter jwtAuthFilter, CorsConfiguration apiCorsConfiguration) {
+        return new PushEndpoint(pushHub, jwtAuthFilter, apiCorsConfiguration);
+    }
+
+    // Reactor Netty tries these routes before handing a request to Spring WebFlux
+    @Bean
+    public WebServerFactoryCustomizer<NettyReactiveWebServerFactory> pushRouteCustomizer(PushEndpoint pushEndpoint) {
+        return factory -> factory.addRouteProviders(pushEndpoint);
+    }
+}
@@ -1,13 +1,20 @@
 package com.golocal.apigateway.filter;
 
+import com.golocal.apigateway.profiling.JwtVerifyEvent;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
 import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
@@ -18,13 +25,17 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
-import java.util.function.Predicate;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 /**
  * Global filter for JWT Authentication and Authorization.
@@ -32,9 +43,23 @@ import java.util.function.Predicate;
  * Adds user information (like user ID) as headers for downstream services.
  */
 @Component
+@RequiredArgsConstructor
 @Slf4j // Lombok annotation for logging
 public class JwtAuthFilter implements GlobalFilter, Ordered {
 
+    // Used to record the token verification as its own span ("gateway.jwt.verify")
+    private final ObservationRegistry observationRegistry;
+    private final MeterRegistry meterRegistry; // Counts auth failures per reason
+
+    private static final String AUTH_FAILURE_COUNTER = "gateway.auth.failures";
+
+    // Auth failures are counted on every request but logged at most once per interval,
+    // so a burst of bad or expired tokens cannot flood the log (or the log pipeline).
+    @Value("${jwt.auth-failure-log-interval:10s}")
+    private Duration authFailureLogInterval;
+    private final AtomicLong nextAuthFailureLogNanos = new AtomicLong(System.nanoTime());
+    private final AtomicLong suppressedAuthFailures = new AtomicLong();
+
     @Value("${jwt.secret}")
     private String jwtSecretString; // Inject JWT secret from application properties/env
 
@@ -46,7 +71,8 @@ public class JwtAuthFilter implements GlobalFilter, Ordered {
     private final List<String> publicApiEndpoints = List.of(
             "/api/auth/**",       // Registration and Login endpoints
             "/api/products",      // Allow fetching list of products
-            "/api/products/*"     // Allow fetching single product by ID (Note: '*' matches one segment)
+            "/api/products/*",    // Allow fetching single product by ID (Note: '*' matches one segment)
+            "/api/products/*/thumbnail" // Product image thumbnails (loaded by img tags, which send no token)
            // "/api/products/**" // Use this if sub-paths under products are also public
            // Add actuator health endpoints if exposed and needed publicly
            // "/actuator/health"
@@ -70,82 +96,105 @@ public class JwtAuthFilter implements GlobalFilter, Ordered {
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        // The server request observation lives in the Reactor context; use it as the
+        // parent so the verify span nests under the incoming request's span.
+        return Mono.deferContextual(context -> authenticate(exchange, chain,
+                context.getOrDefault(ObservationThreadLocalAccessor.KEY, null)));
+    }
+
+    private Mono<Void> authenticate(ServerWebExchange exchange, GatewayFilterChain chain, Observation parentObservation) {
         ServerHttpRequest request = exchange.getRequest();
         String requestPath = request.getPath().value();
         log.debug("Processing request [{} {}]", request.getMethod(), requestPath);
 
-        // Predicate to check if the current request path matches any public endpoint pattern
-        Predicate<String> isPublicApi = path -> publicApiEndpoints.stream()
-                .anyMatch(publicPath -> pathMatches(path, publicPath)); // Using helper for basic matching
-
         // If the path is public, skip authentication/authorization checks
-        if (isPublicApi.test(requestPath)) {
+        if (isPublicApi(requestPath)) {
             log.debug("Path [{}] is public, skipping JWT validation.", requestPath);
             return chain.filter(exchange);
         }
 
         log.debug("Path [{}] is secured. Checking Authorization header.", requestPath);
-        // Check for Authorization header on secured endpoints
-        if (!request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION)) {
-            log.warn("Missing Authorization header for secured path: {}", requestPath);
-            return onError(exchange, "Authorization header is required", HttpStatus.UNAUTHORIZED);
+        try {
+            Claims claims = validate(request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION), parentObservation);
+            String userId = claims.getSubject();
+            log.debug("JWT validated for User ID: '{}', Path: '{}'", userId, requestPath);
+
+            // Add the validated User ID as a header for downstream services
+            // (mutate().header replaces any value the client sent, so services can trust these)
+            ServerHttpRequest modifiedRequest = request.mutate()
+                    .header("X-User-Id", userId) // Header name convention
+                    .header("X-User-Roles", rolesHeader(claims)) // e.g. supplier-only endpoints
+                    .build();
+
+            // Proceed with the modified request in the filter chain
+            return chain.filter(exchange.mutate().request(modifiedRequest).build());
+        } catch (AuthFailure e) {
+            return onError(exchange, e.getMessage(), e.status, e.reason);
+        }
+    }
+
+    /**
+     * Validates the Authorization header of a request the gateway serves itself, outside the
+     * gateway filter chain (the push endpoint, see PushEndpoint). Failures are counted and
+     * logged exactly like those of routed requests.
+     *
+     * @param authHeader  The Authorization header value (may be null).
+     * @param requestPath The request path, for the log.
+     * @return The validated token's claims; the subject is the username.
+     * @throws ResponseStatusException 401 (500 for unexpected errors) if the request must be rejected.
+     */
+    public Claims authenticate(String authHeader, String requestPath) {
+        try {
+            return validate(authHeader, null);
+        } catch (AuthFailure e) {
+            meterRegistry.counter(AUTH_FAILURE_COUNTER, "reason", e.reason).increment();
+            logAuthFailure(requestPath, e.getMessage(), e.status);
+            throw new ResponseStatusException(e.status, e.getMessage());
         }
+    }
 
-        // Extract the token from the header
-        String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            log.warn("Invalid Authorization header format for path: {}", requestPath);
-            return onError(exchange, "Authorization header must be 'Bearer [token]'", HttpStatus.UNAUTHORIZED);
+    /**
+     * Checks the "Bearer [token]" header and the token itself.
+     * @throws AuthFailure with the HTTP status and metric reason if the request must be rejected.
+     */
+    private Claims validate(String authHeader, Observation parentObservation) {
+        // Check for Authorization header on secured endpoints
+        if (authHeader == null) {
+            throw new AuthFailure("Authorization header is required", HttpStatus.UNAUTHORIZED, "missing_header");
+        }
+        if (!authHeader.startsWith("Bearer ")) {
+            throw new AuthFailure("Authorization header must be 'Bearer [token]'", HttpStatus.UNAUTHORIZED, "bad_header");
         }
 
         String token = authHeader.substring(7); // Remove "Bearer " prefix
 
         // Validate the JWT token
         try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(this.signingKey)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            Claims claims = verifyToken(token, parentObservation);
 
             // Extract User ID from the token's subject claim
             String userId = claims.getSubject();
             if (userId == null || userId.isBlank()) {
-                log.warn("User ID (subject) missing or empty in JWT for path: {}", requestPath);
-                return onError(exchange, "Invalid token: User identifier missing", HttpStatus.UNAUTHORIZED);
+                throw new AuthFailure("Invalid token: User identifier missing", HttpStatus.UNAUTHORIZED, "missing_subject");
             }
-
-            log.debug("JWT validated for User ID: '{}', Path: '{}'", userId, requestPath);
-
-            // Add the validated User ID as a header for downstream services
-            ServerHttpRequest modifiedRequest = request.mutate()
-                    .header("X-User-Id", userId) // Header name convention
-                    // Optionally add other claims like roles if needed by services
-                    // .header("X-User-Roles", claims.get("roles", String.class))
-                    .build();
-
-            // Proceed with the modified request in the filter chain
-            return chain.filter(exchange.mutate().request(modifiedRequest).build());
+            return claims;
 
         } catch (ExpiredJwtException e) {
-            log.warn("Expired JWT token for path [{}]: {}", requestPath, e.getMessage());
-            return onError(exchange, "Authorization token has expired", HttpStatus.UNAUTHORIZED);
+            throw new AuthFailure("Authorization token has expired", HttpStatus.UNAUTHORIZED, "expired");
         } catch (UnsupportedJwtException e) {
-             log.warn("Unsupported JWT token for path [{}]: {}", requestPath, e.getMessage());
-             return onError(exchange, "Unsupported authorization token format", HttpStatus.UNAUTHORIZED);
+            throw new AuthFailure("Unsupported authorization token format", HttpStatus.UNAUTHORIZED, "unsupported");
         } catch (MalformedJwtException e) {
-             log.warn("Malformed JWT token for path [{}]: {}", requestPath, e.getMessage());
-             return onError(exchange, "Invalid authorization token format", HttpStatus.UNAUTHORIZED);
+            throw new AuthFailure("Invalid authorization token format", HttpStatus.UNAUTHORIZED, "malformed");
         } catch (SignatureException e) {
-             log.warn("Invalid JWT signature for path [{}]: {}", requestPath, e.getMessage());
-             return onError(exchange, "Invalid authorization token signature", HttpStatus.UNAUTHORIZED);
+            throw new AuthFailure("Invalid authorization token signature", HttpStatus.UNAUTHORIZED, "bad_signature");
         } catch (IllegalArgumentException e) {
-             log.warn("JWT claims string is empty or null for path [{}]: {}", requestPath, e.getMessage());
-             return onError(exchange, "Invalid authorization token", HttpStatus.UNAUTHORIZED);
+            throw new AuthFailure("Invalid authorization token", HttpStatus.UNAUTHORIZED, "empty_token");
+        } catch (AuthFailure e) {
+            throw e;
         } catch (Exception e) {
-            // Catch unexpected errors during validation
-            log.error("Unexpected error validating JWT for path [{}]: {}", requestPath, e.getMessage(), e);
-            return onError(exchange, "Authentication error", HttpStatus.INTERNAL_SERVER_ERROR);
+            // Catch unexpected errors during validation (always logged, these are not client mistakes)
+            log.error("Unexpected error validating JWT: {}", e.getMessage(), e);
+            throw new AuthFailure("Authentication error", HttpStatus.INTERNAL_SERVER_ERROR, "error");
         }
     }
 
@@ -155,12 +204,14 @@ public class JwtAuthFilter implements GlobalFilter, Ordered {
      * @param exchange The current server exchange.
      * @param errorMessage The error message to log.
      * @param httpStatus The HTTP status to return.
+     * @param reason Low-cardinality failure reason used as the metric tag.
      * @return A Mono indicating completion.
      */
-    private Mono<Void> onError(ServerWebExchange exchange, String errorMessage, HttpStatus httpStatus) {
+    private Mono<Void> onError(ServerWebExchange exchange, String errorMessage, HttpStatus httpStatus, String reason) {
         ServerHttpResponse response = exchange.getResponse();
         response.setStatusCode(httpStatus);
-        log.error("Auth Filter Error: {} [Status: {}] for Request: {}", errorMessage, httpStatus, exchange.getRequest().getPath());
+        meterRegistry.counter(AUTH_FAILURE_COUNTER, "reason", reason).increment();
+        logAuthFailure(exchange.getRequest().getPath().value(), errorMessage, httpStatus);
         // Optionally write a JSON error body to the response here if needed
         // response.getHeaders().add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
         // byte[] bytes = ("{\"error\": \"" + errorMessage + "\"}").getBytes(StandardCharsets.UTF_8);
@@ -169,6 +220,91 @@ public class JwtAuthFilter implements GlobalFilter, Ordered {
         return response.setComplete(); // Complete the response without a body for simplicity
     }
 
+    /**
+     * Verifies the token signature/expiry inside a "gateway.jwt.verify" observation.
+     * Rejected tokens are expected client errors, so they are tagged (outcome=rejected)
+     * rather than marked as span errors; the trace export predicate always keeps errors.
+     * The same interval is recorded as a golocal.JwtVerify JFR event (continuous profiling).
+     */
+    private Claims verifyToken(String token, Observation parentObservation) {
+        Observation verify = Observation.createNotStarted("gateway.jwt.verify", observationRegistry)
+                .parentObservation(parentObservation)
+                .start();
+        JwtVerifyEvent event = new JwtVerifyEvent();
+        event.begin();
+        event.outcome = "error";
+        try {
+            Claims claims = Jwts.parserBuilder()
+                    .setSigningKey(this.signingKey)
+                    .build()
+                    .parseClaimsJws(token)
+                    .getBody();
+            verify.lowCardinalityKeyValue("outcome", "valid");
+            event.outcome = "valid";
+            return claims;
+        } catch (JwtException | IllegalArgumentException e) {
+            verify.lowCardinalityKeyValue("outcome", "rejected");
+            event.outcome = "rejected";
+            throw e;
+        } catch (RuntimeException e) {
+            verify.error(e);
+            throw e;
+        } finally {
+            verify.stop();
+            event.commit(); // No-op unless a recording has the event enabled
+        }
+    }
+
+    /**
+     * Logs an auth failure at most once per authFailureLogInterval.
+     * Failures in between are only counted and reported with the next logged line.
+     */
+    private void logAuthFailure(String requestPath, String errorMessage, HttpStatus httpStatus) {
+        if (!log.isWarnEnabled()) {
+            return;
+        }
+        long now = System.nanoTime();
+        long next = nextAuthFailureLogNanos.get();
+        if (now - next < 0 || !nextAuthFailureLogNanos.compareAndSet(next, now + authFailureLogInterval.toNanos())) {
+            suppressedAuthFailures.incrementAndGet();
+            return;
+        }
+        log.warn("Auth Filter Error: {} [Status: {}] for Request: {} ({} further failures suppressed since last report)",
+                errorMessage, httpStatus, requestPath, suppressedAuthFailures.getAndSet(0));
+    }
+
+    /**
+     * @return Whether the token's "roles" claim contains the role (e.g. "ROLE_ADMIN").
+     */
+    public static boolean hasRole(Claims claims, String role) {
+        Object roles = claims.get("roles");
+        return roles instanceof Collection<?> list ? list.contains(role) : role.equals(roles);
+    }
+
+    /**
+     * Converts the token's "roles" claim (a JSON array, see user-service JwtUtil) to a
+     * comma-separated header value; empty if the claim is missing.
+     */
+    private static String rolesHeader(Claims claims) {
+        Object roles = claims.get("roles");
+        if (roles instanceof Collection<?> list) {
+            return list.stream().map(String::valueOf).collect(Collectors.joining(","));
+        }
+        return roles != null ? roles.toString() : "";
+    }
+
+    /**
+     * Checks if the request path matches any public endpoint pattern.
+     */
+    private boolean isPublicApi(String requestPath) {
+        for (String publicPath : publicApiEndpoints) {
+            if (pathMatches(requestPath, publicPath)) { // Using helper for basic matching
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Specifies the order of this global filter.
      * Lower values have higher priority. We want this filter to run before routing happens.
@@ -188,6 +324,16 @@ public class JwtAuthFilter implements GlobalFilter, Ordered {
          if (pattern.endsWith("/**")) {
              String prefix = pattern.substring(0, pattern.length() - 3);
              return requestPath.startsWith(prefix);
+         } else if (pattern.contains("/*/")) {
+             // '*' inside the pattern: same number of segments, '*' matching any non-empty one
+             String[] patternSegments = pattern.split("/", -1);
+             String[] pathSegments = requestPath.split("/", -1);
+             if (patternSegments.length != pathSegments.length) return false;
+             for (int i = 0; i < patternSegments.length; i++) {
+                 boolean wildcard = patternSegments[i].equals("*") && !pathSegments[i].isEmpty();
+                 if (!wildcard && !patternSegments[i].equals(pathSegments[i])) return false;
+             }
+             return true;
          } else if (pattern.endsWith("/*")) {
              String prefix = pattern.substring(0, pattern.length() - 2);
              // Check if it starts with prefix and has only one more segment
@@ -199,4 +345,19 @@ public class JwtAuthFilter implements GlobalFilter, Ordered {
              return requestPath.equals(pattern);
          }
     }
-}
\ No newline at end of file
+
+    /**
+     * A rejected request: the message is logged, the reason is the metric tag.
+     */
+    private static final class AuthFailure extends RuntimeException {
+
+        private final HttpStatus status;
+        private final String reason;
+
+        private AuthFailure(String message, HttpStatus status, String reason) {
+            super(message, null, false, false); // Expected outcome, no stack trace needed
+            this.status = status;
+            this.reason = reason;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.golocal.apigateway.loadbalancer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live, passively collected statistics for every upstream service instance the gateway talks to.
+ * Fed by {@link UpstreamStatsLifecycle} (one start/complete pair per proxied request) and read by
+ * {@link PowerOfTwoChoicesLoadBalancer} when picking an instance.
+ *
+ * Per instance we keep:
+ *  - the number of outstanding (in-flight) requests,
+ *  - a peak-sensitive EWMA of response latency that decays towards zero while the instance is idle,
+ *    so an instance that was slow is eventually probed again,
+ *  - consecutive gateway failures (connect errors/timeouts, 502/503/504), used for outlier ejection:
+ *    after N in a row the instance is ejected for base-ejection-time x times-ejected (capped).
+ */
+@Slf4j
+public class UpstreamStats {
+
+    private final MeterRegistry meterRegistry;
+    private final double decayNanos; // EWMA time constant
+    private final long failurePenaltyNanos; // Latency charged for a failed request
+    private final int consecutiveFailures; // Failures in a row before an instance is ejected
+    private final long baseEjectionNanos;
+    private final long maxEjectionNanos;
+
+    private final Map<String, InstanceStats> instances = new ConcurrentHashMap<>();
+
+    public UpstreamStats(MeterRegistry meterRegistry, Duration latencyDecay, Duration failurePenalty,
+                         int consecutiveFailures, Duration baseEjectionTime, Duration maxEjectionTime) {
+        this.meterRegistry = meterRegistry;
+        this.decayNanos = Math.max(1, latencyDecay.toNanos());
+        this.failurePenaltyNanos = failurePenalty.toNanos();
+        this.consecutiveFailures = Math.max(1, consecutiveFailures);
+        this.baseEjectionNanos = baseEjectionTime.toNanos();
+        this.maxEjectionNanos = Math.max(baseEjectionNanos, maxEjectionTime.toNanos());
+    }
+
+    /**
+     * @return The stats for the given instance, created (and registered as gauges) on first use.
+     */
+    public InstanceStats get(ServiceInstance instance) {
+        return instances.computeIfAbsent(key(instance), k -> register(instance));
+    }
+
+    public void onRequestStart(ServiceInstance instance) {
+        get(instance).outstanding.incrementAndGet();
+    }
+
+    public void onRequestComplete(ServiceInstance instance, long latencyNanos, boolean failed) {
+        InstanceStats stats = get(instance);
+        stats.outstanding.decrementAndGet();
+        long now = System.nanoTime();
+        if (failed) {
+            // A fast failure (connection refused, immediate 503) must not make the instance look attractive
+            stats.observe(Math.max(latencyNanos, failurePenaltyNanos), now);
+            if (stats.recordFailure(now)) {
+                log.warn("Ejecting {} ({}:{}) for {} ms after {} consecutive failures",
+                        instance.getServiceId(), instance.getHost(), instance.getPort(),
+                        TimeUnit.NANOSECONDS.toMillis(stats.ejectedUntil - now), consecutiveFailures);
+            }
+        } else {
+            stats.observe(latencyNanos, now);
+            stats.recordSuccess(now);
+        }
+    }
+
+    private InstanceStats register(ServiceInstance instance) {
+        InstanceStats stats = new InstanceStats();
+        Tags tags = Tags.of("serviceId", instance.getServiceId(),
+                "instance", instance.getHost() + ":" + instance.getPort());
+        Gauge.builder("gateway.upstream.outstanding", stats.outstanding, AtomicInteger::get)
+                .description("In-flight requests per upstream instance")
+                .tags(tags).register(meterRegistry);
+        Gauge.builder("gateway.upstream.latency.ewma", stats, s -> s.latencyNanos(System.nanoTime()) / 1e9)
+                .description("Decaying peak EWMA of upstream latency, as used by the load balancer")
+                .baseUnit("seconds").tags(tags).register(meterRegistry);
+        Gauge.builder("gateway.upstream.ejected", stats, s -> s.isEjected(System.nanoTime()) ? 1 : 0)
+                .description("1 while the instance is ejected as an outlier")
+                .tags(tags).register(meterRegistry);
+        stats.ejections = Counter.builder("gateway.upstream.ejections")
+                .description("Times the instance was ejected after consecutive failures")
+                .tags(tags).register(meterRegistry);
+        return stats;
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getServiceId() + "@" + instance.getHost() + ":" + instance.getPort();
+    }
+
+    /**
+     * Mutable stats for a single instance. Latency and failure state are guarded by the instance
+     * monitor; the outstanding counter is lock-free since it changes twice per request.
+     */
+    public final class InstanceStats {
+
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private double ewmaNanos;
+        private long lastObservedAt = System.nanoTime();
+        private int failuresInARow;
+        private int timesEjected;
+        private long ejectedUntil;
+        private Counter ejections;
+
+        public int outstanding() {
+            return Math.max(0, outstanding.get());
+        }
+
+        /**
+         * @return The latency estimate, decayed by the time elapsed since the last observation.
+         */
+        public synchronized double latencyNanos(long now) {
+            return ewmaNanos * Math.exp(-(now - lastObservedAt) / decayNanos);
+        }
+
+        public synchronized boolean isEjected(long now) {
+            return now - ejectedUntil < 0;
+        }
+
+        private synchronized void observe(long latencyNanos, long now) {
+            double current = latencyNanos(now);
+            if (latencyNanos > current) {
+                ewmaNanos = latencyNanos; // Peak: react to a slowdown immediately
+            } else {
+                double weight = Math.exp(-(now - lastObservedAt) / decayNanos);
+                ewmaNanos = ewmaNanos * weight + latencyNanos * (1 - weight);
+            }
+            lastObservedAt = now;
+        }
+
+        /**
+         * @return true if this failure ejected the instance.
+         */
+        private synchronized boolean recordFailure(long now) {
+            if (isEjected(now) || ++failuresInARow < consecutiveFailures) {
+                return false;
+            }
+            failuresInARow = 0;
+            timesEjected++;
+            ejectedUntil = now + Math.min(maxEjectionNanos, baseEjectionNanos * timesEjected);
+            ejections.increment();
+            return true;
+        }
+
+        private synchronized void recordSuccess(long now) {
+            failuresInARow = 0;
+            if (timesEjected > 0 && now - ejectedUntil > baseEjectionNanos) {
+                timesEjected = 0; // Healthy for a full period since the last ejection: reset the back-off
+            }
+        }
+    }
+}
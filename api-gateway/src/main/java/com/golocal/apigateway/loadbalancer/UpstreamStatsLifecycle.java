@@ -0,0 +1,75 @@
+package com.golocal.apigateway.loadbalancer;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+
+/**
+ * Passive health checking: observes every load-balanced request the gateway proxies
+ * (ReactiveLoadBalancerClientFilter calls the lifecycle hooks) and feeds outcome and
+ * latency into {@link UpstreamStats}. No extra probe traffic is sent to the services.
+ */
+@RequiredArgsConstructor
+public class UpstreamStatsLifecycle implements LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance> {
+
+    private final UpstreamStats stats;
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return RequestDataContext.class.isAssignableFrom(requestContextClass)
+                && ResponseData.class.isAssignableFrom(responseClass)
+                && ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<RequestDataContext> request) {
+        // Nothing to do until an instance has been chosen
+    }
+
+    @Override
+    public void onStartRequest(Request<RequestDataContext> request, Response<ServiceInstance> lbResponse) {
+        TimedRequestContext context = request.getContext();
+        if (context.getRequestStartTime() == 0L) {
+            context.setRequestStartTime(System.nanoTime()); // May already be set by the Micrometer stats lifecycle
+        }
+        if (lbResponse.hasServer()) {
+            stats.onRequestStart(lbResponse.getServer());
+        }
+    }
+
+    @Override
+    public void onComplete(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> completionContext) {
+        if (completionContext.status() == CompletionContext.Status.DISCARD
+                || completionContext.getLoadBalancerResponse() == null
+                || !completionContext.getLoadBalancerResponse().hasServer()) {
+            return; // No instance was chosen, nothing to attribute
+        }
+        long latency = System.nanoTime() - completionContext.getLoadBalancerRequest().getContext().getRequestStartTime();
+        stats.onRequestComplete(completionContext.getLoadBalancerResponse().getServer(), latency,
+                isGatewayFailure(completionContext));
+    }
+
+    /**
+     * Connection errors and timeouts surface as FAILED; an instance that is up but unhealthy
+     * answers 502/503/504. Other statuses (including 500) are application outcomes, not a
+     * reason to stop sending traffic to the instance.
+     */
+    private static boolean isGatewayFailure(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> context) {
+        if (context.status() == CompletionContext.Status.FAILED) {
+            return true;
+        }
+        ResponseData response = context.getClientResponse();
+        HttpStatusCode status = response != null ? response.getHttpStatus() : null;
+        return status != null && (status.isSameCodeAs(HttpStatus.BAD_GATEWAY)
+                || status.isSameCodeAs(HttpStatus.SERVICE_UNAVAILABLE)
+                || status.isSameCodeAs(HttpStatus.GATEWAY_TIMEOUT));
+    }
+}
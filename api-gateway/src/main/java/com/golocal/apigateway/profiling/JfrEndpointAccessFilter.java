@@ -0,0 +1,49 @@
+package com.golocal.apigateway.profiling;
+
+import com.golocal.apigateway.filter.JwtAuthFilter;
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Restricts the gateway's own /actuator/jfr to admins: a valid token (checked by
+ * JwtAuthFilter, as for /api/events) with ROLE_ADMIN in its roles claim. Actuator requests
+ * are not routed, so the global JwtAuthFilter does not see them. The services' endpoints are
+ * reached through the /api/admin/{service}/jfr routes, where the global filter applies.
+ */
+@RequiredArgsConstructor
+public class JfrEndpointAccessFilter implements WebFilter {
+
+    public static final String ADMIN_ROLE = "ROLE_ADMIN";
+    private static final String PATH = "/actuator/jfr";
+
+    private final JwtAuthFilter jwtAuthFilter;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String path = exchange.getRequest().getPath().value();
+        if (!path.equals(PATH) && !path.startsWith(PATH + "/")) {
+            return chain.filter(exchange);
+        }
+        HttpStatus rejected = null;
+        try {
+            Claims claims = jwtAuthFilter.authenticate(exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION), path);
+            if (!JwtAuthFilter.hasRole(claims, ADMIN_ROLE)) {
+                rejected = HttpStatus.FORBIDDEN;
+            }
+        } catch (ResponseStatusException e) {
+            rejected = HttpStatus.valueOf(e.getStatusCode().value()); // 401 (counted and logged by JwtAuthFilter)
+        }
+        if (rejected != null) {
+            exchange.getResponse().setStatusCode(rejected);
+            return exchange.getResponse().setComplete();
+        }
+        return chain.filter(exchange);
+    }
+}
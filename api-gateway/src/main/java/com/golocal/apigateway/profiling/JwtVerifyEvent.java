@@ -0,0 +1,24 @@
+package com.golocal.apigateway.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one token verification in JwtAuthFilter (signature check and claims parsing),
+ * so a recording shows the time spent on it per request thread next to GC, locks and CPU samples.
+ */
+@Name("golocal.JwtVerify")
+@Label("JWT Verify")
+@Category({"GoLocal", "Gateway"})
+@Description("Verification of a request's JWT")
+@StackTrace(false) // Always the same call site
+public class JwtVerifyEvent extends Event {
+
+    @Label("Outcome")
+    @Description("valid, rejected or error")
+    public String outcome;
+}
@@ -0,0 +1,29 @@
+package com.golocal.apigateway.push;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * An inquiry event as streamed by inquiry-service's event feed (its InquiryEventDto) and
+ * pushed on to the browsers unchanged.
+ */
+@Data
+@NoArgsConstructor
+public class InquiryEvent {
+
+    private Long eventId; // Unique; the SSE event ID clients resume from
+
+    private String type; // INQUIRY_CREATED | INQUIRY_READ
+
+    private Long inquiryId;
+
+    private String supplierName; // Recipient: the supplier's account username
+
+    private Long productId;
+
+    private String userId; // Recipient: the username of the user who sent the inquiry
+
+    private Instant occurredAt;
+}
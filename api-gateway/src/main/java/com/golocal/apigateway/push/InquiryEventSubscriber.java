@@ -0,0 +1,146 @@
+package com.golocal.apigateway.push;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Feeds the PushHub: follows the event feed (GET /internal/inquiry-events) of every
+ * inquiry-service instance, since each instance only streams the events it relayed itself.
+ * One long-lived connection per instance, independent of the number of browsers.
+ *
+ * The instance list is re-read from discovery periodically. A lost connection is re-opened
+ * with exponential backoff and resumes after the last received event (Last-Event-ID); a
+ * connection that stays silent longer than the feed's heartbeat interval is treated as lost.
+ * Metric: gateway.push.upstream.links (feed connections currently open).
+ */
+@Slf4j
+public class InquiryEventSubscriber {
+
+    private static final String FEED_PATH = "/internal/inquiry-events";
+    private static final ParameterizedTypeReference<ServerSentEvent<InquiryEvent>> EVENT_TYPE =
+            new ParameterizedTypeReference<>() {};
+
+    private final ReactiveDiscoveryClient discoveryClient;
+    private final WebClient webClient;
+    private final PushHub hub;
+    private final String serviceId;
+    private final Duration refreshInterval;
+    private final Duration idleTimeout;
+
+    private final Map<URI, Disposable> links = new ConcurrentHashMap<>();
+    private final AtomicInteger openLinks = new AtomicInteger();
+    private Disposable refresh;
+
+    public InquiryEventSubscriber(ReactiveDiscoveryClient discoveryClient, WebClient webClient, PushHub hub,
+                                 MeterRegistry meterRegistry, String serviceId,
+                                 Duration refreshInterval, Duration idleTimeout) {
+        this.discoveryClient = discoveryClient;
+        this.webClient = webClient;
+        this.hub = hub;
+        this.serviceId = serviceId;
+        this.refreshInterval = refreshInterval;
+        this.idleTimeout = idleTimeout;
+        Gauge.builder("gateway.push.upstream.links", openLinks, AtomicInteger::get)
+                .description("Open event feed connections to " + serviceId + " instances")
+                .register(meterRegistry);
+    }
+
+    public void start() {
+        refresh = Flux.interval(Duration.ZERO, refreshInterval)
+                .concatMap(tick -> discoveryClient.getInstances(serviceId)
+                        .map(ServiceInstance::getUri)
+                        .collect(Collectors.toSet())
+                        .onErrorResume(e -> {
+                            log.warn("Cannot list {} instances: {}", serviceId, e.getMessage());
+                            return Mono.empty(); // Keep the current links
+                        }))
+                .subscribe(this::reconcile);
+    }
+
+    public void stop() {
+        if (refresh != null) {
+            refresh.dispose();
+        }
+        links.values().forEach(Disposable::dispose);
+        links.clear();
+    }
+
+    private void reconcile(Set<URI> instances) {
+        for (URI instance : instances) {
+            links.computeIfAbsent(instance, this::follow);
+        }
+        links.keySet().removeIf(instance -> {
+            if (instances.contains(instance)) {
+                return false;
+            }
+            log.info("Stopped following inquiry events of {} (no longer listed)", instance);
+            links.get(instance).dispose();
+            return true;
+        });
+    }
+
+    private Disposable follow(URI instance) {
+        AtomicReference<String> lastEventId = new AtomicReference<>();
+        AtomicBoolean open = new AtomicBoolean();
+        return Flux.defer(() -> webClient.get()
+                        .uri(instance.resolve(FEED_PATH))
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .headers(headers -> {
+                            String id = lastEventId.get();
+                            if (id != null) {
+                                headers.set("Last-Event-ID", id);
+                            }
+                        })
+                        .retrieve()
+                        .bodyToFlux(EVENT_TYPE))
+                .timeout(idleTimeout) // Heartbeats arrive every few seconds; silence means a dead connection
+                .doOnNext(sse -> {
+                    if (open.compareAndSet(false, true)) {
+                        openLinks.incrementAndGet();
+                        log.info("Following inquiry events of {} (resuming after {})", instance, lastEventId.get());
+                    }
+                    if (sse.data() != null) {
+                        hub.publish(sse.data());
+                        lastEventId.set(sse.id());
+                    }
+                })
+                // The instance ended the stream (e.g. shutting down): reconnect like after an error
+                .concatWith(Flux.error(() -> new IllegalStateException("event feed closed")))
+                .doOnError(e -> {
+                    if (open.compareAndSet(true, false)) {
+                        openLinks.decrementAndGet();
+                        log.warn("Lost inquiry events of {}: {}", instance, e.getMessage());
+                    }
+                })
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofSeconds(10)) // Only a few feed connections per gateway: retrying often is cheap
+                        .transientErrors(true)) // Backoff restarts after a connection that received events
+                .doFinally(signal -> {
+                    if (open.getAndSet(false)) {
+                        openLinks.decrementAndGet();
+                    }
+                })
+                .subscribe();
+    }
+}
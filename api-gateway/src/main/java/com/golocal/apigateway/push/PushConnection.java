@@ -0,0 +1,58 @@
+package com.golocal.apigateway.push;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+/**
+ * One browser's push stream: a bounded buffer of encoded Server-Sent Events frames not yet
+ * written to the socket (frames are shared between streams, never copied).
+ * Reactor Netty only takes events from it while the connection is writable, so a client
+ * that stops reading fills the buffer and offer() fails: the hub then evicts it.
+ *
+ * Kept deliberately small, there is one per open connection.
+ */
+final class PushConnection {
+
+    private final String userId;
+    private final Sinks.Many<byte[]> sink;
+    private final Runnable close;
+
+    /**
+     * @param bufferSize Events buffered before the client counts as a slow consumer.
+     * @param close      Closes the underlying HTTP connection (or HTTP/2 stream).
+     */
+    PushConnection(String userId, int bufferSize, Runnable close) {
+        this.userId = userId;
+        this.sink = Sinks.many().unicast().onBackpressureBuffer(Queues.<byte[]>get(bufferSize).get());
+        this.close = close;
+    }
+
+    String getUserId() {
+        return userId;
+    }
+
+    Flux<byte[]> asFlux() {
+        return sink.asFlux();
+    }
+
+    /**
+     * Queues an event for the client; called by the dispatching and the heartbeat threads.
+     *
+     * @return false if the buffer is full or the stream has ended.
+     */
+    synchronized boolean offer(byte[] frame) {
+        return sink.tryEmitNext(frame).isSuccess(); // Serialised: the sink allows one producer at a time
+    }
+
+    /**
+     * Ends the stream and closes the connection at once. Completing the sink alone would
+     * first wait for a slow client to read the buffered events.
+     */
+    void close() {
+        synchronized (this) {
+            sink.tryEmitComplete();
+        }
+        close.run();
+    }
+}
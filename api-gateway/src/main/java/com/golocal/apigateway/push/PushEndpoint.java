@@ -0,0 +1,71 @@
+package com.golocal.apigateway.push;
+
+import com.golocal.apigateway.filter.JwtAuthFilter;
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.web.embedded.netty.NettyRouteProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.netty.Connection;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+import reactor.netty.http.server.HttpServerRoutes;
+
+/**
+ * GET /api/events : the browser's push stream. Server-Sent Events, one 'inquiry' event
+ * (data = InquiryEvent JSON, id = eventId) per inquiry the user sent or, as a supplier,
+ * received, instead of polling /api/inquiries/my-inquiries or the supplier inbox. A 'resync'
+ * event means events were missed while disconnected: reload the inquiry lists. Clients resume
+ * with the standard Last-Event-ID header.
+ *
+ * Served directly by Reactor Netty, as a route ahead of Spring WebFlux (registered in
+ * PushConfig), not by a controller: a WebFlux request keeps its exchange, filter chain,
+ * observation and handler state alive for as long as the response is open, ~25 KB per stream,
+ * while here a stream costs little more than its connection and buffer (docs/performance.md).
+ * The token is validated by JwtAuthFilter, CORS follows the gateway's configuration and CORS
+ * preflight (OPTIONS) requests are still answered by WebFlux's CorsWebFilter.
+ */
+@RequiredArgsConstructor
+public class PushEndpoint implements NettyRouteProvider {
+
+    public static final String PATH = "/api/events";
+
+    private final PushHub pushHub;
+    private final JwtAuthFilter jwtAuthFilter;
+    private final CorsConfiguration corsConfiguration;
+
+    @Override
+    public HttpServerRoutes apply(HttpServerRoutes routes) {
+        return routes.get(PATH, this::stream);
+    }
+
+    private Publisher<Void> stream(HttpServerRequest request, HttpServerResponse response) {
+        String origin = request.requestHeaders().get(HttpHeaders.ORIGIN);
+        if (origin != null) {
+            String allowedOrigin = corsConfiguration.checkOrigin(origin);
+            if (allowedOrigin == null) {
+                return response.status(403).send(); // As CorsWebFilter does for other paths
+            }
+            response.header(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, allowedOrigin).header(HttpHeaders.VARY, HttpHeaders.ORIGIN);
+            if (Boolean.TRUE.equals(corsConfiguration.getAllowCredentials())) {
+                response.header(HttpHeaders.ACCESS_CONTROL_ALLOW_CREDENTIALS, "true");
+            }
+        }
+
+        Flux<byte[]> frames;
+        try {
+            Claims claims = jwtAuthFilter.authenticate(request.requestHeaders().get(HttpHeaders.AUTHORIZATION), PATH);
+            frames = pushHub.connect(claims.getSubject(), request.requestHeaders().get("Last-Event-ID"),
+                    () -> response.withConnection(Connection::dispose)); // Eviction frees the socket at once
+        } catch (ResponseStatusException e) {
+            return response.status(e.getStatusCode().value()).send(); // 401, or 503 at capacity
+        }
+        return response.sse() // Content-Type: text/event-stream
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .header("X-Accel-Buffering", "no") // Tell reverse proxies (nginx) not to buffer the stream
+                .sendByteArray(frames);
+    }
+}
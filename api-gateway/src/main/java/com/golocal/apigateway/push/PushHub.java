@@ -0,0 +1,290 @@
+package com.golocal.apigateway.push;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Fans inquiry events out to the browsers' push streams (GET /api/events), by username:
+ * an event goes to every open stream of the user who sent the inquiry and of the supplier
+ * who received it.
+ *
+ * Built to hold tens of thousands of mostly idle streams on one gateway:
+ *  - nothing blocks: delivering an event only queues it in the recipients' bounded buffers
+ *    (PushConnection); Reactor Netty writes them out as each socket accepts data,
+ *  - a client whose buffer is full (stopped reading, or a dead connection) is evicted rather
+ *    than buffered for; it reconnects and resumes via Last-Event-ID,
+ *  - one shared timer sends a heartbeat comment to every stream, which keeps idle connections
+ *    open through proxies and load balancers and, by filling the buffer, detects dead ones,
+ *  - per stream only the connection, its small buffer and a registry slot are kept; each
+ *    event is encoded once and the frame shared by all its recipients.
+ * The last 'push.replay-capacity' events are kept so a client that reconnects within
+ * seconds misses nothing; one that was gone longer receives a 'resync' event and reloads.
+ *
+ * Metrics: gateway.push.connections, gateway.push.events (deliveries), gateway.push.evictions
+ * (reason=slow_consumer|replaced|shutdown) and gateway.push.rejections (instance at capacity).
+ */
+@Slf4j
+public class PushHub {
+
+    // Server-Sent Events frames (text/event-stream): fields, then an empty line
+    private static final byte[] HEARTBEAT = ":\n\n".getBytes(StandardCharsets.UTF_8); // Comment line
+    // With data: browsers' EventSource ignores data-less events
+    private static final byte[] RESYNC = "event:resync\ndata:{}\n\n".getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final int bufferSize; // Events per stream before it counts as a slow consumer
+    private final int maxConnections; // Per gateway instance
+    private final int maxConnectionsPerUser; // Beyond this the user's oldest stream is closed
+    private final int replayCapacity;
+    private final Duration heartbeatInterval;
+    private final byte[] hello; // First frame: gets the response on its way, sets the reconnect delay
+
+    private final Map<String, PushConnection[]> connectionsByUser = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    // Recently dispatched events, oldest first; also the lock that orders dispatch and replay
+    private final Deque<RecentEvent> recent = new ArrayDeque<>();
+    private final Counter delivered;
+    private final Counter rejected;
+    private Disposable heartbeat;
+
+    public PushHub(ObjectMapper objectMapper, MeterRegistry meterRegistry, int bufferSize, int maxConnections,
+                   int maxConnectionsPerUser, int replayCapacity, Duration heartbeatInterval, Duration reconnectDelay) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.bufferSize = Math.max(8, bufferSize);
+        this.maxConnections = maxConnections;
+        this.maxConnectionsPerUser = Math.max(1, maxConnectionsPerUser);
+        this.replayCapacity = Math.max(1, replayCapacity);
+        this.heartbeatInterval = heartbeatInterval;
+        this.hello = ("retry:" + reconnectDelay.toMillis() + "\n:connected\n\n").getBytes(StandardCharsets.UTF_8);
+
+        Gauge.builder("gateway.push.connections", connectionCount, AtomicInteger::get)
+                .description("Open push (Server-Sent Events) streams on this gateway")
+                .register(meterRegistry);
+        this.delivered = Counter.builder("gateway.push.events")
+                .description("Inquiry events queued for delivery to push streams")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("gateway.push.rejections")
+                .description("Push streams refused because this gateway holds push.max-connections")
+                .register(meterRegistry);
+    }
+
+    public void start() {
+        heartbeat = Flux.interval(heartbeatInterval, heartbeatInterval, Schedulers.parallel())
+                .subscribe(tick -> sendHeartbeats());
+    }
+
+    /**
+     * Closes every stream (clients reconnect, to another instance if this one is going away).
+     */
+    public void stop() {
+        if (heartbeat != null) {
+            heartbeat.dispose();
+        }
+        forEachConnection(connection -> evict(connection, "shutdown"));
+    }
+
+    /**
+     * Opens a push stream for a user. If lastEventId is given (the client is reconnecting),
+     * the user's events dispatched since then are sent first.
+     *
+     * @param userId      The authenticated username.
+     * @param lastEventId The Last-Event-ID the client sent, if any.
+     * @param close       Closes the underlying connection; used to evict the stream.
+     * @return The frames to write to the response; unregisters the stream when it ends.
+     * @throws ResponseStatusException 503 if this gateway already holds push.max-connections streams.
+     */
+    public Flux<byte[]> connect(String userId, String lastEventId, Runnable close) {
+        if (connectionCount.get() >= maxConnections) {
+            rejected.increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Push connection limit reached");
+        }
+        PushConnection connection = new PushConnection(userId, bufferSize, close);
+        connection.offer(hello);
+        synchronized (recent) {
+            // Registration and replay under the dispatch lock: no event is missed or sent twice
+            register(connection);
+            replay(connection, lastEventId);
+        }
+        return connection.asFlux().doFinally(signal -> unregister(connection));
+    }
+
+    /**
+     * Delivers an event to its recipients' open streams. Called for each event the gateway
+     * receives from an inquiry-service instance; never blocks.
+     */
+    public void publish(InquiryEvent event) {
+        byte[] frame;
+        try {
+            // Encoded once, shared by all recipients (JSON has no raw line breaks, so one data line)
+            frame = ("id:" + event.getEventId() + "\nevent:inquiry\ndata:" + objectMapper.writeValueAsString(event) + "\n\n")
+                    .getBytes(StandardCharsets.UTF_8);
+        } catch (JsonProcessingException e) {
+            log.warn("Cannot serialize inquiry event {}: {}", event.getEventId(), e.getMessage());
+            return;
+        }
+        RecentEvent recentEvent = new RecentEvent(event.getEventId(), event.getUserId(), event.getSupplierName(), frame);
+        synchronized (recent) {
+            if (recent.size() == replayCapacity) {
+                recent.removeFirst();
+            }
+            recent.addLast(recentEvent);
+            deliver(recentEvent.userId, frame);
+            if (recentEvent.supplierName != null && !recentEvent.supplierName.equals(recentEvent.userId)) {
+                deliver(recentEvent.supplierName, frame);
+            }
+        }
+    }
+
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    private void deliver(String username, byte[] frame) {
+        if (username == null) {
+            return;
+        }
+        PushConnection[] connections = connectionsByUser.get(username);
+        if (connections == null) {
+            return; // Not connected to this gateway; clients load missed changes when they reconnect
+        }
+        for (PushConnection connection : connections) {
+            if (connection.offer(frame)) {
+                delivered.increment();
+            } else {
+                evict(connection, "slow_consumer");
+            }
+        }
+    }
+
+    // The user's events after lastEventId, or 'resync' if that event is no longer retained
+    // (client gone too long, or this gateway restarted) or there are more than fit the buffer.
+    // Matched by position, not by comparing IDs: event IDs are only ordered per supplier.
+    private void replay(PushConnection connection, String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return;
+        }
+        List<byte[]> missed = new ArrayList<>();
+        boolean found = false;
+        for (RecentEvent event : recent) {
+            if (lastEventId.equals(String.valueOf(event.eventId))) {
+                missed.clear();
+                found = true;
+            } else if (event.isFor(connection.getUserId())) {
+                missed.add(event.frame);
+            }
+        }
+        if (!found || missed.size() > bufferSize - 2) { // Leave room for the hello and a heartbeat
+            connection.offer(RESYNC);
+            return;
+        }
+        for (byte[] frame : missed) {
+            connection.offer(frame);
+        }
+    }
+
+    private void register(PushConnection connection) {
+        PushConnection[] replaced = new PushConnection[1];
+        connectionsByUser.compute(connection.getUserId(), (user, current) -> {
+            if (current == null) {
+                return new PushConnection[]{connection};
+            }
+            int keep = current.length;
+            int from = 0;
+            if (keep >= maxConnectionsPerUser) {
+                replaced[0] = current[0]; // Oldest first: most likely a stale tab or a dropped network
+                from = 1;
+                keep--;
+            }
+            PushConnection[] updated = Arrays.copyOfRange(current, from, from + keep + 1);
+            updated[keep] = connection;
+            return updated;
+        });
+        if (replaced[0] == null) {
+            connectionCount.incrementAndGet();
+        } else {
+            countEviction("replaced");
+            replaced[0].close();
+        }
+    }
+
+    private void unregister(PushConnection connection) {
+        boolean[] removed = new boolean[1];
+        connectionsByUser.computeIfPresent(connection.getUserId(), (user, current) -> {
+            for (int i = 0; i < current.length; i++) {
+                if (current[i] == connection) {
+                    removed[0] = true;
+                    if (current.length == 1) {
+                        return null;
+                    }
+                    PushConnection[] updated = new PushConnection[current.length - 1];
+                    System.arraycopy(current, 0, updated, 0, i);
+                    System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                    return updated;
+                }
+            }
+            return current;
+        });
+        if (removed[0]) {
+            connectionCount.decrementAndGet();
+        }
+    }
+
+    private void sendHeartbeats() {
+        forEachConnection(connection -> {
+            if (!connection.offer(HEARTBEAT)) {
+                evict(connection, "slow_consumer");
+            }
+        });
+    }
+
+    private void evict(PushConnection connection, String reason) {
+        unregister(connection);
+        countEviction(reason);
+        connection.close();
+    }
+
+    private void countEviction(String reason) {
+        meterRegistry.counter("gateway.push.evictions", "reason", reason).increment();
+    }
+
+    private void forEachConnection(Consumer<PushConnection> action) {
+        for (PushConnection[] connections : connectionsByUser.values()) {
+            for (PushConnection connection : connections) {
+                action.accept(connection);
+            }
+        }
+    }
+
+    /**
+     * A dispatched event as retained for replay: the encoded frame plus its recipients.
+     */
+    private record RecentEvent(Long eventId, String userId, String supplierName, byte[] frame) {
+
+        boolean isFor(String username) {
+            return username.equals(userId) || username.equals(supplierName);
+        }
+    }
+}
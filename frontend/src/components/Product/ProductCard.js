@@ -12,6 +12,7 @@ import { ShoppingCart } from 'lucide-react'; // Optional icon for "Inquire" butt
  * @param {string} props.product.name - Product name.
  * @param {string} props.product.price - Product price string.
  * @param {string} props.product.image - Product image URL.
+ * @param {string} [props.product.thumbnail] - Path of a card-sized thumbnail on the API gateway.
  * @param {string} props.product.supplierName - Product supplier name.
  */
 const ProductCard = ({ product }) => {
@@ -27,8 +28,15 @@ const ProductCard = ({ product }) => {
     }
   };
 
-  // Fallback image handler
+  // Thumbnail served (and cached) by product-service; the original image is the fallback
+  const thumbnailUrl = product && product.thumbnail ? `${process.env.REACT_APP_API_GATEWAY_URL}${product.thumbnail}` : null;
+
+  // Fallback image handler: thumbnail -> original image -> placeholder
   const handleImageError = (e) => {
+    if (thumbnailUrl && product.image && e.target.src === thumbnailUrl) {
+      e.target.src = product.image;
+      return;
+    }
     e.target.onerror = null; // Prevent infinite loop
     // Use a more descriptive placeholder if the original fails
     e.target.src = `https://placehold.co/300x200/EAEAEA/cc0000?text=${encodeURIComponent(product.name)}+Image+Not+Found`;
@@ -45,7 +53,7 @@ const ProductCard = ({ product }) => {
       {/* Product Image */}
       <div className="relative h-48 w-full flex-shrink-0">
         <img
-          src={product.image || 'https://placehold.co/300x200/EAEAEA/cc0000?text=No+Image'} // Default placeholder if image URL is missing
+          src={thumbnailUrl || product.image || 'https://placehold.co/300x200/EAEAEA/cc0000?text=No+Image'} // Default placeholder if image URL is missing
           alt={product.name || 'Product Image'}
           className="w-full h-full object-cover"
           onError={handleImageError}
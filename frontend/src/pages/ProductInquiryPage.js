@@ -77,6 +77,7 @@ const ProductInquiryPage = () => {
       productId: parseInt(productId, 10), // Ensure ID is number
       subject: inquiryData.subject,
       message: inquiryData.message,
+      supplierName: product?.supplierName, // Routes the inquiry to the supplier's inbox
     };
 
     try {
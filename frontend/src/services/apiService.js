@@ -121,6 +121,18 @@ export const fetchProductById = (productId) => {
   return apiClient.get(`/products/${productId}`);
 };
 
+/**
+ * Fetches several products by ID in one request (instead of fetchProductById in a loop).
+ * @param {Array<string | number>} productIds - Up to 100 product IDs.
+ * @returns {Promise<axios.AxiosResponse<any>>} Promise resolving with { products (in request order), missing (IDs not found) }.
+ */
+export const fetchProductsByIds = (productIds) => {
+  // Public endpoint
+  return apiClient.get('/products', {
+    params: { ids: productIds.join(',') },
+  });
+};
+
 // --- Inquiries ---
 /**
  * Submits a new product inquiry. Requires authentication (token added by interceptor).
@@ -133,12 +145,146 @@ export const submitInquiry = (inquiryData) => {
 };
 
 /**
- * Fetches inquiries submitted by the currently authenticated user. Requires authentication.
- * @returns {Promise<axios.AxiosResponse<any>>} Promise resolving with the list of user's inquiries.
+ * Fetches one page of inquiries submitted by the currently authenticated user, newest first.
+ * Requires authentication.
+ * @param {string} [cursor] - nextCursor from the previous page; omit for the first page.
+ * @param {number} [limit=20] - Page size (the service caps it at 100).
+ * @returns {Promise<axios.AxiosResponse<any>>} Promise resolving with { items, nextCursor };
+ *   items carry a messagePreview, use fetchInquiry(id) for the full message.
+ */
+export const fetchMyInquiries = (cursor, limit = 20) => {
+  // Protected endpoint - Interceptor MUST add the token
+  return apiClient.get('/inquiries/my-inquiries', { params: { cursor, limit } });
+};
+
+/**
+ * Fetches a single inquiry of the current user, including the full message. Requires authentication.
+ * @param {number|string} inquiryId - The ID of the inquiry.
+ * @returns {Promise<axios.AxiosResponse<any>>} Promise resolving with the inquiry details.
+ */
+export const fetchInquiry = (inquiryId) => {
+  // Protected endpoint - Interceptor MUST add the token
+  return apiClient.get(`/inquiries/${inquiryId}`);
+};
+
+/**
+ * Fetches the current user's archived inquiries (older than the retention window), in full,
+ * newest first. Requires authentication.
+ * @returns {Promise<axios.AxiosResponse<any>>} Promise resolving with the list of inquiries.
  */
-export const fetchMyInquiries = () => {
+export const fetchMyArchivedInquiries = () => {
   // Protected endpoint - Interceptor MUST add the token
-  return apiClient.get('/inquiries/my-inquiries');
+  return apiClient.get('/inquiries/my-inquiries/archived');
+};
+
+// --- Supplier inbox (supplier accounts only) ---
+/**
+ * Fetches the supplier's dashboard counters: { supplierName, total, unread, products: [{ productId, total, unread }] }.
+ * @returns {Promise<axios.AxiosResponse<any>>}
+ */
+export const fetchSupplierInboxSummary = () => {
+  return apiClient.get('/inquiries/supplier/summary');
+};
+
+/**
+ * Fetches one page of the supplier's received inquiries, newest first.
+ * @param {object} [options] - { productId, cursor, limit }
+ * @returns {Promise<axios.AxiosResponse<any>>} Promise resolving with { items, nextCursor }.
+ */
+export const fetchSupplierInbox = ({ productId, cursor, limit = 20 } = {}) => {
+  return apiClient.get('/inquiries/supplier/inbox', { params: { productId, cursor, limit } });
+};
+
+/**
+ * Opens a received inquiry (full message); the first call marks it read.
+ * @param {number|string} inquiryId - The ID of the inquiry.
+ * @returns {Promise<axios.AxiosResponse<any>>}
+ */
+export const openSupplierInquiry = (inquiryId) => {
+  return apiClient.get(`/inquiries/supplier/inbox/${inquiryId}`);
+};
+
+// --- Real-time inquiry events (Server-Sent Events from the gateway) ---
+/**
+ * Opens the push stream of the current user's inquiry events (new inquiries received as a
+ * supplier, own inquiries read by the supplier) and keeps it open: reconnects with backoff and
+ * resumes after the last received event. Uses fetch instead of EventSource, which cannot send
+ * the Authorization header.
+ * @param {function(object): void} onEvent - Called with each event:
+ *   { eventId, type: 'INQUIRY_CREATED'|'INQUIRY_READ', inquiryId, supplierName, productId, userId, occurredAt }.
+ * @param {function(): void} [onResync] - Called when events may have been missed (reload the lists).
+ * @returns {function(): void} Call to close the stream.
+ */
+export const subscribeToInquiryEvents = (onEvent, onResync = () => {}) => {
+  const controller = new AbortController();
+  let lastEventId = null;
+  let retryMs = 3000; // Server sends the preferred delay ('retry:')
+  let failures = 0;
+
+  const handle = (block) => {
+    let id = null;
+    let event = 'message';
+    const data = [];
+    for (const line of block.split('\n')) {
+      if (line.startsWith(':')) continue; // Comment / heartbeat
+      const colon = line.indexOf(':');
+      const field = colon < 0 ? line : line.slice(0, colon);
+      const value = colon < 0 ? '' : line.slice(colon + 1).replace(/^ /, '');
+      if (field === 'id') id = value;
+      else if (field === 'event') event = value;
+      else if (field === 'data') data.push(value);
+      else if (field === 'retry' && /^\d+$/.test(value)) retryMs = Number(value);
+    }
+    if (id) lastEventId = id;
+    if (event === 'inquiry' && data.length) onEvent(JSON.parse(data.join('\n')));
+    else if (event === 'resync') onResync();
+  };
+
+  const connect = async () => {
+    const token = localStorage.getItem('authToken');
+    const headers = { Accept: 'text/event-stream' };
+    if (token) headers['Authorization'] = `Bearer ${token}`;
+    if (lastEventId) headers['Last-Event-ID'] = lastEventId;
+    const response = await fetch(`${API_GATEWAY_URL}/events`, { headers, signal: controller.signal });
+    if (response.status === 401 || response.status === 403) {
+      throw Object.assign(new Error(`Event stream refused: ${response.status}`), { fatal: true });
+    }
+    if (!response.ok || !response.body) throw new Error(`Event stream failed: ${response.status}`);
+    failures = 0;
+    const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+    let buffer = '';
+    for (;;) {
+      const { value, done } = await reader.read();
+      if (done) return; // Server closed the stream (e.g. gateway restart): reconnect
+      buffer += value.replace(/\r\n?/g, '\n');
+      let end;
+      while ((end = buffer.indexOf('\n\n')) >= 0) {
+        handle(buffer.slice(0, end));
+        buffer = buffer.slice(end + 2);
+      }
+    }
+  };
+
+  const run = async () => {
+    while (!controller.signal.aborted) {
+      try {
+        await connect();
+      } catch (error) {
+        if (controller.signal.aborted) return;
+        if (error.fatal) {
+          console.warn(error.message); // Not logged in / token expired: do not hammer the gateway
+          return;
+        }
+        failures += 1;
+      }
+      // Backoff with jitter, so a gateway restart does not get all clients back at the same instant
+      const delay = Math.min(retryMs * 2 ** Math.min(failures, 4), 60000) * (0.5 + Math.random());
+      await new Promise((resolve) => setTimeout(resolve, delay));
+    }
+  };
+
+  run();
+  return () => controller.abort();
 };
 
 // Add other API functions as needed (update product, delete inquiry, etc.)
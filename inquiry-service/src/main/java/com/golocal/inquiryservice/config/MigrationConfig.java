@@ -0,0 +1,24 @@
+package com.golocal.inquiryservice.config;
+
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+
+/**
+ * Flyway settings not covered by spring.flyway.* properties.
+ */
+@Configuration
+public class MigrationConfig {
+
+    /**
+     * Takes Flyway's lock as a session-level advisory lock instead of inside a transaction held
+     * open for the whole run. CREATE INDEX CONCURRENTLY waits for every older transaction to
+     * finish, so with the default it would wait for Flyway's own lock forever.
+     */
+    @Bean
+    public FlywayConfigurationCustomizer sessionLevelMigrationLock() {
+        return configuration -> configuration.configuration(Map.of("flyway.postgresql.transactional.lock", "false"));
+    }
+}
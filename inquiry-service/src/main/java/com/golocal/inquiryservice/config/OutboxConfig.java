@@ -0,0 +1,133 @@
+package com.golocal.inquiryservice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.golocal.inquiryservice.dto.InquiryEventDto;
+import com.golocal.inquiryservice.service.InquiryEventSink;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Configures where OutboxRelay publishes inquiry events, via 'outbox.sink':
+ *  - memory (default): keeps the most recent events in memory, for tests and local inspection,
+ *  - file: appends JSON Lines to 'outbox.file.path' and syncs them to disk per batch,
+ *  - log: one log line per event.
+ * A broker adapter (e.g. Kafka, keyed by supplierName) is added as another InquiryEventSink bean.
+ */
+@Configuration
+@Slf4j
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "outbox.sink", havingValue = "memory", matchIfMissing = true)
+    public InMemoryEventSink inMemoryEventSink(@Value("${outbox.memory.capacity:1000}") int capacity) {
+        return new InMemoryEventSink(capacity);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "outbox.sink", havingValue = "file")
+    public InquiryEventSink fileEventSink(ObjectMapper objectMapper,
+                                          @Value("${outbox.file.path:inquiry-events.jsonl}") Path path) throws IOException {
+        return new FileEventSink(objectMapper, path);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "outbox.sink", havingValue = "log")
+    public InquiryEventSink loggingEventSink() {
+        return new LoggingEventSink();
+    }
+
+    /**
+     * Stand-in sink that writes one log line per event.
+     */
+    static final class LoggingEventSink implements InquiryEventSink {
+
+        @Override
+        public void publish(List<InquiryEventDto> events) {
+            for (InquiryEventDto event : events) {
+                log.info("inquiry event id={} type={} inquiry={} supplier='{}' product={} occurredAt={}",
+                        event.getEventId(), event.getType(), event.getInquiryId(), event.getSupplierName(),
+                        event.getProductId(), event.getOccurredAt());
+            }
+        }
+    }
+
+    /**
+     * Stand-in sink that keeps the most recent events in memory (bounded), for tests
+     * and local inspection.
+     */
+    public static final class InMemoryEventSink implements InquiryEventSink {
+
+        private final int capacity;
+        private final Deque<InquiryEventDto> events = new ArrayDeque<>();
+
+        InMemoryEventSink(int capacity) {
+            this.capacity = Math.max(1, capacity);
+        }
+
+        @Override
+        public synchronized void publish(List<InquiryEventDto> batch) {
+            for (InquiryEventDto event : batch) {
+                if (events.size() == capacity) {
+                    events.removeFirst(); // Drop the oldest
+                }
+                events.addLast(event);
+            }
+        }
+
+        /**
+         * @return The retained events, oldest first.
+         */
+        public synchronized List<InquiryEventDto> getEvents() {
+            return new ArrayList<>(events);
+        }
+    }
+
+    /**
+     * Stand-in sink that appends events to a local file as JSON Lines. A batch is only
+     * acknowledged after it has been synced to disk, so a crash never loses an event
+     * the relay already removed from the outbox.
+     */
+    static final class FileEventSink implements InquiryEventSink {
+
+        private final ObjectMapper objectMapper;
+        private final FileOutputStream out;
+
+        FileEventSink(ObjectMapper objectMapper, Path path) throws IOException {
+            this.objectMapper = objectMapper;
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            this.out = new FileOutputStream(path.toFile(), true); // Append
+            log.info("Publishing inquiry events to {}", path.toAbsolutePath());
+        }
+
+        @Override
+        public synchronized void publish(List<InquiryEventDto> events) {
+            try {
+                StringBuilder lines = new StringBuilder();
+                for (InquiryEventDto event : events) {
+                    lines.append(objectMapper.writeValueAsString(event)).append('\n');
+                }
+                out.write(lines.toString().getBytes(StandardCharsets.UTF_8));
+                out.getFD().sync(); // Durable before the relay deletes the batch from the outbox
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not append inquiry events", e);
+            }
+        }
+    }
+}
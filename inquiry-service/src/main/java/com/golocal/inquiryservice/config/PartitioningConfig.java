@@ -0,0 +1,14 @@
+package com.golocal.inquiryservice.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Wiring for the monthly partitioning of 'inquiry': scheduling is enabled for
+ * InquiryPartitionService's daily maintenance. The partitioned table comes from the V1
+ * migration and the current partitions from InquiryPartitionCallback, both before JPA starts.
+ */
+@Configuration
+@EnableScheduling
+public class PartitioningConfig {
+}
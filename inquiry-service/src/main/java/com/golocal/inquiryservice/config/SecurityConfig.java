@@ -41,6 +41,8 @@ public class SecurityConfig {
             .authorizeHttpRequests(authorize -> authorize
                     .requestMatchers("/api/inquiries/**").authenticated() // Requires authentication
                     .requestMatchers("/actuator/**").permitAll() // Allow health checks
+                    // Event feed for the gateways' push hubs; not routed by the gateway, internal network only
+                    .requestMatchers("/internal/inquiry-events").permitAll()
                     .anyRequest().denyAll() // Deny any other unexpected requests
             )
 
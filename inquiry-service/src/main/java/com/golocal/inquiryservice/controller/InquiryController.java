@@ -1,7 +1,9 @@
 package com.golocal.inquiryservice.controller;
 
+import com.golocal.inquiryservice.dto.InquiryPageDto;
 import com.golocal.inquiryservice.dto.InquiryRequestDto;
 import com.golocal.inquiryservice.dto.InquiryResponseDto;
+import com.golocal.inquiryservice.service.InquiryArchiveService;
 import com.golocal.inquiryservice.service.InquiryService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -24,6 +26,7 @@ import java.util.List;
 public class InquiryController {
 
     private final InquiryService inquiryService;
+    private final InquiryArchiveService inquiryArchiveService; // Inquiries past the retention window
     private static final String USER_ID_HEADER = "X-User-Id"; // Consistent header name
 
     /**
@@ -41,7 +44,7 @@ public class InquiryController {
             @Valid @RequestBody InquiryRequestDto inquiryRequestDto,
             @RequestHeader(name = USER_ID_HEADER, required = true) String userId) { // Get userId from header
 
-        log.info("Received request to create inquiry from User ID: {} for Product ID: {}", userId, inquiryRequestDto.getProductId());
+        log.debug("Received request to create inquiry from User ID: {} for Product ID: {}", userId, inquiryRequestDto.getProductId());
 
          // Optional: Basic check if header is present (though required=true handles it)
          if (!StringUtils.hasText(userId)) {
@@ -52,32 +55,81 @@ public class InquiryController {
 
 
         InquiryResponseDto createdInquiry = inquiryService.createInquiry(inquiryRequestDto, userId);
-        log.info("Inquiry created successfully with ID: {}", createdInquiry.getId());
+        log.debug("Inquiry created successfully with ID: {}", createdInquiry.getId()); // Service logs the INFO line
         return ResponseEntity.status(HttpStatus.CREATED).body(createdInquiry);
     }
 
     /**
-     * GET /api/inquiries/my-inquiries : Get all inquiries submitted by the currently authenticated user.
+     * GET /api/inquiries/my-inquiries : Get the inquiries submitted by the currently authenticated user,
+     * newest first, one page at a time. Items are summaries with a message preview; fetch
+     * GET /api/inquiries/{id} for the full message.
      * Requires authentication. Extracts user ID from the X-User-Id header.
      *
      * @param userId The user ID extracted from the request header.
-     * @return ResponseEntity containing a list of InquiryResponseDtos (HTTP 200 OK).
+     * @param cursor The nextCursor from the previous page (omit for the first page).
+     * @param limit  Page size (default 20, at most 100).
+     * @return ResponseEntity containing an InquiryPageDto (HTTP 200 OK).
      */
     @GetMapping("/my-inquiries")
     // @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<List<InquiryResponseDto>> getMyInquiries(
+    public ResponseEntity<InquiryPageDto> getMyInquiries(
+            @RequestHeader(name = USER_ID_HEADER, required = true) String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        log.debug("Received request to get inquiries for User ID: {}", userId);
+
+         if (!StringUtils.hasText(userId)) {
+             log.warn("Missing or empty {} header in request.", USER_ID_HEADER);
+             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+         }
+
+        InquiryPageDto page = inquiryService.getInquiryPageForUser(userId, cursor, limit);
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * GET /api/inquiries/my-inquiries/archived : Get the current user's inquiries that are past the
+     * retention window and were moved to the archive, in full, newest first (data export).
+     *
+     * @param userId The user ID extracted from the request header.
+     * @return ResponseEntity containing the archived inquiries (HTTP 200 OK, empty list if none).
+     */
+    @GetMapping("/my-inquiries/archived")
+    public ResponseEntity<List<InquiryResponseDto>> getMyArchivedInquiries(
+            @RequestHeader(name = USER_ID_HEADER, required = true) String userId) {
+
+        log.debug("Request for archived inquiries of user {}", userId);
+
+         if (!StringUtils.hasText(userId)) {
+             log.warn("Missing or empty {} header in request.", USER_ID_HEADER);
+             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+         }
+
+        return ResponseEntity.ok(inquiryArchiveService.findArchivedForUser(userId));
+    }
+
+    /**
+     * GET /api/inquiries/{id} : Get a single inquiry, including the full message body.
+     * Only the user who submitted the inquiry can see it; anyone else gets 404.
+     *
+     * @param id     The inquiry ID.
+     * @param userId The user ID extracted from the request header.
+     * @return ResponseEntity containing the InquiryResponseDto (HTTP 200 OK).
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<InquiryResponseDto> getInquiryById(
+            @PathVariable Long id,
             @RequestHeader(name = USER_ID_HEADER, required = true) String userId) {
 
-        log.info("Received request to get inquiries for User ID: {}", userId);
+        log.debug("Request to get inquiry ID {} by user {}", id, userId);
 
          if (!StringUtils.hasText(userId)) {
              log.warn("Missing or empty {} header in request.", USER_ID_HEADER);
              return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
          }
 
-        List<InquiryResponseDto> inquiries = inquiryService.getInquiriesForUser(userId);
-        log.debug("Returning {} inquiries for user ID: {}", inquiries.size(), userId);
-        return ResponseEntity.ok(inquiries);
+        return ResponseEntity.ok(inquiryService.getInquiryForUser(id, userId));
     }
 
     // --- Alternative way to get User ID using Principal (requires more config) ---
@@ -103,18 +155,6 @@ public class InquiryController {
     }
     */
 
-    // Add other endpoints as needed (e.g., GET /api/inquiries/{id})
+    // Add other endpoints as needed.
     // Ensure proper authorization checks if implementing endpoints for suppliers/admins.
-    /*
-     @GetMapping("/{id}")
-     public ResponseEntity<InquiryResponseDto> getInquiryById(
-             @PathVariable Long id,
-             @RequestHeader(name = USER_ID_HEADER) String userId) {
-         log.info("Request to get inquiry ID {} by user {}", id, userId);
-         // Fetch inquiry and verify if the current user (userId) is allowed to see it
-         // Inquiry inquiry = inquiryService.getInquiryByIdAndValidateUser(id, userId); // Example service method
-         // return ResponseEntity.ok(mapToDto(inquiry));
-         return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).build();
-     }
-    */
 }
\ No newline at end of file
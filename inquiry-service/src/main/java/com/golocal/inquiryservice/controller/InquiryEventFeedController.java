@@ -0,0 +1,32 @@
+package com.golocal.inquiryservice.controller;
+
+import com.golocal.inquiryservice.service.InquiryEventFeed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Service-to-service endpoint streaming published inquiry events to the API gateways,
+ * which push them on to the browsers. Not routed by the gateway (no /api prefix), so it is
+ * only reachable on the internal network.
+ */
+@RestController
+@RequiredArgsConstructor
+public class InquiryEventFeedController {
+
+    private final InquiryEventFeed inquiryEventFeed;
+
+    /**
+     * GET /internal/inquiry-events : Server-Sent Events stream, one 'inquiry' event per
+     * published InquiryEventDto (id = eventId), plus a heartbeat comment every few seconds.
+     *
+     * @param lastEventId Standard SSE reconnect header: resume after this event.
+     */
+    @GetMapping(path = "/internal/inquiry-events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(@RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+        return inquiryEventFeed.subscribe(lastEventId);
+    }
+}
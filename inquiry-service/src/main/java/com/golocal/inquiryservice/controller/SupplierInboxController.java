@@ -0,0 +1,89 @@
+package com.golocal.inquiryservice.controller;
+
+import com.golocal.inquiryservice.dto.InquiryPageDto;
+import com.golocal.inquiryservice.dto.InquiryResponseDto;
+import com.golocal.inquiryservice.dto.SupplierInboxSummaryDto;
+import com.golocal.inquiryservice.service.SupplierInboxService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Arrays;
+
+/**
+ * REST Controller for the supplier inbox (inquiries received about a supplier's products).
+ * Requires a supplier account: the gateway forwards the token's roles in X-User-Roles and
+ * the account username in X-User-Id. The username is the supplier name shown on the
+ * supplier's products, which is how inquiries are routed to the inbox.
+ */
+@RestController
+@RequestMapping("/api/inquiries/supplier")
+@RequiredArgsConstructor
+@Slf4j
+public class SupplierInboxController {
+
+    private final SupplierInboxService supplierInboxService;
+    private static final String USER_ID_HEADER = "X-User-Id";
+    private static final String USER_ROLES_HEADER = "X-User-Roles"; // Comma-separated, e.g. "ROLE_USER,ROLE_SUPPLIER"
+    private static final String SUPPLIER_ROLE = "ROLE_SUPPLIER";
+
+    /**
+     * GET /api/inquiries/supplier/summary : Dashboard counters (total and unread), for the
+     * supplier and per product. Constant-time reads of precomputed counters.
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<SupplierInboxSummaryDto> getSummary(
+            @RequestHeader(name = USER_ID_HEADER) String userId,
+            @RequestHeader(name = USER_ROLES_HEADER, required = false) String roles) {
+        String supplierName = requireSupplier(userId, roles);
+        return ResponseEntity.ok(supplierInboxService.getSummary(supplierName));
+    }
+
+    /**
+     * GET /api/inquiries/supplier/inbox : One page of received inquiries, newest first.
+     *
+     * @param productId Only inquiries about this product (optional).
+     * @param cursor    The nextCursor from the previous page (omit for the first page).
+     * @param limit     Page size (default 20, at most 100).
+     */
+    @GetMapping("/inbox")
+    public ResponseEntity<InquiryPageDto> getInbox(
+            @RequestHeader(name = USER_ID_HEADER) String userId,
+            @RequestHeader(name = USER_ROLES_HEADER, required = false) String roles,
+            @RequestParam(required = false) Long productId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        String supplierName = requireSupplier(userId, roles);
+        return ResponseEntity.ok(supplierInboxService.getInboxPage(supplierName, productId, cursor, limit));
+    }
+
+    /**
+     * GET /api/inquiries/supplier/inbox/{id} : Open a received inquiry (full message).
+     * The first call marks it read and updates the unread counters.
+     */
+    @GetMapping("/inbox/{id}")
+    public ResponseEntity<InquiryResponseDto> openInquiry(
+            @PathVariable Long id,
+            @RequestHeader(name = USER_ID_HEADER) String userId,
+            @RequestHeader(name = USER_ROLES_HEADER, required = false) String roles) {
+        String supplierName = requireSupplier(userId, roles);
+        return ResponseEntity.ok(supplierInboxService.openInquiry(id, supplierName));
+    }
+
+    /**
+     * @return The supplier name for the request.
+     * @throws AccessDeniedException (HTTP 403) unless the caller has the supplier role.
+     */
+    private String requireSupplier(String userId, String roles) {
+        boolean supplier = roles != null && Arrays.stream(roles.split(","))
+                .map(String::trim)
+                .anyMatch(SUPPLIER_ROLE::equals);
+        if (!StringUtils.hasText(userId) || !supplier) {
+            throw new AccessDeniedException("Supplier account required");
+        }
+        return userId;
+    }
+}
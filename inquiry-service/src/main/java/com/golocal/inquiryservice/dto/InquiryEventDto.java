@@ -0,0 +1,32 @@
+package com.golocal.inquiryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Data Transfer Object (DTO) for an inquiry event as published by the outbox relay.
+ * eventId increases in publication order and is unique, so consumers can drop duplicates
+ * (delivery is at-least-once) and detect reordering.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InquiryEventDto {
+
+    private Long eventId; // Outbox row ID
+
+    private String type; // INQUIRY_CREATED | INQUIRY_READ
+
+    private Long inquiryId;
+
+    private String supplierName; // Partition/ordering key for a broker
+
+    private Long productId;
+
+    private String userId;
+
+    private Instant occurredAt;
+}
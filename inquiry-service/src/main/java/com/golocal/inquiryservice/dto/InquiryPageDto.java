@@ -0,0 +1,22 @@
+package com.golocal.inquiryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a cursor-paginated inquiry list.
+ * Pass nextCursor back as the 'cursor' query parameter to get the following page;
+ * it is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InquiryPageDto {
+
+    private List<InquirySummaryDto> items; // Newest first
+
+    private String nextCursor; // Opaque; null when there are no more items
+}
@@ -42,7 +42,10 @@ public class InquiryRequestDto {
     // It should be obtained from the security context or the 'X-User-Id' header
     // added by the API Gateway after validating the JWT token.
 
-    // Optional: If needed, you could include supplier info if the frontend knows it,
-    // but often the backend might look this up based on productId if required.
-    // private String supplierName;
+    /**
+     * Supplier of the product, as shown on the product the user is asking about.
+     * Optional; routes the inquiry to that supplier's inbox.
+     */
+    @Size(max = 100, message = "Supplier name cannot exceed 100 characters")
+    private String supplierName;
 }
\ No newline at end of file
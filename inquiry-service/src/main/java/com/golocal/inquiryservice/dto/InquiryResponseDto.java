@@ -34,6 +34,8 @@ public class InquiryResponseDto {
 
     private Instant updatedAt; // Timestamp when the inquiry was last updated (e.g., if replies are added)
 
+    private Instant readAt; // When the supplier first opened the inquiry; null while unread
+
     // Optional: Fields for replies/status if implementing a more complex chat feature
     // private String status; // e.g., "NEW", "READ", "REPLIED"
     // private List<ReplyDto> replies;
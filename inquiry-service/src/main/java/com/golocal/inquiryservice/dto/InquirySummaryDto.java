@@ -0,0 +1,37 @@
+package com.golocal.inquiryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Data Transfer Object (DTO) for one row of an inquiry list.
+ * Carries only a short preview of the message; the full body is fetched
+ * via GET /api/inquiries/{id} (InquiryResponseDto).
+ * Also used for the supplier inbox list.
+ * Built directly by the repository query (JPQL constructor expression), so the
+ * constructor argument order must match InquiryRepository.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InquirySummaryDto {
+
+    private Long id; // The unique ID of the inquiry
+
+    private Long productId; // ID of the product inquired about
+
+    private String userId; // ID of the user who sent the inquiry
+
+    private String supplierName;
+
+    private String subject;
+
+    private String messagePreview; // First characters of the message (see InquiryRepository.PREVIEW_LENGTH)
+
+    private Instant createdAt;
+
+    private Instant readAt; // When the supplier opened it; null while unread
+}
@@ -0,0 +1,23 @@
+package com.golocal.inquiryservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The fields of product-service's ProductDto that this service uses (read by
+ * ProductServiceClient); the others are skipped when the response is decoded.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ProductDto {
+
+    private Long id; // The product's ID in product-service
+
+    private String name;
+
+    private String supplierName; // Name of the supplier offering the product
+}
@@ -0,0 +1,41 @@
+package com.golocal.inquiryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for the supplier dashboard: inquiry totals and unread counts
+ * for the supplier as a whole and for each of its products.
+ * Read from the precomputed 'inquiry_counter' table, not counted per request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SupplierInboxSummaryDto {
+
+    private String supplierName;
+
+    private long total; // All inquiries received by the supplier
+
+    private long unread; // Inquiries the supplier has not opened yet
+
+    private List<ProductCounts> products; // Per-product counters, most unread first
+
+    /**
+     * Counters for one of the supplier's products.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ProductCounts {
+
+        private Long productId;
+
+        private long total;
+
+        private long unread;
+    }
+}
@@ -11,17 +11,16 @@ import java.time.Instant;
 
 /**
  * JPA Entity representing a product inquiry sent by a user.
+ * The table is partitioned by month of createdAt and its primary key is (id, createdAt);
+ * see InquiryPartitionRepository. Inquiries past the retention window are moved to
+ * 'inquiry_archive' (InquiryArchiveService).
  */
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "inquiry", // Table name in the database
-        indexes = {
-                @Index(name = "idx_inquiry_user", columnList = "userId"),      // Index for fetching by user
-                @Index(name = "idx_inquiry_product", columnList = "productId"), // Index for fetching by product
-                @Index(name = "idx_inquiry_created", columnList = "createdAt") // Index on timestamp
-        })
+// Table, partitions and indexes come from the migrations (db/migration) and InquiryPartitionRepository
+@Table(name = "inquiry") // Table name in the database
 public class Inquiry {
 
     @Id
@@ -54,7 +53,8 @@ public class Inquiry {
     @Column(nullable = false, columnDefinition = "TEXT") // Inquiry message body
     private String message;
 
-    // Timestamps managed by Hibernate
+    // Timestamps managed by Hibernate. createdAt is the partition key: it is set on insert
+    // (routing the row to its month's partition) and never changes.
     @CreationTimestamp
     @Column(nullable = false, updatable = false)
     private Instant createdAt;
@@ -63,6 +63,12 @@ public class Inquiry {
     @Column(nullable = false)
     private Instant updatedAt;
 
+    /**
+     * When the supplier first opened the inquiry; null while unread.
+     * Set only via InquiryRepository.markRead so the inbox counters change exactly once.
+     */
+    private Instant readAt;
+
     // Optional: Add fields for status tracking, replies, etc.
     // @Column(length = 50)
     // private String status = "NEW";
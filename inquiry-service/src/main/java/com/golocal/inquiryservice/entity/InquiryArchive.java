@@ -0,0 +1,54 @@
+package com.golocal.inquiryservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Archived inquiries (table 'inquiry_archive'): one row per (month, user) holding all of that
+ * user's inquiries from a month past the retention window, as gzip-compressed JSON Lines
+ * (one InquiryResponseDto per line, newest first).
+ * Grouping by user keeps a data-subject export to a handful of index lookups while the bulky
+ * subject/message text compresses well. Written by InquiryArchiveService when a monthly
+ * partition of 'inquiry' is retired; never updated afterwards.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "inquiry_archive") // Indexes: see the migrations (db/migration)
+@IdClass(InquiryArchive.Key.class)
+public class InquiryArchive {
+
+    @Id
+    private LocalDate month; // First day of the archived month (UTC)
+
+    @Id
+    @Column(length = 100)
+    private String userId;
+
+    @Column(nullable = false)
+    private int inquiryCount; // Number of inquiries in the payload
+
+    @Column(nullable = false)
+    private byte[] payload; // gzip(JSON Lines)
+
+    @Column(nullable = false)
+    private Instant archivedAt;
+
+    /**
+     * Composite primary key (month, userId).
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate month;
+        private String userId;
+    }
+}
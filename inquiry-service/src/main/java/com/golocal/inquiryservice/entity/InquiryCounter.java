@@ -0,0 +1,54 @@
+package com.golocal.inquiryservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Precomputed inquiry counters for the supplier inbox (table 'inquiry_counter').
+ * One row per (supplier, product), plus one row per supplier with productId = ALL_PRODUCTS
+ * holding the supplier-wide totals, so a dashboard reads a handful of rows instead of
+ * counting the 'inquiry' table.
+ * Rows are only changed through InquiryCounterRepository's atomic increment/decrement
+ * statements, in the same transaction as the inquiry change they reflect.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "inquiry_counter") // Indexes: see the migrations (db/migration)
+@IdClass(InquiryCounter.Key.class)
+public class InquiryCounter {
+
+    /**
+     * productId of the supplier-wide row (product IDs are generated starting at 1).
+     */
+    public static final long ALL_PRODUCTS = 0L;
+
+    @Id
+    @Column(length = 100)
+    private String supplierName;
+
+    @Id
+    private Long productId;
+
+    @Column(nullable = false)
+    private long total; // Inquiries received
+
+    @Column(nullable = false)
+    private long unread; // Inquiries the supplier has not opened yet
+
+    /**
+     * Composite primary key (supplierName, productId).
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String supplierName;
+        private Long productId;
+    }
+}
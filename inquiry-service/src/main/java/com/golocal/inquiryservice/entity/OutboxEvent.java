@@ -0,0 +1,57 @@
+package com.golocal.inquiryservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Transactional outbox (table 'inquiry_outbox'): one row per inquiry event, inserted in the
+ * same transaction as the change it describes, so an event exists if and only if the change
+ * committed. OutboxRelay publishes rows in ID order and deletes them once the sink accepted them,
+ * so the table only holds the not-yet-published backlog.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "inquiry_outbox")
+public class OutboxEvent {
+
+    /**
+     * Event types published for inquiries.
+     */
+    public enum Type {
+        INQUIRY_CREATED,
+        INQUIRY_READ // First time the supplier opened the inquiry
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY) // Publication order
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private Type type;
+
+    @Column(nullable = false)
+    private Long inquiryId;
+
+    @Column(length = 100)
+    private String supplierName; // Ordering key: events of one supplier are published in order
+
+    @Column(nullable = false)
+    private Long productId;
+
+    @Column(nullable = false, length = 100)
+    private String userId;
+
+    @Column(nullable = false)
+    private Instant occurredAt;
+
+    public OutboxEvent(Type type, Inquiry inquiry, Instant occurredAt) {
+        this(null, type, inquiry.getId(), inquiry.getSupplierName(), inquiry.getProductId(), inquiry.getUserId(), occurredAt);
+    }
+}
@@ -24,13 +24,24 @@ import java.util.stream.Collectors;
 public class GlobalExceptionHandler {
 
     // --- Specific Business Logic Exceptions (Add as needed) ---
-    /* Example:
+
+    /**
+     * Handles InquiryNotFoundException (HTTP 404).
+     */
     @ExceptionHandler(InquiryNotFoundException.class)
     public ResponseEntity<Object> handleInquiryNotFound(InquiryNotFoundException ex, WebRequest request) {
         log.warn("Resource not found: {}", ex.getMessage());
         return buildErrorResponse(ex, "Not Found", HttpStatus.NOT_FOUND, request);
     }
-    */
+
+    /**
+     * Handles malformed pagination cursors (HTTP 400).
+     */
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<Object> handleInvalidCursor(InvalidCursorException ex, WebRequest request) {
+        log.warn("Bad request: {}", ex.getMessage());
+        return buildErrorResponse(ex, "Bad Request", HttpStatus.BAD_REQUEST, request);
+    }
 
     /**
      * Handles validation errors from @Valid annotation on DTOs (HTTP 400).
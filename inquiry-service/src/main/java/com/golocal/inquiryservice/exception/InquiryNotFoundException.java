@@ -0,0 +1,17 @@
+package com.golocal.inquiryservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Custom exception thrown when a requested Inquiry does not exist
+ * or does not belong to the requesting user.
+ * Maps to HTTP 404 Not Found.
+ */
+@ResponseStatus(HttpStatus.NOT_FOUND) // Automatically sets the HTTP status code
+public class InquiryNotFoundException extends RuntimeException {
+
+    public InquiryNotFoundException(Long inquiryId) {
+        super("Inquiry not found with ID: " + inquiryId);
+    }
+}
@@ -0,0 +1,30 @@
+package com.golocal.inquiryservice.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one call of a repository method (see RepositoryCallRecorder), so a recording
+ * shows which queries a slow request thread was waiting on.
+ */
+@Name("golocal.RepositoryCall")
+@Label("Repository Call")
+@Category({"GoLocal", "Repository"})
+@Description("Call of a @Repository method, including the database round trips")
+@StackTrace(false) // The caller is visible in the execution samples; stack traces would dominate the event size
+public class RepositoryCallEvent extends Event {
+
+    @Label("Repository")
+    public String repository;
+
+    @Label("Method")
+    public String method;
+
+    @Label("Outcome")
+    @Description("success or error")
+    public String outcome;
+}
@@ -0,0 +1,137 @@
+package com.golocal.inquiryservice.profiling;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Dumps the recent JFR data automatically when the service misses its SLO, so the recording
+ * of the incident exists before anyone asks for it:
+ *  - latency: every check-interval-ms, from the http.server.requests SLO buckets (cumulative
+ *    counts, so the difference to the previous check covers exactly that interval): more than
+ *    1% of the interval's requests slower than the threshold means its p99 is above it.
+ *    Intervals with fewer than min-requests requests are skipped, a few slow requests among
+ *    little traffic are no breach;
+ *  - GC: any single pause longer than gc-pause (jdk.GarbageCollection events, streamed).
+ * At most one dump per cooldown, however long the breach lasts.
+ */
+@Slf4j
+public class SloBreachMonitor {
+
+    private static final String HTTP_SERVER_REQUESTS = "http.server.requests";
+    private static final String DUMP_COUNTER = "golocal.jfr.dumps";
+
+    private final ContinuousRecording continuousRecording;
+    private final MeterRegistry meterRegistry;
+    private final Duration latencyThreshold;
+    private final double percentile;
+    private final long minRequests;
+    private final Duration gcPauseThreshold;
+    private final Duration dumpWindow;
+    private final Duration cooldown;
+
+    private final AtomicLong nextDumpNanos = new AtomicLong(System.nanoTime());
+    private long lastTotal; // Cumulative counts at the previous latency check
+    private long lastSlow;
+
+    private RecordingStream gcEvents;
+    private long lastCheckNanos = System.nanoTime();
+
+    public SloBreachMonitor(ContinuousRecording continuousRecording, MeterRegistry meterRegistry,
+                            Duration latencyThreshold, double percentile, long minRequests,
+                            Duration gcPauseThreshold, Duration dumpWindow, Duration cooldown) {
+        this.continuousRecording = continuousRecording;
+        this.meterRegistry = meterRegistry;
+        this.latencyThreshold = latencyThreshold;
+        this.percentile = percentile;
+        this.minRequests = minRequests;
+        this.gcPauseThreshold = gcPauseThreshold;
+        this.dumpWindow = dumpWindow;
+        this.cooldown = cooldown;
+    }
+
+    public void start() {
+        if (!continuousRecording.isAvailable()) {
+            return;
+        }
+        gcEvents = new RecordingStream();
+        gcEvents.enable("jdk.GarbageCollection");
+        gcEvents.onEvent("jdk.GarbageCollection", event -> {
+            Duration pause = event.getDuration("longestPause");
+            if (pause.compareTo(gcPauseThreshold) > 0) {
+                dump("gc-pause", String.format("%s GC pause of %d ms (threshold %d ms)",
+                        event.getString("name"), pause.toMillis(), gcPauseThreshold.toMillis()));
+            }
+        });
+        gcEvents.startAsync();
+    }
+
+    public void stop() {
+        if (gcEvents != null) {
+            gcEvents.close();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${profiling.slo.check-interval-ms:30000}")
+    public void checkLatency() {
+        if (!continuousRecording.isAvailable()) {
+            return;
+        }
+        long total = 0;
+        long slow = 0;
+        for (Timer timer : meterRegistry.find(HTTP_SERVER_REQUESTS).timers()) {
+            long count = timer.count();
+            total += count;
+            slow += Math.max(0, count - countWithin(timer.takeSnapshot(), count));
+        }
+        long requests = total - lastTotal;
+        long slowRequests = slow - lastSlow;
+        long seconds = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - lastCheckNanos);
+        lastTotal = total;
+        lastSlow = slow;
+        lastCheckNanos = System.nanoTime();
+        if (requests >= minRequests && slowRequests > requests * (1 - percentile)) {
+            dump("slow-requests", String.format("%d of %d requests in the last %ds took longer than %d ms",
+                    slowRequests, requests, seconds, latencyThreshold.toMillis()));
+        }
+    }
+
+    /**
+     * Requests in the smallest SLO bucket that is at least the threshold (so 'slower than the
+     * bucket' implies 'slower than the threshold'); all of them if there is no such bucket.
+     */
+    private long countWithin(HistogramSnapshot snapshot, long count) {
+        double threshold = latencyThreshold.toNanos();
+        for (CountAtBucket bucket : snapshot.histogramCounts()) {
+            if (bucket.bucket(TimeUnit.NANOSECONDS) >= threshold) {
+                return (long) bucket.count();
+            }
+        }
+        return count;
+    }
+
+    private void dump(String reason, String breach) {
+        long now = System.nanoTime();
+        long next = nextDumpNanos.get();
+        if (now - next < 0 || !nextDumpNanos.compareAndSet(next, now + cooldown.toNanos())) {
+            log.debug("SLO breach ({}), JFR dump skipped: cooldown", breach);
+            return;
+        }
+        log.warn("SLO breach: {}; dumping the last {} of the JFR recording", breach, dumpWindow);
+        try {
+            continuousRecording.dump(dumpWindow, reason);
+            meterRegistry.counter(DUMP_COUNTER, "reason", reason).increment();
+        } catch (IOException | RuntimeException e) {
+            log.error("JFR dump after SLO breach failed: {}", e.getMessage(), e);
+        }
+    }
+}
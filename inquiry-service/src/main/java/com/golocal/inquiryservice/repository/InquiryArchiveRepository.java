@@ -0,0 +1,20 @@
+package com.golocal.inquiryservice.repository;
+
+import com.golocal.inquiryservice.entity.InquiryArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Spring Data JPA repository for archived inquiries (InquiryArchive).
+ * Rows are written in JDBC batches by InquiryArchiveService while it streams a month.
+ */
+@Repository
+public interface InquiryArchiveRepository extends JpaRepository<InquiryArchive, InquiryArchive.Key> {
+
+    /**
+     * @return The user's archived months, newest first.
+     */
+    List<InquiryArchive> findByUserIdOrderByMonthDesc(String userId);
+}
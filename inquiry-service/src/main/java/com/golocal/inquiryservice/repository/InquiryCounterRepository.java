@@ -0,0 +1,84 @@
+package com.golocal.inquiryservice.repository;
+
+import com.golocal.inquiryservice.entity.InquiryCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Spring Data JPA repository for the precomputed inbox counters (InquiryCounter).
+ * Updates are single atomic SQL statements (PostgreSQL upsert / relative UPDATE), so
+ * concurrent inquiries never lose an increment. Every statement touches the supplier-wide
+ * row before the product row, so concurrent transactions lock rows in the same order.
+ */
+@Repository
+public interface InquiryCounterRepository extends JpaRepository<InquiryCounter, InquiryCounter.Key> {
+
+    /**
+     * Counts a new (unread) inquiry for the supplier and the product, creating the rows on first use.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO inquiry_counter (supplier_name, product_id, total, unread) "
+            + "VALUES (:supplierName, " + InquiryCounter.ALL_PRODUCTS + ", 1, 1), (:supplierName, :productId, 1, 1) "
+            + "ON CONFLICT (supplier_name, product_id) "
+            + "DO UPDATE SET total = inquiry_counter.total + 1, unread = inquiry_counter.unread + 1",
+            nativeQuery = true)
+    void incrementReceived(@Param("supplierName") String supplierName, @Param("productId") Long productId);
+
+    /**
+     * Moves one inquiry from unread to read for the supplier and the product.
+     * Callers must only invoke this once per inquiry (see InquiryRepository.markRead).
+     */
+    @Modifying
+    @Query(value = "UPDATE inquiry_counter SET unread = unread - 1 "
+            + "WHERE supplier_name = :supplierName AND product_id = " + InquiryCounter.ALL_PRODUCTS + " AND unread > 0",
+            nativeQuery = true)
+    void decrementUnreadForSupplier(@Param("supplierName") String supplierName);
+
+    @Modifying
+    @Query(value = "UPDATE inquiry_counter SET unread = unread - 1 "
+            + "WHERE supplier_name = :supplierName AND product_id = :productId AND unread > 0",
+            nativeQuery = true)
+    void decrementUnreadForProduct(@Param("supplierName") String supplierName, @Param("productId") Long productId);
+
+    /**
+     * @return All counter rows of a supplier (the supplier-wide row and one per product).
+     */
+    List<InquiryCounter> findBySupplierName(String supplierName);
+
+    /**
+     * Removes the inquiries created in [from, to) from the counters, for archiving a month of
+     * inquiries (they leave the inbox). Same GROUPING SETS aggregation as the rebuild; the range
+     * matches one partition, so only that partition is scanned.
+     */
+    @Modifying
+    @Query(value = "UPDATE inquiry_counter c SET total = c.total - a.total, unread = c.unread - a.unread "
+            + "FROM (SELECT supplier_name, COALESCE(product_id, " + InquiryCounter.ALL_PRODUCTS + ") AS product_id, "
+            + "COUNT(*) AS total, COUNT(*) FILTER (WHERE read_at IS NULL) AS unread "
+            + "FROM inquiry WHERE supplier_name IS NOT NULL AND created_at >= :from AND created_at < :to "
+            + "GROUP BY GROUPING SETS ((supplier_name, product_id), (supplier_name))) a "
+            + "WHERE c.supplier_name = a.supplier_name AND c.product_id = a.product_id",
+            nativeQuery = true)
+    int subtractCreatedBetween(@Param("from") Instant from, @Param("to") Instant to);
+
+    /**
+     * Recomputes every counter from the 'inquiry' table in one pass (GROUPING SETS produce
+     * the per-product and the supplier-wide rows together). Used to initialise the table
+     * for existing data; regular traffic only applies increments.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO inquiry_counter (supplier_name, product_id, total, unread) "
+            + "SELECT supplier_name, COALESCE(product_id, " + InquiryCounter.ALL_PRODUCTS + "), "
+            + "COUNT(*), COUNT(*) FILTER (WHERE read_at IS NULL) "
+            + "FROM inquiry WHERE supplier_name IS NOT NULL "
+            + "GROUP BY GROUPING SETS ((supplier_name, product_id), (supplier_name))",
+            nativeQuery = true)
+    int rebuildFromInquiries();
+}
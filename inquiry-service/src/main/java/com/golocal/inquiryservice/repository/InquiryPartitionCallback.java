@@ -0,0 +1,65 @@
+package com.golocal.inquiryservice.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.callback.Callback;
+import org.flywaydb.core.api.callback.Context;
+import org.flywaydb.core.api.callback.Event;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+/**
+ * Creates the partitions of 'inquiry' for the current and the next month right after the
+ * migrations run on startup, i.e. before the JPA EntityManagerFactory and so before the
+ * application accepts requests: inquiries can be stored from the first request on. Creating
+ * partitions further ahead and archiving old ones is InquiryPartitionService's job.
+ *
+ * Uses Flyway's connection rather than a JdbcTemplate: Spring Boot makes JdbcTemplate beans
+ * wait for Flyway, which in turn needs its callbacks.
+ */
+@Component
+@Slf4j
+public class InquiryPartitionCallback implements Callback {
+
+    @Override
+    public boolean supports(Event event, Context context) {
+        return event == Event.AFTER_MIGRATE;
+    }
+
+    @Override
+    public boolean canHandleInTransaction(Event event, Context context) {
+        return true;
+    }
+
+    @Override
+    public void handle(Event event, Context context) {
+        Connection connection = context.getConnection();
+        try {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                // Serialises concurrent starts of several instances (released at commit)
+                statement.execute("SELECT pg_advisory_xact_lock(hashtext('inquiry_partitions'))");
+                YearMonth now = YearMonth.now(ZoneOffset.UTC);
+                InquiryPartitionRepository.createMonths(statement, now, now.plusMonths(1));
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not create the current inquiry partitions", e);
+        }
+    }
+
+    @Override
+    public String getCallbackName() {
+        return "inquiry-partitions";
+    }
+}
@@ -0,0 +1,109 @@
+package com.golocal.inquiryservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * DDL for the monthly partitions of the 'inquiry' table (PostgreSQL declarative partitioning).
+ * 'inquiry' is partitioned by RANGE (created_at), one partition per calendar month in UTC,
+ * named inquiry_yYYYYmMM. Each partition has its own, month-sized copy of every index, so
+ * inserts and reads of recent inquiries never maintain or search the index entries of old data.
+ *
+ * The partitioned table and its indexes are created by the V1 migration (db/migration); the
+ * partitions themselves depend on the current date, so they are created here: for the current
+ * and next month right after the migrations run (InquiryPartitionCallback), further ahead by
+ * InquiryPartitionService.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class InquiryPartitionRepository {
+
+    private static final String TABLE = "inquiry";
+    private static final Pattern PARTITION_NAME = Pattern.compile("inquiry_y(\\d{4})m(\\d{2})");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Creates the partitions for the given months (inclusive) if they do not exist yet.
+     *
+     * @return The number of partitions created.
+     */
+    public int createMonths(YearMonth from, YearMonth to) {
+        return jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                return createMonths(statement, from, to);
+            }
+        });
+    }
+
+    /**
+     * @return The months that currently have a partition, oldest first.
+     */
+    public List<YearMonth> findMonths() {
+        List<YearMonth> months = new ArrayList<>();
+        jdbcTemplate.query("SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                        + "WHERE i.inhparent = to_regclass(?) ORDER BY c.relname",
+                (ResultSet rs) -> {
+                    Matcher matcher = PARTITION_NAME.matcher(rs.getString(1));
+                    if (matcher.matches()) {
+                        months.add(YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))));
+                    }
+                }, TABLE);
+        return months;
+    }
+
+    /**
+     * Drops a month's partition together with its rows and indexes. Dropping a partition only
+     * locks the parent briefly and, unlike DELETE, leaves no dead rows or index bloat behind.
+     * Callers archive the rows first, in the same transaction.
+     */
+    public void dropMonth(YearMonth month) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + partitionName(month));
+    }
+
+    /**
+     * @return The first instant of the month in UTC (inclusive lower bound of its partition).
+     */
+    public static Instant startOf(YearMonth month) {
+        return month.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    static String partitionName(YearMonth month) {
+        return String.format("%s_y%04dm%02d", TABLE, month.getYear(), month.getMonthValue());
+    }
+
+    // Also used by InquiryPartitionCallback, on Flyway's connection
+    static int createMonths(Statement statement, YearMonth from, YearMonth to) throws SQLException {
+        int created = 0;
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            String name = partitionName(month);
+            try (ResultSet rs = statement.executeQuery("SELECT to_regclass('" + name + "') IS NULL")) {
+                if (!rs.next() || !rs.getBoolean(1)) {
+                    continue; // Already exists
+                }
+            }
+            // Bounds are literal UTC timestamps, independent of the session time zone.
+            // IF NOT EXISTS: another instance may create the same partition concurrently
+            statement.execute("CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF " + TABLE
+                    + " FOR VALUES FROM ('" + startOf(month) + "') TO ('" + startOf(month.plusMonths(1)) + "')");
+            log.info("Created inquiry partition {}", name);
+            created++;
+        }
+        return created;
+    }
+}
@@ -1,10 +1,17 @@
 package com.golocal.inquiryservice.repository;
 
+import com.golocal.inquiryservice.dto.InquirySummaryDto;
 import com.golocal.inquiryservice.entity.Inquiry;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Spring Data JPA repository for the Inquiry entity.
@@ -13,22 +20,110 @@ import java.util.List;
 public interface InquiryRepository extends JpaRepository<Inquiry, Long> { // Entity is Inquiry, ID is Long
 
     /**
-     * Finds all inquiries submitted by a specific user, ordered by creation date descending.
+     * Number of message characters returned in list views (InquirySummaryDto.messagePreview).
+     */
+    int PREVIEW_LENGTH = 160;
+
+    /**
+     * Summary projection shared by the list queries (argument order of InquirySummaryDto's constructor).
+     */
+    String SUMMARY_SELECT = "SELECT new com.golocal.inquiryservice.dto.InquirySummaryDto(i.id, i.productId, i.userId, "
+            + "i.supplierName, i.subject, SUBSTRING(i.message, 1, " + PREVIEW_LENGTH + "), i.createdAt, i.readAt) "
+            + "FROM Inquiry i ";
+
+    /**
+     * Newest-first keyset order; matches the composite (..., createdAt DESC, id DESC) indexes.
+     */
+    String NEWEST_FIRST = " ORDER BY i.createdAt DESC, i.id DESC";
+
+    /**
+     * First page of a user's inquiries, newest first, as summary projections (no full message body).
+     * Served by the (userId, createdAt DESC, id DESC) index; the page size comes from the Pageable.
+     *
+     * @param userId   The ID of the user whose inquiries are to be fetched.
+     * @param pageable Page size only (always page 0); sorting is fixed by the query.
+     * @return Up to pageable.getPageSize() summaries.
+     */
+    @Query(SUMMARY_SELECT + "WHERE i.userId = :userId" + NEWEST_FIRST)
+    List<InquirySummaryDto> findSummariesByUserId(@Param("userId") String userId, Pageable pageable);
+
+    /**
+     * Next page of a user's inquiries: everything strictly older than the last row of the previous
+     * page in (createdAt, id) order. The row-value comparison lets the database seek straight to the
+     * cursor position in the index, so the cost does not grow with how deep the client has paged.
+     *
+     * @param userId    The ID of the user whose inquiries are to be fetched.
+     * @param createdAt createdAt of the last inquiry on the previous page.
+     * @param id        ID of the last inquiry on the previous page (tie-breaker for equal timestamps).
+     * @param pageable  Page size only (always page 0).
+     * @return Up to pageable.getPageSize() summaries.
+     */
+    @Query(SUMMARY_SELECT + "WHERE i.userId = :userId AND (i.createdAt, i.id) < (:createdAt, :id)" + NEWEST_FIRST)
+    List<InquirySummaryDto> findSummariesByUserIdBefore(@Param("userId") String userId,
+                                                         @Param("createdAt") Instant createdAt,
+                                                         @Param("id") Long id,
+                                                         Pageable pageable);
+
+    /**
+     * Finds a single inquiry, only if it was submitted by the given user.
      *
-     * @param userId The ID of the user whose inquiries are to be fetched.
-     *               (Type should match the userId field in the Inquiry entity - String or Long).
-     * @return A list of Inquiry objects submitted by the user. Returns an empty list if none found.
+     * @param id     The inquiry ID.
+     * @param userId The ID of the requesting user.
+     * @return The inquiry, or empty if it does not exist or belongs to someone else.
+     */
+    Optional<Inquiry> findByIdAndUserId(Long id, String userId);
+
+    /**
+     * First page of a supplier's inbox, newest first (served by the (supplierName, createdAt DESC, id DESC) index).
+     */
+    @Query(SUMMARY_SELECT + "WHERE i.supplierName = :supplierName" + NEWEST_FIRST)
+    List<InquirySummaryDto> findSummariesBySupplier(@Param("supplierName") String supplierName, Pageable pageable);
+
+    /**
+     * Next page of a supplier's inbox, strictly after the cursor position.
+     */
+    @Query(SUMMARY_SELECT + "WHERE i.supplierName = :supplierName AND (i.createdAt, i.id) < (:createdAt, :id)" + NEWEST_FIRST)
+    List<InquirySummaryDto> findSummariesBySupplierBefore(@Param("supplierName") String supplierName,
+                                                          @Param("createdAt") Instant createdAt,
+                                                          @Param("id") Long id,
+                                                          Pageable pageable);
+
+    /**
+     * First page of a supplier's inquiries about one product, newest first
+     * (served by the (productId, createdAt DESC, id DESC) index).
+     */
+    @Query(SUMMARY_SELECT + "WHERE i.productId = :productId AND i.supplierName = :supplierName" + NEWEST_FIRST)
+    List<InquirySummaryDto> findSummariesBySupplierAndProduct(@Param("supplierName") String supplierName,
+                                                              @Param("productId") Long productId,
+                                                              Pageable pageable);
+
+    /**
+     * Next page of a supplier's inquiries about one product, strictly after the cursor position.
+     */
+    @Query(SUMMARY_SELECT + "WHERE i.productId = :productId AND i.supplierName = :supplierName "
+            + "AND (i.createdAt, i.id) < (:createdAt, :id)" + NEWEST_FIRST)
+    List<InquirySummaryDto> findSummariesBySupplierAndProductBefore(@Param("supplierName") String supplierName,
+                                                                    @Param("productId") Long productId,
+                                                                    @Param("createdAt") Instant createdAt,
+                                                                    @Param("id") Long id,
+                                                                    Pageable pageable);
+
+    /**
+     * Finds a single inquiry, only if it was sent to the given supplier.
      */
-    List<Inquiry> findByUserIdOrderByCreatedAtDesc(String userId); // Assuming userId is String
+    Optional<Inquiry> findByIdAndSupplierName(Long id, String supplierName);
 
     /**
-     * Finds all inquiries related to a specific product, ordered by creation date descending.
-     * (Useful for suppliers viewing inquiries about their products, if implementing that).
+     * Marks an inquiry as read by its supplier, if it is not already.
+     * The conditional update makes the unread -> read transition happen exactly once,
+     * even for concurrent requests, so the inbox counters are decremented only once.
      *
-     * @param productId The ID of the product.
-     * @return A list of Inquiry objects related to the product.
+     * @return 1 if this call marked the inquiry read, 0 if it was already read (or is not the supplier's).
      */
-    List<Inquiry> findByProductIdOrderByCreatedAtDesc(Long productId);
+    @Modifying
+    @Query("UPDATE Inquiry i SET i.readAt = :readAt "
+            + "WHERE i.id = :id AND i.supplierName = :supplierName AND i.readAt IS NULL")
+    int markRead(@Param("id") Long id, @Param("supplierName") String supplierName, @Param("readAt") Instant readAt);
 
     // Add other query methods as needed, e.g., finding by status, supplier, etc.
     // List<Inquiry> findBySupplierNameAndStatus(String supplierName, String status);
@@ -0,0 +1,38 @@
+package com.golocal.inquiryservice.repository;
+
+import com.golocal.inquiryservice.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Spring Data JPA repository for the inquiry outbox (OutboxEvent).
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * @return The oldest unpublished events, in publication (ID) order.
+     */
+    @Query("SELECT e FROM OutboxEvent e ORDER BY e.id")
+    List<OutboxEvent> findNextBatch(Pageable pageable);
+
+    /**
+     * Makes this transaction the only relay publishing (released at commit/rollback), so
+     * several service instances never publish the same events concurrently or out of order.
+     *
+     * @return false if another instance's relay holds the lock.
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(hashtext('inquiry_outbox_relay'))", nativeQuery = true)
+    boolean tryLockRelay();
+
+    /**
+     * @return When the oldest unpublished event occurred, or null if there is no backlog.
+     */
+    @Query("SELECT MIN(e.occurredAt) FROM OutboxEvent e")
+    Instant findOldestOccurredAt();
+}
@@ -0,0 +1,207 @@
+package com.golocal.inquiryservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.golocal.inquiryservice.dto.InquiryResponseDto;
+import com.golocal.inquiryservice.entity.InquiryArchive;
+import com.golocal.inquiryservice.repository.InquiryArchiveRepository;
+import com.golocal.inquiryservice.repository.InquiryCounterRepository;
+import com.golocal.inquiryservice.repository.InquiryPartitionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Moves inquiries past the retention window out of the live 'inquiry' table into the
+ * compressed 'inquiry_archive', one month (= one partition) at a time, and reads them
+ * back for data-subject (compliance) requests.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InquiryArchiveService {
+
+    // Streams the month's rows grouped by user, newest first within a user (served by
+    // idx_inquiry_user_created_id of that month's partition; the range prunes all others)
+    private static final String SELECT_MONTH = "SELECT id, product_id, user_id, supplier_name, subject, message, "
+            + "created_at, updated_at, read_at FROM inquiry WHERE created_at >= ? AND created_at < ? "
+            + "ORDER BY user_id, created_at DESC, id DESC";
+    private static final int FETCH_SIZE = 1000; // Rows per round trip; a month is never held in memory
+    private static final String INSERT_ARCHIVE = "INSERT INTO inquiry_archive (month, user_id, inquiry_count, payload, archived_at) "
+            + "VALUES (?, ?, ?, ?, ?)";
+    private static final int INSERT_BATCH_SIZE = 500; // Archive rows (users) per JDBC batch
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final InquiryArchiveRepository inquiryArchiveRepository;
+    private final InquiryCounterRepository inquiryCounterRepository;
+    private final InquiryPartitionRepository inquiryPartitionRepository;
+
+    /**
+     * Archives one month of inquiries in a single transaction: writes one compressed archive
+     * row per user, removes the month from the supplier inbox counters and drops the month's
+     * partition. If anything fails, nothing is archived and the partition stays in place.
+     *
+     * @param month The month to retire.
+     * @return The number of inquiries archived.
+     */
+    @Transactional
+    public long archiveMonth(YearMonth month) {
+        Instant from = InquiryPartitionRepository.startOf(month);
+        Instant to = InquiryPartitionRepository.startOf(month.plusMonths(1));
+        Instant archivedAt = Instant.now();
+
+        MonthWriter writer = new MonthWriter(month, archivedAt);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_MONTH);
+            statement.setFetchSize(FETCH_SIZE); // Cursor-based fetch (we are inside a transaction)
+            statement.setTimestamp(1, Timestamp.from(from));
+            statement.setTimestamp(2, Timestamp.from(to));
+            return statement;
+        }, writer);
+        writer.finish();
+
+        inquiryCounterRepository.subtractCreatedBetween(from, to);
+        inquiryPartitionRepository.dropMonth(month);
+        log.info("Archived {} inquiries of {} for {} users ({} KB compressed)",
+                writer.inquiries, month, writer.users, writer.compressedBytes / 1024);
+        return writer.inquiries;
+    }
+
+    /**
+     * Returns all archived inquiries of a user, newest first (data-subject access/export).
+     * Only the user's own archive rows are read and decompressed.
+     *
+     * @param userId The user.
+     * @return The archived inquiries; empty if none were archived.
+     */
+    @Transactional(readOnly = true)
+    public List<InquiryResponseDto> findArchivedForUser(String userId) {
+        List<InquiryResponseDto> inquiries = new ArrayList<>();
+        for (InquiryArchive archive : inquiryArchiveRepository.findByUserIdOrderByMonthDesc(userId)) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(new ByteArrayInputStream(archive.getPayload())), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    inquiries.add(objectMapper.readValue(line, InquiryResponseDto.class));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unreadable inquiry archive for " + archive.getMonth(), e);
+            }
+        }
+        return inquiries;
+    }
+
+    /**
+     * Collects the streamed rows of one user at a time into a gzip'd JSON Lines payload, completed
+     * as soon as the next user's rows start, and inserts the payloads in JDBC batches.
+     */
+    private final class MonthWriter implements RowCallbackHandler {
+
+        private final YearMonth month;
+        private final Instant archivedAt;
+        private final List<Object[]> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+        private String userId;
+        private ByteArrayOutputStream bytes;
+        private GZIPOutputStream gzip;
+        private int userInquiries;
+        private long inquiries;
+        private long users;
+        private long compressedBytes;
+
+        private MonthWriter(YearMonth month, Instant archivedAt) {
+            this.month = month;
+            this.archivedAt = archivedAt;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            String rowUserId = rs.getString("user_id");
+            if (!rowUserId.equals(userId)) {
+                completeUser();
+                userId = rowUserId;
+                bytes = new ByteArrayOutputStream();
+                try {
+                    gzip = new GZIPOutputStream(bytes);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            InquiryResponseDto inquiry = new InquiryResponseDto(
+                    rs.getLong("id"),
+                    rs.getLong("product_id"),
+                    rowUserId,
+                    rs.getString("supplier_name"),
+                    rs.getString("subject"),
+                    rs.getString("message"),
+                    instant(rs, "created_at"),
+                    instant(rs, "updated_at"),
+                    instant(rs, "read_at"));
+            try {
+                gzip.write(objectMapper.writeValueAsBytes(inquiry));
+                gzip.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            userInquiries++;
+            inquiries++;
+        }
+
+        private void completeUser() {
+            if (userId == null) {
+                return;
+            }
+            try {
+                gzip.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            byte[] payload = bytes.toByteArray();
+            batch.add(new Object[]{month.atDay(1), userId, userInquiries, payload, Timestamp.from(archivedAt)});
+            if (batch.size() == INSERT_BATCH_SIZE) {
+                insertBatch();
+            }
+            compressedBytes += payload.length;
+            users++;
+            userId = null;
+            userInquiries = 0;
+        }
+
+        private void finish() {
+            completeUser();
+            insertBatch();
+        }
+
+        private void insertBatch() {
+            if (!batch.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_ARCHIVE, batch);
+                batch.clear();
+            }
+        }
+
+        private static Instant instant(ResultSet rs, String column) throws SQLException {
+            Timestamp timestamp = rs.getTimestamp(column);
+            return timestamp != null ? timestamp.toInstant() : null;
+        }
+    }
+}
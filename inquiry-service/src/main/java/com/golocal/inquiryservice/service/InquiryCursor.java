@@ -0,0 +1,70 @@
+package com.golocal.inquiryservice.service;
+
+import com.golocal.inquiryservice.dto.InquiryPageDto;
+import com.golocal.inquiryservice.dto.InquirySummaryDto;
+import com.golocal.inquiryservice.exception.InvalidCursorException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Keyset pagination helpers shared by the inquiry list endpoints.
+ * A cursor is the (createdAt, id) position of the last row of a page, sent to clients
+ * as an opaque string: base64url("<ISO-8601 createdAt>_<id>").
+ */
+record InquiryCursor(Instant createdAt, Long id) {
+
+    // Upper bound for any list page size, whatever the client asks for
+    static final int MAX_PAGE_SIZE = 100;
+    private static final char SEPARATOR = '_';
+
+    /**
+     * @return The clamped page size for a client-requested limit.
+     */
+    static int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Fetch one extra row to learn whether there is a next page without a COUNT query.
+     */
+    static Pageable oneMoreThan(int pageSize) {
+        return PageRequest.ofSize(pageSize + 1);
+    }
+
+    /**
+     * Builds the page from rows fetched with {@link #oneMoreThan(int)}.
+     */
+    static InquiryPageDto toPage(List<InquirySummaryDto> rows, int pageSize) {
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            InquirySummaryDto last = rows.get(pageSize - 1);
+            nextCursor = new InquiryCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new InquiryPageDto(rows, nextCursor);
+    }
+
+    String encode() {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws InvalidCursorException if the cursor was not produced by {@link #encode()}.
+     */
+    static InquiryCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new InquiryCursor(Instant.parse(raw.substring(0, separator)), Long.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.golocal.inquiryservice.service;
+
+import com.golocal.inquiryservice.dto.InquiryEventDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Live feed of published inquiry events for the API gateways' push hubs
+ * (GET /internal/inquiry-events, Server-Sent Events). OutboxRelay hands over every batch once
+ * the transaction that removed it from the outbox has committed, so only events that were
+ * really published are pushed.
+ *
+ * The most recent 'outbox.feed.replay-capacity' events are kept: a gateway reconnecting with
+ * Last-Event-ID gets everything after that event. Only the instance that relayed an event has
+ * it, so a gateway follows every instance. Subscribers are gateways (a handful of long-lived
+ * connections, no request thread each), never browsers.
+ */
+@Service
+@Slf4j
+public class InquiryEventFeed {
+
+    private static final long NO_TIMEOUT = 0L; // Open until either side closes; heartbeats detect dead peers
+
+    private final int replayCapacity;
+    private final Deque<InquiryEventDto> recent = new ArrayDeque<>();
+    private final List<SseEmitter> subscribers = new ArrayList<>();
+
+    public InquiryEventFeed(@Value("${outbox.feed.replay-capacity:10000}") int replayCapacity) {
+        this.replayCapacity = Math.max(1, replayCapacity);
+    }
+
+    /**
+     * Opens a feed connection. Events after lastEventId are replayed first; if lastEventId is
+     * no longer (or never was) retained here, e.g. after this instance restarted, all retained
+     * events are replayed. Without lastEventId only new events are sent.
+     *
+     * @param lastEventId ID of the last event the subscriber received from this instance (optional).
+     * @return The emitter to return from the controller.
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(NO_TIMEOUT);
+        emitter.onCompletion(() -> unsubscribe(emitter));
+        emitter.onTimeout(() -> unsubscribe(emitter));
+        emitter.onError(e -> unsubscribe(emitter));
+        synchronized (this) {
+            // Replay and registration under the same lock: no broadcast can fall in between
+            boolean open = send(emitter, SseEmitter.event().comment("connected")); // Commits the response headers
+            for (InquiryEventDto event : replay(lastEventId)) {
+                open = open && send(emitter, event(event));
+            }
+            if (open) {
+                subscribers.add(emitter);
+            }
+        }
+        log.info("Inquiry event feed subscribed (last event {}), {} subscribers", lastEventId, subscriberCount());
+        return emitter;
+    }
+
+    /**
+     * Pushes a committed batch to all subscribers, in order, and retains it for replay.
+     * Never throws: a subscriber that cannot be written to is dropped (it reconnects and
+     * catches up from the retained events).
+     */
+    public synchronized void broadcast(List<InquiryEventDto> batch) {
+        for (InquiryEventDto event : batch) {
+            if (recent.size() == replayCapacity) {
+                recent.removeFirst();
+            }
+            recent.addLast(event);
+        }
+        for (Iterator<SseEmitter> it = subscribers.iterator(); it.hasNext(); ) {
+            SseEmitter emitter = it.next();
+            for (InquiryEventDto event : batch) {
+                if (!send(emitter, event(event))) {
+                    it.remove();
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Keeps idle feed connections alive through proxies and NAT, and detects gateways that
+     * went away without closing the connection.
+     */
+    @Scheduled(fixedDelayString = "${outbox.feed.heartbeat-ms:15000}")
+    public synchronized void heartbeat() {
+        subscribers.removeIf(emitter -> !send(emitter, SseEmitter.event().comment("")));
+    }
+
+    private synchronized int subscriberCount() {
+        return subscribers.size();
+    }
+
+    private synchronized void unsubscribe(SseEmitter emitter) {
+        subscribers.remove(emitter);
+    }
+
+    // Events after lastEventId, in publication order. Matched by position, not by comparing IDs:
+    // outbox IDs are allocated before commit, so they are only ordered per supplier, not globally.
+    private List<InquiryEventDto> replay(Long lastEventId) {
+        if (lastEventId == null) {
+            return List.of();
+        }
+        List<InquiryEventDto> after = new ArrayList<>();
+        for (InquiryEventDto event : recent) {
+            after.add(event);
+            if (lastEventId.equals(event.getEventId())) {
+                after.clear(); // Everything up to here was already received
+            }
+        }
+        return after;
+    }
+
+    private static SseEmitter.SseEventBuilder event(InquiryEventDto event) {
+        return SseEmitter.event()
+                .id(String.valueOf(event.getEventId()))
+                .name("inquiry")
+                .data(event, MediaType.APPLICATION_JSON);
+    }
+
+    private static boolean send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping inquiry event feed subscriber: {}", e.getMessage());
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.golocal.inquiryservice.service;
+
+import com.golocal.inquiryservice.dto.InquiryEventDto;
+
+import java.util.List;
+
+/**
+ * Destination of the inquiry change feed, called by OutboxRelay off the request path.
+ * Stand-ins are configured in OutboxConfig ('outbox.sink'); a message broker adapter
+ * implements this interface and uses supplierName as the partition key, which preserves
+ * the per-supplier order the relay delivers in.
+ */
+public interface InquiryEventSink {
+
+    /**
+     * Publishes a batch of events, in the given order. Must only return once the events are
+     * durably accepted; throwing leaves the whole batch in the outbox to be retried, so the
+     * same events may be published more than once (consumers deduplicate by eventId).
+     *
+     * @param events Events in publication order (never empty).
+     */
+    void publish(List<InquiryEventDto> events);
+}
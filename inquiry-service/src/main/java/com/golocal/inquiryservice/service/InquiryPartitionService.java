@@ -0,0 +1,60 @@
+package com.golocal.inquiryservice.service;
+
+import com.golocal.inquiryservice.repository.InquiryPartitionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+/**
+ * Housekeeping for the monthly partitions of 'inquiry', run at startup and then daily:
+ *  - creates partitions 'inquiry.partitions.create-ahead-months' months ahead, so an insert
+ *    never finds its month missing even if maintenance does not run for a while,
+ *  - archives (InquiryArchiveService) and drops every month older than
+ *    'inquiry.partitions.retention-months', oldest first, one transaction per month.
+ * Every instance runs it; all steps are idempotent (an archived month's partition is gone).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InquiryPartitionService {
+
+    private final InquiryPartitionRepository inquiryPartitionRepository;
+    private final InquiryArchiveService inquiryArchiveService;
+
+    @Value("${inquiry.partitions.create-ahead-months:3}")
+    private int createAheadMonths;
+
+    @Value("${inquiry.partitions.retention-months:24}")
+    private int retentionMonths; // Months kept in 'inquiry', including the current one
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${inquiry.partitions.maintenance-cron:0 17 3 * * *}", zone = "UTC")
+    public void maintainPartitions() {
+        YearMonth now = YearMonth.now(ZoneOffset.UTC);
+        int created = inquiryPartitionRepository.createMonths(now, now.plusMonths(createAheadMonths));
+
+        YearMonth oldestKept = now.minusMonths(Math.max(1, retentionMonths) - 1L);
+        int archived = 0;
+        for (YearMonth month : inquiryPartitionRepository.findMonths()) {
+            if (!month.isBefore(oldestKept)) {
+                break; // Oldest first: everything from here on is kept
+            }
+            try {
+                inquiryArchiveService.archiveMonth(month);
+                archived++;
+            } catch (RuntimeException e) {
+                // Left in place (the transaction rolled back); retried on the next run
+                log.error("Archiving inquiries of {} failed: {}", month, e.getMessage(), e);
+                break;
+            }
+        }
+        log.info("Inquiry partitions maintained: {} created, {} archived, keeping {} onwards", created, archived, oldestKept);
+    }
+}
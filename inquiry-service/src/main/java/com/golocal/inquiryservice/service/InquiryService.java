@@ -1,21 +1,30 @@
 package com.golocal.inquiryservice.service;
 
+import com.golocal.inquiryservice.dto.InquiryPageDto;
 import com.golocal.inquiryservice.dto.InquiryRequestDto;
 import com.golocal.inquiryservice.dto.InquiryResponseDto;
+import com.golocal.inquiryservice.dto.InquirySummaryDto;
+import com.golocal.inquiryservice.dto.ProductDto;
 import com.golocal.inquiryservice.entity.Inquiry;
+import com.golocal.inquiryservice.entity.OutboxEvent;
+import com.golocal.inquiryservice.exception.InquiryNotFoundException;
+import com.golocal.inquiryservice.exception.InvalidCursorException;
+import com.golocal.inquiryservice.repository.InquiryCounterRepository;
 import com.golocal.inquiryservice.repository.InquiryRepository;
+import com.golocal.inquiryservice.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-
-// If fetching product/supplier info is needed:
-// import org.springframework.web.client.RestTemplate; // or WebClient for reactive
-// import org.springframework.beans.factory.annotation.Value;
-// import com.golocal.inquiryservice.dto.ProductDto; // Need a DTO to deserialize product info
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.RestClientException;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 /**
  * Service layer for handling inquiry business logic.
@@ -27,22 +36,63 @@ import java.util.stream.Collectors;
 public class InquiryService {
 
     private final InquiryRepository inquiryRepository;
+    private final InquiryCounterRepository inquiryCounterRepository; // Supplier inbox counters
+    private final OutboxEventRepository outboxEventRepository; // Change feed, published by OutboxRelay
+    private final MeterRegistry meterRegistry; // For custom service-layer timers
+    private final ProductServiceClient productServiceClient; // Supplier names for inquiries that don't carry one
+    private final TransactionTemplate transactionTemplate;
+
+    // Timer for inquiry creation. Only the outcome is tagged (never user or product IDs)
+    // so the number of time series stays fixed.
+    private static final String CREATE_TIMER = "golocal.inquiries.create";
 
-    // Optional: For fetching data from Product Service if needed
-    // Make sure to configure the RestTemplate/WebClient Bean if you use this
-    // private final RestTemplate restTemplate;
-    // @Value("${product.service.url}") // Example: Define this in application.properties if needed
-    // private String productServiceBaseUrl;
+    // Supplier name stored when neither the request nor product-service provides one
+    private static final String SUPPLIER_PLACEHOLDER = "Supplier Placeholder";
 
     /**
      * Creates and saves a new inquiry based on the request data and user ID.
+     * Without a supplier name in the request, it is looked up in product-service first,
+     * before the transaction starts, so no database connection is held during the call.
      *
      * @param requestDto The DTO containing inquiry details (productId, subject, message).
      * @param userId     The ID of the user submitting the inquiry (obtained from security context/header).
      * @return InquiryResponseDto representing the newly created inquiry.
      */
-    @Transactional // Mark method as transactional (modifies data)
     public InquiryResponseDto createInquiry(InquiryRequestDto requestDto, String userId) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            String supplierName = resolveSupplierName(requestDto);
+            InquiryResponseDto result = transactionTemplate.execute(status -> doCreateInquiry(requestDto, userId, supplierName));
+            outcome = "success";
+            return result;
+        } finally {
+            sample.stop(meterRegistry.timer(CREATE_TIMER, "outcome", outcome));
+        }
+    }
+
+    // Supplier as shown on the product page if the client sent it, otherwise product-service's
+    private String resolveSupplierName(InquiryRequestDto requestDto) {
+        if (StringUtils.hasText(requestDto.getSupplierName())) {
+            return requestDto.getSupplierName().trim();
+        }
+        try {
+            Optional<String> supplierName = productServiceClient.findProduct(requestDto.getProductId())
+                    .map(ProductDto::getSupplierName)
+                    .filter(StringUtils::hasText);
+            if (supplierName.isEmpty()) {
+                log.warn("Product ID {} not found in product-service (or has no supplier), using a placeholder supplier", requestDto.getProductId());
+            }
+            return supplierName.orElse(SUPPLIER_PLACEHOLDER);
+        } catch (RestClientException e) {
+            // The inquiry is still accepted: a product-service outage must not block it
+            log.warn("Could not fetch product ID {} from product-service, using a placeholder supplier: {}", requestDto.getProductId(), e.getMessage());
+            return SUPPLIER_PLACEHOLDER;
+        }
+    }
+
+    // Untimed body of createInquiry (runs inside its transaction)
+    private InquiryResponseDto doCreateInquiry(InquiryRequestDto requestDto, String userId, String supplierName) {
         log.info("Attempting to create inquiry for product ID {} by user ID {}", requestDto.getProductId(), userId);
 
         // Create a new Inquiry entity from the DTO
@@ -51,34 +101,17 @@ public class InquiryService {
         inquiry.setSubject(requestDto.getSubject());
         inquiry.setMessage(requestDto.getMessage());
         inquiry.setUserId(userId); // Set the user ID obtained from the authenticated context
-
-        // --- Optional: Fetch Supplier Name from Product Service ---
-        // If you choose to do this, uncomment the RestTemplate/WebClient dependencies and configuration.
-        // This adds complexity and inter-service dependency. Storing supplier name during inquiry
-        // creation might be simpler if the frontend already has it, or just store Product ID.
-        String supplierName = "Supplier Placeholder"; // Default/placeholder
-        /*
-        try {
-            String productApiUrl = productServiceBaseUrl + "/api/products/" + requestDto.getProductId();
-            log.debug("Fetching product details from URL: {}", productApiUrl);
-            // Define a DTO matching the Product Service response if using RestTemplate
-            // ResponseEntity<ProductDto> response = restTemplate.getForEntity(productApiUrl, ProductDto.class);
-            // if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-            //     supplierName = response.getBody().getSupplierName();
-            //     log.debug("Fetched supplier name: {}", supplierName);
-            // } else {
-            //     log.warn("Could not retrieve product details (Status: {}) for product ID {}", response.getStatusCode(), requestDto.getProductId());
-            // }
-        } catch (Exception e) {
-            log.error("Error fetching product details for ID {}: {}", requestDto.getProductId(), e.getMessage(), e);
-            supplierName = "Error Fetching Supplier"; // Indicate error fetching info
-        }
-        */
-        inquiry.setSupplierName(supplierName); // Set the fetched or placeholder name
+        inquiry.setSupplierName(supplierName); // From the request, product-service or the placeholder
 
 
         // Save the inquiry entity to the database using the repository
         Inquiry savedInquiry = inquiryRepository.save(inquiry);
+        // Same transaction: the supplier's inbox counters move together with the new row
+        inquiryCounterRepository.incrementReceived(supplierName, savedInquiry.getProductId());
+        // Event for downstream consumers, committed (or rolled back) with the inquiry. Written after the
+        // counter upsert, i.e. holding the supplier's counter row lock, so a supplier's events are
+        // numbered in commit order (OutboxRelay's per-supplier ordering relies on this)
+        outboxEventRepository.save(new OutboxEvent(OutboxEvent.Type.INQUIRY_CREATED, savedInquiry, savedInquiry.getCreatedAt()));
         log.info("Inquiry created successfully with ID: {} for user ID: {}", savedInquiry.getId(), userId);
 
         // Map the saved entity back to a response DTO to return
@@ -86,42 +119,53 @@ public class InquiryService {
     }
 
     /**
-     * Retrieves all inquiries submitted by a specific user.
+     * Retrieves one page of the inquiries submitted by a specific user, newest first.
+     * Uses keyset (cursor) pagination over (createdAt, id) and a summary projection without
+     * the full message body, so the cost per page is the same however many inquiries the user has.
      *
      * @param userId The ID of the user whose inquiries are to be fetched.
-     * @return A list of InquiryResponseDto objects, ordered by creation date descending.
+     * @param cursor The nextCursor of the previous page, or null/blank for the first page.
+     * @param limit  Requested page size (clamped to 1..InquiryCursor.MAX_PAGE_SIZE).
+     * @return The page, with nextCursor set if more inquiries may follow.
+     * @throws InvalidCursorException if the cursor cannot be decoded.
      */
     @Transactional(readOnly = true) // Read-only transaction
-    public List<InquiryResponseDto> getInquiriesForUser(String userId) {
-        log.debug("Fetching inquiries for user ID: {}", userId);
-        // Use the repository method to find inquiries by userId
-        List<Inquiry> inquiries = inquiryRepository.findByUserIdOrderByCreatedAtDesc(userId);
-        log.debug("Found {} inquiries for user ID: {}", inquiries.size(), userId);
-
-        // Map the list of Inquiry entities to a list of InquiryResponseDto objects
-        return inquiries.stream()
-                .map(this::mapToInquiryResponseDto) // Use the helper method for mapping
-                .collect(Collectors.toList());
-    }
+    public InquiryPageDto getInquiryPageForUser(String userId, String cursor, int limit) {
+        int pageSize = InquiryCursor.pageSize(limit);
+        Pageable oneMore = InquiryCursor.oneMoreThan(pageSize);
+
+        List<InquirySummaryDto> rows;
+        if (StringUtils.hasText(cursor)) {
+            InquiryCursor position = InquiryCursor.decode(cursor);
+            rows = inquiryRepository.findSummariesByUserIdBefore(userId, position.createdAt(), position.id(), oneMore);
+        } else {
+            rows = inquiryRepository.findSummariesByUserId(userId, oneMore);
+        }
 
-    // === Add other service methods as needed ===
-    // E.g., getInquiryById, getInquiriesByProduct, updateInquiryStatus, deleteInquiry
+        InquiryPageDto page = InquiryCursor.toPage(rows, pageSize);
+        log.debug("Returning {} inquiries for user ID: {} (more: {})", page.getItems().size(), userId, page.getNextCursor() != null);
+        return page;
+    }
 
-    /*
+    /**
+     * Retrieves a single inquiry, including the full message body, for the user who submitted it.
+     *
+     * @param inquiryId The ID of the inquiry.
+     * @param userId    The ID of the requesting user.
+     * @return The full InquiryResponseDto.
+     * @throws InquiryNotFoundException if the inquiry does not exist or belongs to another user
+     *                                  (not distinguished, so IDs of other users' inquiries are not revealed).
+     */
     @Transactional(readOnly = true)
-    public InquiryResponseDto getInquiryByIdAndValidateUser(Long inquiryId, String userId) {
+    public InquiryResponseDto getInquiryForUser(Long inquiryId, String userId) {
         log.debug("Fetching inquiry ID {} for user ID {}", inquiryId, userId);
-        Inquiry inquiry = inquiryRepository.findById(inquiryId)
-             .orElseThrow(() -> new RuntimeException("Inquiry not found with ID: " + inquiryId)); // Replace with specific exception
-
-        // Authorization check: Ensure the inquiry belongs to the requesting user
-        if (!inquiry.getUserId().equals(userId)) {
-             log.warn("Access denied: User {} attempted to access inquiry ID {} belonging to user {}", userId, inquiryId, inquiry.getUserId());
-             throw new org.springframework.security.access.AccessDeniedException("You do not have permission to view this inquiry.");
-        }
-        return mapToInquiryResponseDto(inquiry);
+        return inquiryRepository.findByIdAndUserId(inquiryId, userId)
+                .map(this::mapToInquiryResponseDto)
+                .orElseThrow(() -> new InquiryNotFoundException(inquiryId));
     }
-    */
+
+    // === Add other service methods as needed ===
+    // E.g., getInquiriesByProduct, updateInquiryStatus, deleteInquiry
 
 
     // --- Helper Method for Mapping Entity to DTO ---
@@ -132,7 +176,7 @@ public class InquiryService {
      * @param inquiry The Inquiry entity from the database.
      * @return The corresponding InquiryResponseDto for API responses.
      */
-    private InquiryResponseDto mapToInquiryResponseDto(Inquiry inquiry) {
+    InquiryResponseDto mapToInquiryResponseDto(Inquiry inquiry) {
         if (inquiry == null) {
             return null;
         }
@@ -145,7 +189,8 @@ public class InquiryService {
                 inquiry.getSubject(),
                 inquiry.getMessage(),
                 inquiry.getCreatedAt(),
-                inquiry.getUpdatedAt()
+                inquiry.getUpdatedAt(),
+                inquiry.getReadAt()
                 // Map other fields like status or replies if they were added to the entity/DTO
         );
     }
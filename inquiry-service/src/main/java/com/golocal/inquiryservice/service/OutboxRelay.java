@@ -0,0 +1,154 @@
+package com.golocal.inquiryservice.service;
+
+import com.golocal.inquiryservice.dto.InquiryEventDto;
+import com.golocal.inquiryservice.entity.OutboxEvent;
+import com.golocal.inquiryservice.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Publishes the inquiry outbox to the configured InquiryEventSink, in batches, on a scheduler
+ * thread, so notification fan-out never runs on the request path or inside the request's
+ * transaction.
+ *
+ * Guarantees:
+ *  - at-least-once: a batch is deleted from the outbox in the same transaction that published it;
+ *    if the sink fails the batch stays and is retried on the next run,
+ *  - per-supplier order: only one relay publishes at a time (advisory lock, across instances),
+ *    always in outbox ID order, and events of one supplier get their IDs in commit order because
+ *    they are written while holding that supplier's counter row lock (see InquiryCounterRepository).
+ * After each batch has committed it is also streamed to the gateways' push hubs (InquiryEventFeed).
+ *
+ * Metrics: golocal.outbox.lag (age of the oldest unpublished event), golocal.outbox.pending,
+ * golocal.outbox.delay (occurrence to publication, per event), golocal.outbox.published and
+ * golocal.outbox.failures.
+ */
+@Service
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final InquiryEventSink sink;
+    private final InquiryEventFeed feed;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicReference<Instant> oldestPending = new AtomicReference<>();
+    private final Timer delay;
+    private final Counter published;
+    private final Counter failures;
+    private int failedRuns; // Consecutive failed runs; only the first of a streak is logged as a warning
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, InquiryEventSink sink, InquiryEventFeed feed,
+                       TransactionTemplate transactionTemplate, MeterRegistry meterRegistry,
+                       @Value("${outbox.relay.batch-size:200}") int batchSize) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sink = sink;
+        this.feed = feed;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = Math.max(1, batchSize);
+
+        Gauge.builder("golocal.outbox.pending", pending, AtomicLong::get)
+                .description("Inquiry events not yet published")
+                .register(meterRegistry);
+        Gauge.builder("golocal.outbox.lag", oldestPending, OutboxRelay::ageSeconds)
+                .description("Age of the oldest unpublished inquiry event (0 when there is no backlog)")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.delay = Timer.builder("golocal.outbox.delay")
+                .description("Time from an inquiry event occurring to its publication")
+                .register(meterRegistry);
+        this.published = Counter.builder("golocal.outbox.published")
+                .description("Inquiry events published")
+                .register(meterRegistry);
+        this.failures = Counter.builder("golocal.outbox.failures")
+                .description("Relay runs that failed and left events for a retry")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Drains the outbox: publishes full batches back to back until the backlog is gone.
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:200}")
+    public void relay() {
+        try {
+            List<InquiryEventDto> batch;
+            do {
+                batch = transactionTemplate.execute(status -> publishNextBatch());
+                if (batch != null && !batch.isEmpty()) {
+                    feed.broadcast(batch); // Committed: the batch is published and gone from the outbox
+                }
+            } while (batch != null && batch.size() == batchSize);
+            if (failedRuns > 0) {
+                log.info("Publishing inquiry events recovered after {} failed runs", failedRuns);
+                failedRuns = 0;
+            }
+        } catch (RuntimeException e) {
+            failures.increment();
+            if (failedRuns++ == 0) {
+                log.warn("Publishing inquiry events failed, retrying every run: {}", e.getMessage());
+            } else {
+                log.debug("Publishing inquiry events failed again: {}", e.getMessage());
+            }
+        } finally {
+            refreshBacklog();
+        }
+    }
+
+    // Runs inside one transaction: publish, then delete what was published. Returns the published batch.
+    private List<InquiryEventDto> publishNextBatch() {
+        if (!outboxEventRepository.tryLockRelay()) {
+            return List.of(); // Another instance is relaying
+        }
+        List<OutboxEvent> events = outboxEventRepository.findNextBatch(PageRequest.of(0, batchSize));
+        if (events.isEmpty()) {
+            return List.of();
+        }
+        List<InquiryEventDto> batch = new ArrayList<>(events.size());
+        List<Long> ids = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            batch.add(new InquiryEventDto(event.getId(), event.getType().name(), event.getInquiryId(),
+                    event.getSupplierName(), event.getProductId(), event.getUserId(), event.getOccurredAt()));
+            ids.add(event.getId());
+        }
+        sink.publish(batch); // Throws -> rollback, events stay
+        outboxEventRepository.deleteAllByIdInBatch(ids);
+
+        Instant now = Instant.now();
+        for (OutboxEvent event : events) {
+            delay.record(Duration.between(event.getOccurredAt(), now));
+        }
+        published.increment(events.size());
+        return batch;
+    }
+
+    private void refreshBacklog() {
+        try {
+            pending.set(outboxEventRepository.count());
+            oldestPending.set(outboxEventRepository.findOldestOccurredAt());
+        } catch (RuntimeException e) {
+            log.debug("Could not read the outbox backlog: {}", e.getMessage());
+        }
+    }
+
+    private static double ageSeconds(AtomicReference<Instant> oldest) {
+        Instant instant = oldest.get();
+        return instant == null ? 0.0 : Math.max(0, Duration.between(instant, Instant.now()).toMillis()) / 1000.0;
+    }
+}
@@ -0,0 +1,109 @@
+package com.golocal.inquiryservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.golocal.inquiryservice.dto.ProductDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import jakarta.annotation.PreDestroy;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Client for product-service's API (product-service.url, not through the gateway).
+ *  - Wire format: asks for Smile (binary JSON, see product-service's WireFormatConfig), which
+ *    is about a third smaller and faster to decode than JSON; JSON is still accepted.
+ *  - Connections: a fixed pool of keep-alive connections (Apache HttpClient 5), closed when
+ *    idle for longer than max-idle-time, which is shorter than product-service's keep-alive
+ *    timeout (60s), so a connection the server has already closed is never reused.
+ *  - Built with Boot's RestTemplateBuilder, so calls are traced (traceparent) and timed
+ *    (http.client.requests); the pool is exported as httpcomponents.httpclient.pool.*.
+ */
+@Component
+public class ProductServiceClient {
+
+    private static final String POOL_NAME = "product-service";
+
+    private final CloseableHttpClient httpClient;
+    private final RestTemplate restTemplate;
+
+    public ProductServiceClient(RestTemplateBuilder restTemplateBuilder,
+                                Jackson2ObjectMapperBuilder objectMapperBuilder,
+                                ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${product-service.url:http://localhost:8081}") String baseUrl,
+                                @Value("${product-service.client.max-connections:20}") int maxConnections,
+                                @Value("${product-service.client.connect-timeout:2s}") Duration connectTimeout,
+                                @Value("${product-service.client.response-timeout:3s}") Duration responseTimeout,
+                                @Value("${product-service.client.acquire-timeout:2s}") Duration acquireTimeout,
+                                @Value("${product-service.client.max-idle-time:45s}") Duration maxIdleTime,
+                                @Value("${product-service.client.max-life-time:10m}") Duration maxLifeTime) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections) // One route: product-service
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeout.toMillis()))
+                        .setTimeToLive(TimeValue.ofMilliseconds(maxLifeTime.toMillis())) // Recycle eventually (DNS/container changes)
+                        .build())
+                .build();
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(acquireTimeout.toMillis())) // Wait for a pooled connection
+                        .setResponseTimeout(Timeout.ofMilliseconds(responseTimeout.toMillis()))
+                        .build())
+                .evictIdleConnections(TimeValue.ofMilliseconds(maxIdleTime.toMillis())) // Background sweep, not only on next use
+                .evictExpiredConnections()
+                .disableAutomaticRetries() // A failed call is not retried (by default a 503 is, after 1s): callers fall back
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, POOL_NAME).bindTo(meterRegistry);
+
+        ObjectMapper smileMapper = objectMapperBuilder.factory(new SmileFactory()).build();
+        this.restTemplate = restTemplateBuilder
+                .rootUri(baseUrl)
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(httpClient))
+                // Accept lists Smile first, then JSON
+                .messageConverters(new MappingJackson2SmileHttpMessageConverter(smileMapper),
+                        new MappingJackson2HttpMessageConverter(objectMapper))
+                .build();
+    }
+
+    /**
+     * GET /api/products/{id}.
+     *
+     * @return The product, or empty if product-service does not know the ID.
+     * @throws RestClientException if product-service cannot be reached or fails.
+     */
+    public Optional<ProductDto> findProduct(Long productId) {
+        try {
+            return Optional.ofNullable(restTemplate.getForObject("/api/products/{id}", ProductDto.class, productId));
+        } catch (HttpClientErrorException.NotFound e) {
+            return Optional.empty();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        httpClient.close(); // Closes the pooled connections
+    }
+}
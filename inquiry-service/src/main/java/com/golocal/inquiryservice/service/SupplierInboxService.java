@@ -0,0 +1,146 @@
+package com.golocal.inquiryservice.service;
+
+import com.golocal.inquiryservice.dto.InquiryPageDto;
+import com.golocal.inquiryservice.dto.InquiryResponseDto;
+import com.golocal.inquiryservice.dto.InquirySummaryDto;
+import com.golocal.inquiryservice.dto.SupplierInboxSummaryDto;
+import com.golocal.inquiryservice.entity.Inquiry;
+import com.golocal.inquiryservice.entity.InquiryCounter;
+import com.golocal.inquiryservice.entity.OutboxEvent;
+import com.golocal.inquiryservice.exception.InquiryNotFoundException;
+import com.golocal.inquiryservice.exception.InvalidCursorException;
+import com.golocal.inquiryservice.repository.InquiryCounterRepository;
+import com.golocal.inquiryservice.repository.InquiryRepository;
+import com.golocal.inquiryservice.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Service layer for the supplier side of inquiries: the inbox list, the dashboard
+ * counters and opening (reading) an inquiry.
+ * Counters live in 'inquiry_counter' and are maintained incrementally:
+ * +1 total/unread when an inquiry is created (InquiryService), -1 unread the first
+ * time the supplier opens it (here). Dashboard reads never touch the 'inquiry' table.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SupplierInboxService {
+
+    private final InquiryRepository inquiryRepository;
+    private final InquiryCounterRepository inquiryCounterRepository;
+    private final OutboxEventRepository outboxEventRepository; // Change feed, published by OutboxRelay
+    private final InquiryService inquiryService; // Entity -> DTO mapping
+
+    /**
+     * Returns the supplier's dashboard counters.
+     * Reads one row per product the supplier has inquiries for, plus the supplier-wide row.
+     *
+     * @param supplierName The supplier (the authenticated supplier account).
+     * @return Totals and unread counts; all zero if the supplier never received an inquiry.
+     */
+    @Transactional(readOnly = true)
+    public SupplierInboxSummaryDto getSummary(String supplierName) {
+        long total = 0;
+        long unread = 0;
+        List<SupplierInboxSummaryDto.ProductCounts> products = new ArrayList<>();
+        for (InquiryCounter counter : inquiryCounterRepository.findBySupplierName(supplierName)) {
+            if (counter.getProductId() == InquiryCounter.ALL_PRODUCTS) {
+                total = counter.getTotal();
+                unread = counter.getUnread();
+            } else {
+                products.add(new SupplierInboxSummaryDto.ProductCounts(
+                        counter.getProductId(), counter.getTotal(), counter.getUnread()));
+            }
+        }
+        products.sort(Comparator.comparingLong(SupplierInboxSummaryDto.ProductCounts::getUnread).reversed()
+                .thenComparing(SupplierInboxSummaryDto.ProductCounts::getProductId));
+        return new SupplierInboxSummaryDto(supplierName, total, unread, products);
+    }
+
+    /**
+     * Retrieves one page of the supplier's inbox, newest first, optionally for one product only.
+     * Same keyset pagination as the "my inquiries" list.
+     *
+     * @param supplierName The supplier.
+     * @param productId    Restrict to this product, or null for all of the supplier's inquiries.
+     * @param cursor       The nextCursor of the previous page, or null/blank for the first page.
+     * @param limit        Requested page size (clamped to 1..InquiryCursor.MAX_PAGE_SIZE).
+     * @throws InvalidCursorException if the cursor cannot be decoded.
+     */
+    @Transactional(readOnly = true)
+    public InquiryPageDto getInboxPage(String supplierName, Long productId, String cursor, int limit) {
+        int pageSize = InquiryCursor.pageSize(limit);
+        Pageable oneMore = InquiryCursor.oneMoreThan(pageSize);
+        InquiryCursor position = StringUtils.hasText(cursor) ? InquiryCursor.decode(cursor) : null;
+
+        List<InquirySummaryDto> rows;
+        if (productId == null) {
+            rows = position == null
+                    ? inquiryRepository.findSummariesBySupplier(supplierName, oneMore)
+                    : inquiryRepository.findSummariesBySupplierBefore(supplierName, position.createdAt(), position.id(), oneMore);
+        } else {
+            rows = position == null
+                    ? inquiryRepository.findSummariesBySupplierAndProduct(supplierName, productId, oneMore)
+                    : inquiryRepository.findSummariesBySupplierAndProductBefore(
+                            supplierName, productId, position.createdAt(), position.id(), oneMore);
+        }
+        return InquiryCursor.toPage(rows, pageSize);
+    }
+
+    /**
+     * Opens an inquiry from the supplier's inbox: returns it in full and, the first time,
+     * marks it read and moves it from unread to read in the counters.
+     *
+     * @param inquiryId    The inquiry ID.
+     * @param supplierName The supplier.
+     * @return The full inquiry, with readAt set.
+     * @throws InquiryNotFoundException if the inquiry does not exist or was sent to another supplier.
+     */
+    @Transactional
+    public InquiryResponseDto openInquiry(Long inquiryId, String supplierName) {
+        Instant now = Instant.now();
+        boolean firstRead = inquiryRepository.markRead(inquiryId, supplierName, now) == 1;
+        Inquiry inquiry = inquiryRepository.findByIdAndSupplierName(inquiryId, supplierName)
+                .orElseThrow(() -> new InquiryNotFoundException(inquiryId));
+        if (firstRead) {
+            // Supplier-wide row first, then the product row (same lock order as incrementReceived)
+            inquiryCounterRepository.decrementUnreadForSupplier(supplierName);
+            inquiryCounterRepository.decrementUnreadForProduct(supplierName, inquiry.getProductId());
+            outboxEventRepository.save(new OutboxEvent(OutboxEvent.Type.INQUIRY_READ, inquiry, now)); // Under the same row lock
+            log.debug("Inquiry ID {} read by supplier {}", inquiryId, supplierName);
+        }
+        return inquiryService.mapToInquiryResponseDto(inquiry);
+    }
+
+    /**
+     * Initialises the counters from existing inquiries when the counter table is empty
+     * (first start after this table was introduced). Later starts find it populated and skip.
+     * The rebuild runs in its own transaction; a failure is logged and does not stop startup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialiseCounters() {
+        if (inquiryCounterRepository.count() > 0) {
+            return;
+        }
+        try {
+            int rows = inquiryCounterRepository.rebuildFromInquiries();
+            log.info("Initialised {} inbox counter rows from existing inquiries", rows);
+        } catch (DataIntegrityViolationException e) {
+            // Another instance (or a concurrent new inquiry) created the rows first
+            log.warn("Inbox counters were initialised concurrently, skipping: {}", e.getMostSpecificCause().getMessage());
+        }
+    }
+}
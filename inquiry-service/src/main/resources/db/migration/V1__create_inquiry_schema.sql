@@ -0,0 +1,103 @@
+-- Schema of inquiry-service before migrations took over: the monthly partitioned 'inquiry'
+-- table (formerly created by InquiryPartitionRepository) and the tables ddl-auto=update
+-- created from the entities.
+-- Also applied to databases created by earlier versions (baseline version 0): existing
+-- objects are kept, and a plain 'inquiry' table is converted to partitions, as the
+-- application used to do at startup. Runs as one transaction.
+
+CREATE SEQUENCE IF NOT EXISTS inquiry_id_seq;
+
+-- Earlier versions created 'inquiry' as a plain table: set it aside, its rows are copied below.
+-- The ID sequence is kept, so IDs continue where they left off.
+DO $$
+BEGIN
+    IF (SELECT relkind FROM pg_class WHERE oid = to_regclass('inquiry')) = 'r' THEN
+        ALTER TABLE inquiry RENAME TO inquiry_unpartitioned;
+        ALTER SEQUENCE inquiry_id_seq OWNED BY NONE; -- Keep it when the old table is dropped
+        ALTER TABLE inquiry_unpartitioned DROP CONSTRAINT IF EXISTS inquiry_pkey; -- Frees the name
+    END IF;
+END $$;
+
+-- Partitioned by RANGE (created_at), one partition per calendar month in UTC, named
+-- inquiry_yYYYYmMM (see InquiryPartitionRepository). The primary key has to include the
+-- partition key.
+CREATE TABLE IF NOT EXISTS inquiry (
+    id            BIGINT NOT NULL DEFAULT nextval('inquiry_id_seq'),
+    product_id    BIGINT NOT NULL,
+    user_id       VARCHAR(100) NOT NULL,
+    supplier_name VARCHAR(100),
+    subject       VARCHAR(255) NOT NULL,
+    message       TEXT NOT NULL,
+    created_at    TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at    TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    read_at       TIMESTAMP(6) WITH TIME ZONE,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+ALTER SEQUENCE inquiry_id_seq OWNED BY inquiry.id;
+
+-- Copies a set-aside plain table into partitions from its oldest inquiry's month onwards.
+-- Rows older than the retention window are archived by the next partition maintenance run.
+DO $$
+DECLARE
+    month DATE;
+BEGIN
+    IF to_regclass('inquiry_unpartitioned') IS NULL THEN
+        RETURN;
+    END IF;
+    month := date_trunc('month', COALESCE((SELECT MIN(created_at) FROM inquiry_unpartitioned), now()) AT TIME ZONE 'UTC');
+    WHILE month <= date_trunc('month', now() AT TIME ZONE 'UTC') LOOP
+        -- Bounds are literal UTC timestamps, independent of the session time zone
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF inquiry FOR VALUES FROM (%L) TO (%L)',
+                to_char(month, '"inquiry_y"YYYY"m"MM'),
+                to_char(month, 'YYYY-MM-DD') || ' 00:00:00+00',
+                to_char(month + INTERVAL '1 month', 'YYYY-MM-DD') || ' 00:00:00+00');
+        month := month + INTERVAL '1 month';
+    END LOOP;
+    INSERT INTO inquiry (id, product_id, user_id, supplier_name, subject, message, created_at, updated_at, read_at)
+    SELECT id, product_id, user_id, supplier_name, subject, message, created_at, updated_at, read_at
+    FROM inquiry_unpartitioned;
+    DROP TABLE inquiry_unpartitioned; -- Also drops its indexes, freeing their names
+END $$;
+
+-- Defined on the parent; PostgreSQL keeps an identical index on every partition.
+-- Keyset pagination of a user's inquiries: WHERE user_id = ? AND (created_at, id) < (?, ?)
+-- ORDER BY created_at DESC, id DESC is a single index range scan (also serves user_id-only lookups)
+CREATE INDEX IF NOT EXISTS idx_inquiry_user_created_id ON inquiry (user_id, created_at DESC, id DESC);
+-- Supplier inbox, newest first, for a supplier or one of its products (same keyset scheme)
+CREATE INDEX IF NOT EXISTS idx_inquiry_supplier_created_id ON inquiry (supplier_name, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_inquiry_product_created_id ON inquiry (product_id, created_at DESC, id DESC);
+-- No created_at-only index: time ranges are served by partition pruning
+
+-- Supplier inbox counters (InquiryCounter)
+CREATE TABLE IF NOT EXISTS inquiry_counter (
+    product_id    BIGINT NOT NULL,
+    supplier_name VARCHAR(100) NOT NULL,
+    total         BIGINT NOT NULL,
+    unread        BIGINT NOT NULL,
+    PRIMARY KEY (product_id, supplier_name)
+);
+-- The PK starts with product_id, so lookups by supplier need their own index
+CREATE INDEX IF NOT EXISTS idx_inquiry_counter_supplier ON inquiry_counter (supplier_name);
+
+-- Transactional outbox (OutboxEvent)
+CREATE TABLE IF NOT EXISTS inquiry_outbox (
+    id            BIGSERIAL PRIMARY KEY,
+    type          VARCHAR(30) NOT NULL CHECK (type IN ('INQUIRY_CREATED', 'INQUIRY_READ')),
+    inquiry_id    BIGINT NOT NULL,
+    supplier_name VARCHAR(100),
+    product_id    BIGINT NOT NULL,
+    user_id       VARCHAR(100) NOT NULL,
+    occurred_at   TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+-- Archived months, one row per (month, user) (InquiryArchive)
+CREATE TABLE IF NOT EXISTS inquiry_archive (
+    month         DATE NOT NULL,
+    user_id       VARCHAR(100) NOT NULL,
+    inquiry_count INTEGER NOT NULL,
+    payload       BYTEA NOT NULL,
+    archived_at   TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (month, user_id)
+);
+-- The PK starts with month, so lookups by user need their own index
+CREATE INDEX IF NOT EXISTS idx_inquiry_archive_user ON inquiry_archive (user_id);
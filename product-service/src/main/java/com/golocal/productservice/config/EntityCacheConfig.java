@@ -0,0 +1,104 @@
+package com.golocal.productservice.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.golocal.productservice.entity.Product;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.lang.NonNull;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import javax.sql.DataSource;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+/**
+ * Hibernate's second-level cache: JCache regions held by Caffeine in this instance's heap,
+ * each created here with its own size and time to live ('product.cache.*'). Hibernate gets
+ * this CacheManager and fails on a region that is not configured here, instead of creating
+ * an unbounded one.
+ *
+ * Products are written by SQL (ProductImportRepository evicts what it updates), and other
+ * instances keep their own copies, so the time to live bounds how long a change can take
+ * to show on another instance.
+ *
+ * The DataSource hands out connections lazily: a transaction takes one from the pool at its
+ * first statement, so a read-only transaction served from the cache (e.g. getProductById
+ * for a cached product) does not take one at all.
+ *
+ * Region statistics: Hibernate's per-region hits, misses and puts are exported through
+ * hibernate-micrometer (hibernate.second.level.cache.*); the size and evictions of the
+ * Caffeine cache behind a region as cache.* with cache=<region>.
+ */
+@Configuration
+public class EntityCacheConfig {
+
+    @Bean
+    public CacheManager entityCacheManager(@Value("${product.cache.product.max-entries:20000}") long productMaxEntries,
+                                           @Value("${product.cache.product.time-to-live:5m}") Duration productTimeToLive) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        // Own URI: not shared with anything else that uses the default CacheManager
+        CacheManager cacheManager = provider.getCacheManager(URI.create("golocal:entity-cache"), getClass().getClassLoader());
+        cacheManager.createCache(Product.CACHE_REGION, region(productMaxEntries, productTimeToLive));
+        return cacheManager; // Closed by Hibernate when the EntityManagerFactory closes
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheProperties(CacheManager entityCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+    }
+
+    @Bean
+    public MeterBinder entityCacheMetrics(CacheManager entityCacheManager) {
+        return registry -> {
+            for (String region : entityCacheManager.getCacheNames()) {
+                CaffeineCacheMetrics.monitor(registry,
+                        entityCacheManager.getCache(region).unwrap(com.github.benmanes.caffeine.cache.Cache.class), region);
+            }
+        };
+    }
+
+    // Static: a BeanPostProcessor is created before the other beans of this class
+    @Bean
+    public static BeanPostProcessor lazyConnectionDataSource() {
+        return new LazyConnectionDataSourcePostProcessor();
+    }
+
+    // Wraps the DataSource last (outermost), so the JDBC connection spans and the Hikari
+    // metrics only see connections that are really used
+    private static final class LazyConnectionDataSourcePostProcessor implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) {
+            if (bean instanceof DataSource dataSource && !(bean instanceof LazyConnectionDataSourceProxy)) {
+                return new LazyConnectionDataSourceProxy(dataSource);
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(long maxEntries, Duration timeToLive) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxEntries)); // Least recently/frequently used entries go first
+        configuration.setExpireAfterWrite(OptionalLong.of(timeToLive.toNanos()));
+        configuration.setStoreByValue(false); // Hibernate's cache entries are immutable: no copy on every get and put
+        configuration.setNativeStatisticsEnabled(true); // For CaffeineCacheMetrics
+        return configuration;
+    }
+}
@@ -0,0 +1,13 @@
+package com.golocal.productservice.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Scheduling for ProductFacetIndex: the initial load and the periodic refresh/rebuild
+ * run on the scheduler thread.
+ */
+@Configuration
+@EnableScheduling
+public class FacetConfig {
+}
@@ -0,0 +1,40 @@
+package com.golocal.productservice.config;
+
+import com.golocal.productservice.grpc.GrpcServer;
+import com.golocal.productservice.grpc.ProductGrpcService;
+import com.golocal.productservice.service.ProductService;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * gRPC API for internal consumers (ProductLookup: GetProduct, GetProducts, ListProducts) on
+ * 'product.grpc.port', reached directly on the internal network like /internal endpoints:
+ * not routed by the gateway and without its JWT check. See 'product.grpc.*' in
+ * application.properties and docs/performance.md.
+ */
+@Configuration
+@ConditionalOnProperty(name = "product.grpc.enabled", havingValue = "true", matchIfMissing = true)
+public class GrpcConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ProductGrpcService productGrpcService(ProductService productService,
+                                                 @Value("${product.grpc.max-list-streams:4}") int maxListStreams,
+                                                 @Value("${product.grpc.list-page-size:200}") int listPageSize,
+                                                 @Value("${product.grpc.stall-timeout:30s}") Duration stallTimeout) {
+        return new ProductGrpcService(productService, maxListStreams, listPageSize, stallTimeout);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public GrpcServer grpcServer(ProductGrpcService productGrpcService, ObservationRegistry observationRegistry,
+                                 @Value("${product.grpc.port:9091}") int port,
+                                 @Value("${product.grpc.threads:16}") int threads,
+                                 @Value("${product.grpc.max-concurrent-calls-per-connection:100}") int maxConcurrentCalls,
+                                 @Value("${product.grpc.shutdown-grace:10s}") Duration shutdownGrace) {
+        return new GrpcServer(productGrpcService, observationRegistry, port, threads, maxConcurrentCalls, shutdownGrace);
+    }
+}
@@ -0,0 +1,26 @@
+package com.golocal.productservice.config;
+
+import com.golocal.productservice.service.ThumbnailSize;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Request binding for the thumbnail endpoint: 'size=small|medium|large' in any case
+ * (an unknown size is a 400 via GlobalExceptionHandler).
+ */
+@Configuration
+public class MediaConfig {
+
+    @Bean
+    public WebMvcConfigurer thumbnailSizeConverter() {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addFormatters(@NonNull FormatterRegistry registry) {
+                registry.addConverter(String.class, ThumbnailSize.class, ThumbnailSize::fromParameter);
+            }
+        };
+    }
+}
@@ -0,0 +1,17 @@
+package com.golocal.productservice.config;
+
+import com.golocal.productservice.dto.ProductImportRow;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Reflection hints for the native executable (Maven profile 'native', see
+ * docs/performance.md). Spring AOT already registers the JPA entities (from the persistence
+ * unit scan) and the DTOs the controllers take and return, Lombok-generated accessors
+ * included. ProductImportRow is read by ProductImportService's own ObjectMapper reader
+ * instead, so it is registered here.
+ */
+@Configuration
+@RegisterReflectionForBinding(ProductImportRow.class)
+public class NativeHintsConfig {
+}
@@ -0,0 +1,69 @@
+package com.golocal.productservice.config;
+
+import com.golocal.productservice.profiling.ContinuousRecording;
+import com.golocal.productservice.profiling.JfrEndpoint;
+import com.golocal.productservice.profiling.JfrEndpointAccessFilter;
+import com.golocal.productservice.profiling.RepositoryCallRecorder;
+import com.golocal.productservice.profiling.SloBreachMonitor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Always-on profiling with Java Flight Recorder: the continuous recording
+ * ({@link ContinuousRecording}), its dump endpoint for admins (GET /actuator/jfr, reached
+ * through the gateway's /api/admin/product-service/jfr route), the automatic dumps on SLO
+ * breaches ({@link SloBreachMonitor}) and the golocal.* events; see 'profiling.*' in
+ * application.properties.
+ */
+@Configuration
+@EnableScheduling // SloBreachMonitor's latency check
+public class ProfilingConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public ContinuousRecording continuousRecording(@Value("${spring.application.name}") String applicationName,
+                                                   @Value("${profiling.jfr.dump-directory:logs/jfr}") Path dumpDirectory,
+                                                   @Value("${profiling.jfr.max-age:6h}") Duration maxAge,
+                                                   @Value("${profiling.jfr.max-size:256MB}") DataSize maxSize,
+                                                   @Value("${profiling.jfr.max-dumps:20}") int maxDumps) {
+        return new ContinuousRecording(applicationName, dumpDirectory, maxAge, maxSize, maxDumps);
+    }
+
+    @Bean
+    public JfrEndpoint jfrEndpoint(ContinuousRecording continuousRecording,
+                                   @Value("${profiling.jfr.default-dump-minutes:10}") int defaultMinutes) {
+        return new JfrEndpoint(continuousRecording, defaultMinutes);
+    }
+
+    @Bean
+    public FilterRegistrationBean<JfrEndpointAccessFilter> jfrEndpointAccessFilter() {
+        FilterRegistrationBean<JfrEndpointAccessFilter> registration = new FilterRegistrationBean<>(new JfrEndpointAccessFilter());
+        registration.addUrlPatterns("/actuator/jfr", "/actuator/jfr/*");
+        return registration;
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public SloBreachMonitor sloBreachMonitor(ContinuousRecording continuousRecording, MeterRegistry meterRegistry,
+                                             @Value("${profiling.slo.latency-threshold:500ms}") Duration latencyThreshold,
+                                             @Value("${profiling.slo.percentile:0.99}") double percentile,
+                                             @Value("${profiling.slo.min-requests:100}") long minRequests,
+                                             @Value("${profiling.slo.gc-pause:200ms}") Duration gcPauseThreshold,
+                                             @Value("${profiling.slo.dump-window:5m}") Duration dumpWindow,
+                                             @Value("${profiling.slo.cooldown:10m}") Duration cooldown) {
+        return new SloBreachMonitor(continuousRecording, meterRegistry, latencyThreshold, percentile, minRequests,
+                gcPauseThreshold, dumpWindow, cooldown);
+    }
+
+    // Static: a BeanPostProcessor is created before the other beans, without this configuration
+    @Bean
+    public static RepositoryCallRecorder repositoryCallRecorder() {
+        return new RepositoryCallRecorder();
+    }
+}
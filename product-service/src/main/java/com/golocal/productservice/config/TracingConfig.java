@@ -0,0 +1,169 @@
+package com.golocal.productservice.config;
+
+import io.micrometer.tracing.exporter.FinishedSpan;
+import io.micrometer.tracing.exporter.SpanExportingPredicate;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configures span export for distributed tracing (Micrometer Tracing + OpenTelemetry).
+ * Every span is recorded (management.tracing.sampling.probability=1.0); the export
+ * predicate below decides which ones leave the process:
+ *  - spans that errored or took longer than the slow threshold are always kept,
+ *  - all other spans are kept for a fixed share of traces, chosen from the trace ID
+ *    so every service makes the same keep/drop decision for the same trace.
+ * The exporter is pluggable via 'tracing.exporter' (log | memory | none). Adding
+ * io.opentelemetry:opentelemetry-exporter-otlp registers Boot's OTLP exporter alongside.
+ */
+@Configuration
+@Slf4j
+public class TracingConfig {
+
+    @Value("${tracing.sampling.slow-threshold:500ms}")
+    private Duration slowThreshold; // Spans at least this long are always exported
+
+    @Value("${tracing.sampling.normal-ratio:0.05}")
+    private double normalRatio; // Share of fast, successful traces to export (0.0 - 1.0)
+
+    @Bean
+    public SpanExportingPredicate slowOrErrorSpanPredicate() {
+        return new SlowOrErrorSpanPredicate(slowThreshold, normalRatio);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "tracing.exporter", havingValue = "log", matchIfMissing = true)
+    public SpanExporter loggingSpanExporter() {
+        return new LoggingSpanExporter();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "tracing.exporter", havingValue = "memory")
+    public InMemorySpanExporter inMemorySpanExporter(@Value("${tracing.memory.capacity:1000}") int capacity) {
+        return new InMemorySpanExporter(capacity);
+    }
+
+    /**
+     * Keeps errored and slow spans, plus a trace-ID based share of everything else.
+     */
+    static final class SlowOrErrorSpanPredicate implements SpanExportingPredicate {
+
+        private static final long RATIO_SCALE = 10_000;
+
+        private final long slowThresholdNanos;
+        private final long keepBelow;
+
+        SlowOrErrorSpanPredicate(Duration slowThreshold, double normalRatio) {
+            this.slowThresholdNanos = slowThreshold.toNanos();
+            this.keepBelow = Math.round(Math.max(0.0, Math.min(1.0, normalRatio)) * RATIO_SCALE);
+        }
+
+        @Override
+        public boolean isExportable(FinishedSpan span) {
+            if (span.getError() != null || span.getTags().containsKey("error")
+                    || "SERVER_ERROR".equals(span.getTags().get("outcome"))) {
+                return true; // Always keep failures
+            }
+            if (Duration.between(span.getStartTimestamp(), span.getEndTimestamp()).toNanos() >= slowThresholdNanos) {
+                return true; // Always keep slow spans (their ancestors are at least as slow)
+            }
+            return sampledByTraceId(span.getTraceId());
+        }
+
+        private boolean sampledByTraceId(String traceId) {
+            if (traceId == null || traceId.length() < 16) {
+                return false;
+            }
+            // Low 64 bits of the W3C trace ID are random, so this is a stable uniform bucket
+            long low = Long.parseUnsignedLong(traceId.substring(traceId.length() - 16), 16);
+            return Long.remainderUnsigned(low, RATIO_SCALE) < keepBelow;
+        }
+    }
+
+    /**
+     * Stand-in exporter that writes one log line per exported span.
+     */
+    static final class LoggingSpanExporter implements SpanExporter {
+
+        @Override
+        public CompletableResultCode export(Collection<SpanData> spans) {
+            for (SpanData span : spans) {
+                log.info("span name='{}' trace={} span={} parent={} kind={} durationMs={} status={}",
+                        span.getName(), span.getTraceId(), span.getSpanId(), span.getParentSpanId(),
+                        span.getKind(),
+                        TimeUnit.NANOSECONDS.toMillis(span.getEndEpochNanos() - span.getStartEpochNanos()),
+                        span.getStatus().getStatusCode());
+            }
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return CompletableResultCode.ofSuccess();
+        }
+    }
+
+    /**
+     * Stand-in exporter that keeps the most recent spans in memory (bounded), for tests
+     * and local inspection.
+     */
+    public static final class InMemorySpanExporter implements SpanExporter {
+
+        private final int capacity;
+        private final Deque<SpanData> spans = new ArrayDeque<>();
+
+        InMemorySpanExporter(int capacity) {
+            this.capacity = Math.max(1, capacity);
+        }
+
+        @Override
+        public synchronized CompletableResultCode export(Collection<SpanData> batch) {
+            for (SpanData span : batch) {
+                if (spans.size() == capacity) {
+                    spans.removeFirst(); // Drop the oldest span
+                }
+                spans.addLast(span);
+            }
+            return CompletableResultCode.ofSuccess();
+        }
+
+        /**
+         * @return A snapshot of the retained spans, oldest first.
+         */
+        public synchronized List<SpanData> getFinishedSpans() {
+            return new ArrayList<>(spans);
+        }
+
+        public synchronized void reset() {
+            spans.clear();
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return CompletableResultCode.ofSuccess();
+        }
+    }
+}
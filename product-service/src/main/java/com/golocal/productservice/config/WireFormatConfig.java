@@ -0,0 +1,28 @@
+package com.golocal.productservice.config;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Content negotiation between JSON and Smile (Jackson's binary JSON,
+ * 'application/x-jackson-smile') for request and response bodies. Browsers get JSON as
+ * before; internal callers such as inquiry-service's ProductServiceClient ask for Smile,
+ * which is about a third smaller and faster to decode for product batches (see
+ * docs/performance.md). The streamed product list (GET /api/products) picks its format
+ * itself (ProductListWriter.formatFor), with the same Smile settings.
+ */
+@Configuration
+public class WireFormatConfig {
+
+    /**
+     * Replaces Spring MVC's default Smile converter, whose mapper skips Boot's Jackson
+     * settings ('spring.jackson.*', modules), so both formats carry the same fields.
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
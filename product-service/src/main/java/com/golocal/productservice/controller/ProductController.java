@@ -1,12 +1,24 @@
 package com.golocal.productservice.controller;
 
+import com.golocal.productservice.dto.ProductBatchDto;
+import com.golocal.productservice.dto.ProductBrowsePageDto;
 import com.golocal.productservice.dto.ProductDto;
+import com.golocal.productservice.dto.ProductSuggestionDto;
+import com.golocal.productservice.service.ProductListWriter;
 import com.golocal.productservice.service.ProductService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.io.IOException;
+import java.math.BigDecimal;
 import java.util.List;
 
 /**
@@ -20,26 +32,83 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService; // Inject the service
+    private final ContentNegotiationManager contentNegotiationManager; // Accept header -> JSON or Smile for the streamed list
 
     /**
      * GET /api/products : Get all products, optionally filtered by a search term.
+     * The array of ProductDto is streamed from the database as it is read
+     * (see ProductService.writeAllProducts), not built as a list first; as JSON, or as
+     * Smile if the Accept header prefers it (the other endpoints negotiate via WireFormatConfig).
      *
      * @param search Optional search term provided as a query parameter.
-     * @return ResponseEntity containing a list of ProductDtos (HTTP 200 OK).
+     * Responds 200 with the products.
      */
     @GetMapping
-    public ResponseEntity<List<ProductDto>> getAllProducts(
-            @RequestParam(value = "search", required = false) String search) {
+    public void getAllProducts(
+            @RequestParam(value = "search", required = false) String search,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException, HttpMediaTypeNotAcceptableException {
 
-        if (search != null && !search.isBlank()) {
-            log.info("Received request to get products with search term: '{}'", search);
-        } else {
-            log.info("Received request to get all products");
-        }
+        // Per-request logging stays at DEBUG: this is the hottest read path
+        log.debug("Received request to get products (search term: '{}')", search);
 
-        List<ProductDto> products = productService.getAllProducts(search);
-        log.debug("Returning {} products.", products.size());
-        return ResponseEntity.ok(products);
+        MediaType format = ProductListWriter.formatFor(contentNegotiationManager.resolveMediaTypes(new ServletWebRequest(request)));
+        response.setContentType(format.toString());
+        productService.writeAllProducts(search, format, response.getOutputStream());
+    }
+
+    /**
+     * GET /api/products?ids=1,2,3 : Several products by ID in one request (one query), instead
+     * of one GET /api/products/{id} per product.
+     *
+     * @param ids Comma-separated product IDs (at most 100).
+     * @return ResponseEntity containing a ProductBatchDto (HTTP 200 OK): the products in the
+     *         order requested and the IDs not found; 400 if there are too many IDs.
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<ProductBatchDto> getProductsByIds(@RequestParam List<Long> ids) {
+        log.debug("Received request to get {} products by ID", ids.size());
+        return ResponseEntity.ok(productService.getProductsByIds(ids));
+    }
+
+    /**
+     * GET /api/products/browse : Products filtered by category and price range, newest first,
+     * one page at a time, with facet counts (products per category and per price range).
+     *
+     * @param category Category to include; repeat for several (optional).
+     * @param minPrice Lowest price, inclusive (optional).
+     * @param maxPrice Highest price, inclusive (optional).
+     * @param currency Currency of the prices, ISO 4217 (default: the marketplace currency).
+     * @param cursor   The nextCursor from the previous page (omit for the first page).
+     * @param limit    Page size (default 20, at most 100).
+     * @return ResponseEntity containing a ProductBrowsePageDto (HTTP 200 OK), or 503 while
+     *         the facet index is still loading after a start.
+     */
+    @GetMapping("/browse")
+    public ResponseEntity<ProductBrowsePageDto> browseProducts(
+            @RequestParam(required = false) List<String> category,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) String currency,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        log.debug("Received request to browse products (categories: {}, price: {} - {} {})", category, minPrice, maxPrice, currency);
+        return ResponseEntity.ok(productService.browseProducts(category, minPrice, maxPrice, currency, cursor, limit));
+    }
+
+    /**
+     * GET /api/products/suggest : Product and supplier names for a search box, as the user
+     * types (answered from memory, suitable for every keystroke).
+     *
+     * @param q     The text typed so far; matched against the start of any word of a name.
+     * @param limit Most suggestions (default 8, at most 20).
+     * @return ResponseEntity containing the suggestions, most viewed first (HTTP 200 OK).
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<ProductSuggestionDto>> suggestProducts(
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "8") int limit) {
+        return ResponseEntity.ok(productService.suggestProducts(q, limit));
     }
 
     /**
@@ -51,7 +120,7 @@ public class ProductController {
      */
     @GetMapping("/{id}")
     public ResponseEntity<ProductDto> getProductById(@PathVariable Long id) {
-        log.info("Received request to get product by ID: {}", id);
+        log.debug("Received request to get product by ID: {}", id);
         ProductDto product = productService.getProductById(id);
         // If service throws ProductNotFoundException, GlobalExceptionHandler handles it
         log.debug("Returning product: {}", product.getName());
@@ -0,0 +1,83 @@
+package com.golocal.productservice.controller;
+
+import com.golocal.productservice.service.ThumbnailService;
+import com.golocal.productservice.service.ThumbnailSize;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+/**
+ * REST Controller serving product image thumbnails (see ThumbnailService). Public like the
+ * product endpoints: the gateway lets '/api/products/{id}/thumbnail' through without a token,
+ * since browsers load it from an img tag.
+ */
+@RestController
+@RequestMapping("/api/products")
+@RequiredArgsConstructor
+@Slf4j
+public class ProductThumbnailController {
+
+    // Tomcat sends the named file itself with sendfile(2) after the handler returns:
+    // no copy through the JVM heap or a user-space buffer
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // The URL (via 'v') names exactly this content: cacheable for a year by browsers and CDNs
+    private static final String CACHE_IMMUTABLE = "public, max-age=31536000, immutable";
+    // No or outdated 'v' (the image changed since the URL was handed out): cache briefly
+    private static final String CACHE_SHORT = "public, max-age=300";
+
+    private final ThumbnailService thumbnailService;
+
+    /**
+     * GET /api/products/{id}/thumbnail : A JPEG thumbnail of the product's image.
+     * Use the path in ProductDto.thumbnail, which includes the size and version ('v').
+     *
+     * @param id   The product ID.
+     * @param size small (150x150), medium (400x300, default) or large (800x600); the image is fit inside.
+     * @param v    Version key from ProductDto.thumbnail (optional).
+     * Responds 200 with the image (304 for a matching If-None-Match), 404 if the product or its
+     * image does not exist, 502 if the image could not be fetched or read.
+     */
+    @GetMapping("/{id}/thumbnail")
+    public void getThumbnail(@PathVariable Long id,
+                             @RequestParam(defaultValue = "medium") ThumbnailSize size,
+                             @RequestParam(required = false) String v,
+                             HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+        ThumbnailService.Thumbnail thumbnail = thumbnailService.getThumbnail(id, size, v);
+        String etag = "\"" + thumbnail.key() + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, thumbnail.key().equals(v) ? CACHE_IMMUTABLE : CACHE_SHORT);
+        if (etag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        Path file = thumbnail.file().toRealPath(); // Tomcat only accepts a canonical path for sendfile
+        try (FileChannel channel = FileChannel.open(file)) {
+            long length = channel.size();
+            response.setContentType(MediaType.IMAGE_JPEG_VALUE);
+            response.setContentLengthLong(length);
+            if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+                request.setAttribute(SENDFILE_FILENAME, file.toString());
+                request.setAttribute(SENDFILE_START, 0L);
+                request.setAttribute(SENDFILE_END, length);
+            } else {
+                channel.transferTo(0, length, Channels.newChannel(response.getOutputStream()));
+            }
+        }
+    }
+}
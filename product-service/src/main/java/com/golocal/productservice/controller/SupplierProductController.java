@@ -0,0 +1,65 @@
+package com.golocal.productservice.controller;
+
+import com.golocal.productservice.dto.ProductImportReportDto;
+import com.golocal.productservice.exception.SupplierRequiredException;
+import com.golocal.productservice.service.ProductImportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * REST Controller for suppliers managing their own products.
+ * Requires a supplier account: the gateway validates the token (these paths are not public)
+ * and forwards the username in X-User-Id and the roles in X-User-Roles. The username is the
+ * supplier name stored on the supplier's products.
+ */
+@RestController
+@RequestMapping("/api/products/supplier")
+@RequiredArgsConstructor
+@Slf4j
+public class SupplierProductController {
+
+    private final ProductImportService productImportService;
+    private static final String USER_ID_HEADER = "X-User-Id";
+    private static final String USER_ROLES_HEADER = "X-User-Roles"; // Comma-separated, e.g. "ROLE_USER,ROLE_SUPPLIER"
+    private static final String SUPPLIER_ROLE = "ROLE_SUPPLIER";
+
+    /**
+     * POST /api/products/supplier/import : Bulk insert or update of the supplier's products.
+     * The body is a CSV file with a header row (text/csv) or one JSON object per line
+     * (application/x-ndjson) and is streamed, not buffered, so it can be of any size.
+     * Rows are matched to existing products by name.
+     *
+     * @return The import report (HTTP 200 OK), also when some rows failed.
+     */
+    @PostMapping("/import")
+    public ResponseEntity<ProductImportReportDto> importProducts(
+            InputStream body,
+            @RequestHeader(name = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            @RequestHeader(name = USER_ID_HEADER) String userId,
+            @RequestHeader(name = USER_ROLES_HEADER, required = false) String roles) {
+        String supplierName = requireSupplier(userId, roles);
+        log.debug("Received product import from supplier '{}' ({})", supplierName, contentType);
+        return ResponseEntity.ok(productImportService.importProducts(body, contentType, supplierName));
+    }
+
+    /**
+     * @return The supplier name for the request.
+     * @throws SupplierRequiredException (HTTP 403) unless the caller has the supplier role.
+     */
+    private String requireSupplier(String userId, String roles) {
+        boolean supplier = roles != null && Arrays.stream(roles.split(","))
+                .map(String::trim)
+                .anyMatch(SUPPLIER_ROLE::equals);
+        if (!StringUtils.hasText(userId) || !supplier) {
+            throw new SupplierRequiredException();
+        }
+        return userId;
+    }
+}
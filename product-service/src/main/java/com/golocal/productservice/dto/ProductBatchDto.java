@@ -0,0 +1,21 @@
+package com.golocal.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response of GET /api/products?ids=...: the products found, in the order their IDs were
+ * requested (each ID once), and the requested IDs that do not exist.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductBatchDto {
+
+    private List<ProductDto> products;
+
+    private List<Long> missing;
+}
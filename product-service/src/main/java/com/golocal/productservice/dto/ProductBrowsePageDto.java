@@ -0,0 +1,54 @@
+package com.golocal.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * One page of GET /api/products/browse: the matching products, newest first, with
+ * facet counts for narrowing the result further.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductBrowsePageDto {
+
+    private List<ProductDto> items;
+
+    private long total; // Products matching all filters
+
+    private String nextCursor; // Pass as 'cursor' for the next page; null on the last page
+
+    private String currency; // Currency of the price filter and of priceRanges
+
+    // Products per category with the price filter applied (not the category filter), most first
+    private List<CategoryCount> categories;
+
+    // Products per price range with the category filter applied (not the price filter)
+    private List<PriceRangeCount> priceRanges;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CategoryCount {
+
+        private String category;
+
+        private long count;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PriceRangeCount {
+
+        private BigDecimal min; // Inclusive
+
+        private BigDecimal max; // Exclusive; null for the open-ended top range
+
+        private long count;
+    }
+}
@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
+
 /**
  * Data Transfer Object (DTO) for representing Product information.
  * Used for transferring product data between layers (e.g., service to controller)
@@ -24,9 +26,16 @@ public class ProductDto {
 
     private String supplierName; // Name of the supplier providing the product
 
-    // Add other relevant fields if needed, e.g., description, category, stock quantity
+    private String category;
+
+    private BigDecimal priceAmount; // Price as a number, parsed from 'price' (null if it has none)
+
+    private String priceCurrency; // ISO 4217 code of priceAmount
+
+    private String thumbnail; // Path of a card-sized thumbnail of 'image' (relative to the API base URL); null without image
+
+    // Add other relevant fields if needed, e.g., description, stock quantity
     // private String description;
-    // private String category;
     // private Integer stockQuantity;
 
     // Consider adding timestamps (createdAt, updatedAt) if relevant for the API consumer
@@ -0,0 +1,55 @@
+package com.golocal.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk product import. Every row read is counted in exactly one of
+ * inserted, updated, unchanged, duplicates or failed; 'errors' lists the failed rows
+ * (up to product.import.max-reported-errors of them, see errorsTruncated).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportReportDto {
+
+    private long rows; // Data rows read (CSV records after the header, non-blank NDJSON lines)
+
+    private long inserted; // New products
+
+    private long updated; // Existing products of this supplier whose fields changed
+
+    private long unchanged; // Existing products already identical (not rewritten)
+
+    private long duplicates; // Rows superseded by a later row with the same name in the same batch
+
+    private long failed;
+
+    private List<RowError> errors;
+
+    private boolean errorsTruncated;
+
+    // Set if the import stopped early (e.g. unreadable input); rows before it were imported
+    private String aborted;
+
+    private long durationMs;
+
+    /**
+     * A rejected row. 'row' is the 1-based data row (CSV: record after the header,
+     * NDJSON: line number).
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+
+        private long row;
+
+        private String name; // Product name, if it could be read
+
+        private String message;
+    }
+}
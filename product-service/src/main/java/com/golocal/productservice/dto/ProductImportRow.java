@@ -0,0 +1,35 @@
+package com.golocal.productservice.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One product row of a bulk import (a CSV record or an NDJSON line).
+ * Limits match the Product entity's column sizes. The supplier is the importing account:
+ * supplierName may be left out, and a row naming another supplier is rejected.
+ */
+@Data
+@NoArgsConstructor
+public class ProductImportRow {
+
+    @NotBlank
+    @Size(max = 150)
+    private String name; // Unique across all products; an existing product of the same supplier is updated
+
+    @Size(max = 50)
+    private String price; // Price description, e.g. "$ 2.00 per lb"
+
+    @Size(max = 512)
+    private String image;
+
+    @Size(max = 100)
+    private String supplierName;
+
+    @Size(max = 10000)
+    private String description;
+
+    @Size(max = 100)
+    private String category;
+}
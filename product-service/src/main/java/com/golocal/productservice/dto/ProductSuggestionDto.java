@@ -0,0 +1,21 @@
+package com.golocal.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One entry of GET /api/products/suggest: a product or supplier name to offer while the
+ * user types.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSuggestionDto {
+
+    private String text; // The name to show
+
+    private String type; // "product" or "supplier"
+
+    private Long productId; // The product to open; null for a supplier (search by its name instead)
+}
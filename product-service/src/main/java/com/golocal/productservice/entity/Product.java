@@ -2,31 +2,41 @@ package com.golocal.productservice.entity;
 
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp; // Optional: for creation timestamp
 import org.hibernate.annotations.UpdateTimestamp;   // Optional: for update timestamp
 
+import java.math.BigDecimal;
 import java.time.Instant; // Optional: for timestamps
 
 /**
  * JPA Entity representing a Product in the database.
+ * Held in Hibernate's second-level cache (region CACHE_REGION, see EntityCacheConfig):
+ * lookups by ID are served from memory while the entry is fresh.
  */
-@Data // Lombok: getters, setters, toString, equals, hashCode
+@Getter // Lombok: getters
+@Setter // Lombok: setters
+@ToString // Lombok: toString (no associations, so it loads nothing)
 @NoArgsConstructor // Lombok: No-args constructor needed by JPA
 @AllArgsConstructor // Lombok: All-args constructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Product.CACHE_REGION)
+// Indexes (including the trigram search indexes) are defined by the migrations (db/migration)
 @Table(name = "product", // Explicitly name the table
-        indexes = {
-                @Index(name = "idx_product_name", columnList = "name"), // Index on name for searching
-                @Index(name = "idx_product_supplier", columnList = "supplierName") // Index on supplier name
-        },
         uniqueConstraints = {
    		@UniqueConstraint(columnNames = "name", name = "uk_product_name") // Ensure product names are unique
 	    }
 )
 public class Product {
 
+    public static final String CACHE_REGION = "product";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY) // Use database auto-increment
     private Long id;
@@ -37,6 +47,14 @@ public class Product {
     @Column(length = 50) // Price description string
     private String price;
 
+    // Normalized from 'price' (see ProductPrice) for price range filters and facets;
+    // null if the description has no amount
+    @Column(precision = 12, scale = 2)
+    private BigDecimal priceAmount;
+
+    @Column(length = 3) // ISO 4217 code
+    private String priceCurrency;
+
     @Column(length = 512) // URL for the image
     private String image;
 
@@ -50,6 +68,11 @@ public class Product {
     @Column(length = 100)
     private String category;
 
+    // Detail page views, added up by ProductViewCounter; ranks suggestions. Written by SQL
+    // only, so saving an entity never overwrites a newer count
+    @Column(nullable = false, insertable = false, updatable = false, columnDefinition = "bigint not null default 0")
+    private Long viewCount;
+
     // Optional: Timestamps managed by Hibernate
     @CreationTimestamp // Automatically set on creation
     @Column(updatable = false) // Prevent updates to creation timestamp
@@ -58,4 +81,32 @@ public class Product {
     @UpdateTimestamp // Automatically set on creation and update
     private Instant updatedAt;
 
+    // Keeps the normalized price in step with the description on every JPA write
+    @PrePersist
+    @PreUpdate
+    void normalizePrice() {
+        ProductPrice parsed = ProductPrice.parse(price);
+        this.priceAmount = parsed != null ? parsed.amount() : null;
+        this.priceCurrency = parsed != null ? parsed.currency() : null;
+    }
+
+    // Identity is the ID, not the field values (what Lombok's @Data compared): the hash code
+    // must not change when the ID is assigned on insert or a field is updated, and two
+    // instances of the same row (e.g. one from the second-level cache, one loaded in another
+    // session) are equal. A new product without an ID equals only itself.
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Product other)) {
+            return false;
+        }
+        return id != null && id.equals(other.getId()); // getId(): 'other' may be a proxy
+    }
+
+    @Override
+    public int hashCode() {
+        return Product.class.hashCode(); // Same before and after the ID is assigned
+    }
 }
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.golocal.productservice.entity;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A product's price as a number and an ISO 4217 currency, read from the free-text price
+ * description suppliers enter (e.g. "$ 2.00 per lb", "€3,50 / kg", "12 USD per box").
+ * Stored next to the description (Product.priceAmount/priceCurrency) so prices can be
+ * filtered by range and faceted.
+ *
+ * The first number is the amount (for "2-3 per lb" that is 2). The currency comes from a
+ * symbol or an upper-case ISO code next to it; without one the description is taken to be
+ * in DEFAULT_CURRENCY, the marketplace's currency.
+ */
+public record ProductPrice(BigDecimal amount, String currency) {
+
+    public static final String DEFAULT_CURRENCY = "USD";
+
+    private static final Map<Character, String> SYMBOLS = Map.of(
+            '$', "USD", '€', "EUR", '£', "GBP", '¥', "JPY", '₹', "INR");
+    // "1,250.50" / "1250.50" / "3,50" (decimal comma: one or two digits after it)
+    private static final Pattern AMOUNT = Pattern.compile("\\d{1,3}(?:,\\d{3})+(?:\\.\\d+)?|\\d+(?:[.,]\\d{1,2}(?!\\d))?");
+    private static final Pattern CODE = Pattern.compile("\\b[A-Z]{3}\\b");
+
+    /**
+     * @return The parsed price, or null if the description has no amount.
+     */
+    public static ProductPrice parse(String description) {
+        if (description == null) {
+            return null;
+        }
+        Matcher number = AMOUNT.matcher(description);
+        if (!number.find()) {
+            return null;
+        }
+        String digits = number.group();
+        digits = digits.matches("\\d+,\\d{1,2}") ? digits.replace(',', '.') : digits.replace(",", "");
+        BigDecimal amount = new BigDecimal(digits).setScale(2, RoundingMode.HALF_UP);
+        if (amount.precision() > 12) {
+            return null; // Does not fit the column (NUMERIC(12,2)); not a real price
+        }
+        return new ProductPrice(amount, currencyOf(description));
+    }
+
+    private static String currencyOf(String description) {
+        for (int i = 0; i < description.length(); i++) {
+            String code = SYMBOLS.get(description.charAt(i));
+            if (code != null) {
+                return code;
+            }
+        }
+        Matcher code = CODE.matcher(description);
+        while (code.find()) {
+            if (isCurrency(code.group())) {
+                return code.group();
+            }
+        }
+        return DEFAULT_CURRENCY;
+    }
+
+    private static boolean isCurrency(String code) {
+        try {
+            Currency.getInstance(code);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.golocal.productservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a batch request names more IDs than 'product.batch.max-ids'.
+ * Maps to HTTP 400 Bad Request.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class BatchTooLargeException extends RuntimeException {
+
+    public BatchTooLargeException(int requested, int max) {
+        super("Too many IDs: " + requested + " (at most " + max + " per request)");
+    }
+}
@@ -0,0 +1,16 @@
+package com.golocal.productservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when products are browsed before this instance has loaded its facet index
+ * (a few seconds after a start). Maps to HTTP 503 Service Unavailable.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class FacetIndexUnavailableException extends RuntimeException {
+
+    public FacetIndexUnavailableException() {
+        super("Product filters are still loading, retry shortly");
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.time.LocalDateTime;
 import java.util.LinkedHashMap;
@@ -30,6 +31,80 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(ex, "Not Found", HttpStatus.NOT_FOUND, request);
     }
 
+    /**
+     * Handles bulk imports that cannot start (HTTP 400).
+     */
+    @ExceptionHandler(InvalidImportException.class)
+    public ResponseEntity<Object> handleInvalidImport(InvalidImportException ex, WebRequest request) {
+        log.warn("Bad request: {}", ex.getMessage());
+        return buildErrorResponse(ex, "Bad Request", HttpStatus.BAD_REQUEST, request);
+    }
+
+    /**
+     * Handles supplier-only endpoints called without the supplier role (HTTP 403).
+     */
+    @ExceptionHandler(SupplierRequiredException.class)
+    public ResponseEntity<Object> handleSupplierRequired(SupplierRequiredException ex, WebRequest request) {
+        log.warn("Forbidden: {}", ex.getMessage());
+        return buildErrorResponse(ex, "Forbidden", HttpStatus.FORBIDDEN, request);
+    }
+
+    /**
+     * Handles imports refused because the instance is at its concurrent import limit (HTTP 503).
+     */
+    @ExceptionHandler(ImportCapacityException.class)
+    public ResponseEntity<Object> handleImportCapacity(ImportCapacityException ex, WebRequest request) {
+        log.warn("Import refused: {}", ex.getMessage());
+        return buildErrorResponse(ex, "Service Unavailable", HttpStatus.SERVICE_UNAVAILABLE, request);
+    }
+
+    /**
+     * Handles batch requests naming more IDs than allowed (HTTP 400).
+     */
+    @ExceptionHandler(BatchTooLargeException.class)
+    public ResponseEntity<Object> handleBatchTooLarge(BatchTooLargeException ex, WebRequest request) {
+        log.warn("Bad request: {}", ex.getMessage());
+        return buildErrorResponse(ex, "Bad Request", HttpStatus.BAD_REQUEST, request);
+    }
+
+    /**
+     * Handles browse requests that arrive before the facet index has loaded (HTTP 503).
+     */
+    @ExceptionHandler(FacetIndexUnavailableException.class)
+    public ResponseEntity<Object> handleFacetIndexUnavailable(FacetIndexUnavailableException ex, WebRequest request) {
+        log.warn("Browse refused: {}", ex.getMessage());
+        return buildErrorResponse(ex, "Service Unavailable", HttpStatus.SERVICE_UNAVAILABLE, request);
+    }
+
+    /**
+     * Handles thumbnail requests for a product without an image, or whose image is gone (HTTP 404).
+     */
+    @ExceptionHandler(ImageNotFoundException.class)
+    public ResponseEntity<Object> handleImageNotFound(ImageNotFoundException ex, WebRequest request) {
+        log.debug("Thumbnail not available: {}", ex.getMessage());
+        return buildErrorResponse(ex, "Not Found", HttpStatus.NOT_FOUND, request);
+    }
+
+    /**
+     * Handles product images that could not be fetched or decoded (HTTP 502).
+     */
+    @ExceptionHandler(ImageOriginException.class)
+    public ResponseEntity<Object> handleImageOrigin(ImageOriginException ex, WebRequest request) {
+        log.warn("Thumbnail failed: {}", ex.getMessage());
+        return buildErrorResponse(ex, "Bad Gateway", HttpStatus.BAD_GATEWAY, request);
+    }
+
+    /**
+     * Handles query parameters or path variables of the wrong type, e.g. a non-numeric price (HTTP 400).
+     */
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<Object> handleTypeMismatch(MethodArgumentTypeMismatchException ex, WebRequest request) {
+        log.warn("Bad request: invalid value for '{}'", ex.getName());
+        Map<String, Object> body = createBaseErrorBody(HttpStatus.BAD_REQUEST, "Bad Request", request);
+        body.put("message", "Invalid value for '" + ex.getName() + "'");
+        return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+    }
+
     /**
      * Handles validation errors from @Valid (HTTP 400) - if you add validation to DTOs later.
      */
@@ -0,0 +1,21 @@
+package com.golocal.productservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a product image cannot be turned into a thumbnail: the origin failed,
+ * refused the request, sent something that is not a supported image, or the image is
+ * too large. Maps to HTTP 502 Bad Gateway (the fault is upstream, not in the request).
+ */
+@ResponseStatus(HttpStatus.BAD_GATEWAY)
+public class ImageOriginException extends RuntimeException {
+
+    public ImageOriginException(String message) {
+        super(message);
+    }
+
+    public ImageOriginException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
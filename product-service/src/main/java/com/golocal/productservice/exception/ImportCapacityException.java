@@ -0,0 +1,16 @@
+package com.golocal.productservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when product.import.max-concurrent imports are already running on this instance.
+ * Maps to HTTP 503 Service Unavailable (the client retries later).
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ImportCapacityException extends RuntimeException {
+
+    public ImportCapacityException() {
+        super("Too many product imports in progress, retry later");
+    }
+}
@@ -0,0 +1,16 @@
+package com.golocal.productservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a supplier-only endpoint is called without the supplier role.
+ * Maps to HTTP 403 Forbidden.
+ */
+@ResponseStatus(HttpStatus.FORBIDDEN)
+public class SupplierRequiredException extends RuntimeException {
+
+    public SupplierRequiredException() {
+        super("Supplier account required");
+    }
+}
@@ -0,0 +1,62 @@
+package com.golocal.productservice.grpc;
+
+import io.grpc.BindableService;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import io.micrometer.core.instrument.binder.grpc.ObservationGrpcServerInterceptor;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The gRPC server (Netty, HTTP/2, plaintext on the internal network) on its own port, next
+ * to the servlet container. Each client connection multiplexes up to
+ * max-concurrent-calls-per-connection calls; HTTP/2 flow control windows are sized by
+ * gRPC's BDP auto-tuning. Calls are traced and timed like HTTP requests (grpc.server).
+ */
+@Slf4j
+public class GrpcServer {
+
+    private final Server server;
+    private final ThreadPoolTaskExecutor executor;
+    private final Duration shutdownGrace;
+
+    public GrpcServer(BindableService service, ObservationRegistry observationRegistry, int port, int threads,
+                      int maxConcurrentCallsPerConnection, Duration shutdownGrace) {
+        // Runs the calls (blocking database reads), instead of gRPC's unbounded cached pool
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(Math.max(1, threads));
+        this.executor.setMaxPoolSize(Math.max(1, threads));
+        this.executor.setThreadNamePrefix("grpc-");
+        this.executor.initialize();
+        this.server = NettyServerBuilder.forPort(port)
+                .executor(executor)
+                .addService(ServerInterceptors.intercept(service, new ObservationGrpcServerInterceptor(observationRegistry)))
+                .maxConcurrentCallsPerConnection(maxConcurrentCallsPerConnection) // HTTP/2 SETTINGS_MAX_CONCURRENT_STREAMS
+                .build();
+        this.shutdownGrace = shutdownGrace;
+    }
+
+    public void start() throws IOException {
+        server.start();
+        log.info("gRPC server started on port {}", server.getPort());
+    }
+
+    public void stop() {
+        server.shutdown(); // No new calls; running ones may finish within the grace period
+        try {
+            if (!server.awaitTermination(shutdownGrace.toMillis(), TimeUnit.MILLISECONDS)) {
+                server.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            server.shutdownNow();
+        }
+        executor.shutdown();
+    }
+}
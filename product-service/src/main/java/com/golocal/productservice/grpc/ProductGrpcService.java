@@ -0,0 +1,225 @@
+package com.golocal.productservice.grpc;
+
+import com.golocal.productservice.dto.ProductBatchDto;
+import com.golocal.productservice.dto.ProductDto;
+import com.golocal.productservice.exception.BatchTooLargeException;
+import com.golocal.productservice.exception.ProductNotFoundException;
+import com.golocal.productservice.grpc.v1.GetProductRequest;
+import com.golocal.productservice.grpc.v1.GetProductsRequest;
+import com.golocal.productservice.grpc.v1.GetProductsResponse;
+import com.golocal.productservice.grpc.v1.ListProductsRequest;
+import com.golocal.productservice.grpc.v1.ListProductsResponse;
+import com.golocal.productservice.grpc.v1.Product;
+import com.golocal.productservice.grpc.v1.ProductLookupGrpc;
+import com.golocal.productservice.service.ProductService;
+import io.grpc.Context;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.context.ContextSnapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The ProductLookup gRPC service (src/main/proto/product_lookup.proto): the same lookups as
+ * the REST endpoints, through ProductService.
+ * ListProducts streams from the database cursor on its own thread (at most max-list-streams
+ * at a time, each holds a database connection), in pages of list-page-size products, and
+ * follows HTTP/2 flow control: while the client's window is full the next page is not read,
+ * so a slow client costs neither memory nor more than one fetch of rows. A client that reads
+ * nothing for stall-timeout is dropped.
+ */
+@Slf4j
+public class ProductGrpcService extends ProductLookupGrpc.ProductLookupImplBase {
+
+    private final ProductService productService;
+    private final Semaphore listPermits; // Like ProductImportService: streams beyond the limit are refused
+    private final ThreadPoolTaskExecutor listExecutor;
+    private final int listPageSize;
+    private final long stallTimeoutNanos;
+
+    public ProductGrpcService(ProductService productService, int maxListStreams, int listPageSize, Duration stallTimeout) {
+        this.productService = productService;
+        this.listPageSize = Math.max(1, listPageSize);
+        this.stallTimeoutNanos = stallTimeout.toNanos();
+        this.listPermits = new Semaphore(Math.max(1, maxListStreams));
+        this.listExecutor = new ThreadPoolTaskExecutor();
+        this.listExecutor.setCorePoolSize(Math.max(1, maxListStreams));
+        this.listExecutor.setMaxPoolSize(Math.max(1, maxListStreams));
+        // Holds at most a stream whose permit was just released but whose thread is still finishing
+        this.listExecutor.setQueueCapacity(Math.max(1, maxListStreams));
+        this.listExecutor.setThreadNamePrefix("grpc-list-");
+        this.listExecutor.setTaskDecorator(task -> ContextSnapshot.captureAll().wrap(task)); // Keeps the call's trace
+        this.listExecutor.initialize();
+    }
+
+    public void shutdown() {
+        listExecutor.shutdown();
+    }
+
+    @Override
+    public void getProduct(GetProductRequest request, StreamObserver<Product> responseObserver) {
+        try {
+            responseObserver.onNext(toProto(productService.getProductById(request.getId())));
+            responseObserver.onCompleted();
+        } catch (ProductNotFoundException e) {
+            responseObserver.onError(Status.NOT_FOUND.withDescription(e.getMessage()).asRuntimeException());
+        } catch (RuntimeException e) {
+            fail(responseObserver, "GetProduct", e);
+        }
+    }
+
+    @Override
+    public void getProducts(GetProductsRequest request, StreamObserver<GetProductsResponse> responseObserver) {
+        try {
+            ProductBatchDto batch = productService.getProductsByIds(request.getIdsList());
+            GetProductsResponse.Builder response = GetProductsResponse.newBuilder().addAllMissing(batch.getMissing());
+            for (ProductDto product : batch.getProducts()) {
+                response.addProducts(toProto(product));
+            }
+            responseObserver.onNext(response.build());
+            responseObserver.onCompleted();
+        } catch (BatchTooLargeException e) {
+            responseObserver.onError(Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException());
+        } catch (RuntimeException e) {
+            fail(responseObserver, "GetProducts", e);
+        }
+    }
+
+    @Override
+    public void listProducts(ListProductsRequest request, StreamObserver<ListProductsResponse> responseObserver) {
+        ServerCallStreamObserver<ListProductsResponse> call = (ServerCallStreamObserver<ListProductsResponse>) responseObserver;
+        // Not on this thread: it runs the call's callbacks, so onReady could not be delivered while it waits
+        if (!listPermits.tryAcquire()) {
+            call.onError(Status.RESOURCE_EXHAUSTED.withDescription("Too many concurrent ListProducts streams").asRuntimeException());
+            return;
+        }
+        FlowControl flowControl = new FlowControl(call, Context.current(), stallTimeoutNanos);
+        call.setOnReadyHandler(flowControl::signal);
+        call.setOnCancelHandler(flowControl::signal);
+        try {
+            listExecutor.execute(Context.current().wrap(() -> streamProducts(request.getSearch(), call, flowControl)));
+        } catch (RuntimeException e) {
+            listPermits.release();
+            fail(call, "ListProducts", e); // Shutting down
+        }
+    }
+
+    private void streamProducts(String search, ServerCallStreamObserver<ListProductsResponse> call, FlowControl flowControl) {
+        Runnable end = () -> { };
+        try {
+            ListProductsResponse.Builder page = ListProductsResponse.newBuilder();
+            productService.forEachProduct(search, product -> {
+                page.addProducts(toProto(product));
+                if (page.getProductsCount() == listPageSize) {
+                    flowControl.awaitReady();
+                    call.onNext(page.build());
+                    page.clear();
+                }
+            });
+            if (page.getProductsCount() > 0) {
+                flowControl.awaitReady();
+                call.onNext(page.build());
+            }
+            end = call::onCompleted;
+        } catch (StreamCancelledException e) {
+            log.debug("ListProducts cancelled by the client");
+        } catch (StatusRuntimeException e) {
+            end = () -> call.onError(e);
+        } catch (RuntimeException e) {
+            end = () -> fail(call, "ListProducts", e);
+        } finally {
+            // Before the client learns the stream has ended, so it can start its next one right away
+            listPermits.release();
+        }
+        end.run();
+    }
+
+    private static void fail(StreamObserver<?> responseObserver, String method, RuntimeException e) {
+        log.error("gRPC {} failed: {}", method, e.getMessage(), e);
+        responseObserver.onError(Status.INTERNAL.withDescription("An unexpected error occurred").asRuntimeException());
+    }
+
+    // ProductDto -> Product; nulls stay unset (the proto's 'optional' fields)
+    static Product toProto(ProductDto dto) {
+        Product.Builder product = Product.newBuilder().setId(dto.getId());
+        if (dto.getName() != null) {
+            product.setName(dto.getName());
+        }
+        if (dto.getPrice() != null) {
+            product.setPrice(dto.getPrice());
+        }
+        if (dto.getImage() != null) {
+            product.setImage(dto.getImage());
+        }
+        if (dto.getSupplierName() != null) {
+            product.setSupplierName(dto.getSupplierName());
+        }
+        if (dto.getCategory() != null) {
+            product.setCategory(dto.getCategory());
+        }
+        if (dto.getPriceAmount() != null) {
+            product.setPriceAmount(dto.getPriceAmount().toPlainString());
+        }
+        if (dto.getPriceCurrency() != null) {
+            product.setPriceCurrency(dto.getPriceCurrency());
+        }
+        if (dto.getThumbnail() != null) {
+            product.setThumbnail(dto.getThumbnail());
+        }
+        return product.build();
+    }
+
+    /**
+     * Makes the streaming thread wait while the call is not ready for more messages (the
+     * client's HTTP/2 flow-control window is full), woken by the call's onReady/onCancel.
+     */
+    private static final class FlowControl {
+
+        private final ServerCallStreamObserver<?> call;
+        private final Context context; // Cancelled as soon as the client goes away
+        private final long stallTimeoutNanos;
+
+        FlowControl(ServerCallStreamObserver<?> call, Context context, long stallTimeoutNanos) {
+            this.call = call;
+            this.context = context;
+            this.stallTimeoutNanos = stallTimeoutNanos;
+        }
+
+        synchronized void signal() {
+            notifyAll();
+        }
+
+        synchronized void awaitReady() {
+            long deadline = System.nanoTime() + stallTimeoutNanos;
+            while (!call.isReady()) {
+                if (context.isCancelled()) {
+                    throw new StreamCancelledException();
+                }
+                long left = deadline - System.nanoTime();
+                if (left <= 0) {
+                    throw Status.DEADLINE_EXCEEDED.withDescription("Client stopped reading the stream").asRuntimeException();
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(this, left);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt(); // Shutting down
+                    throw Status.UNAVAILABLE.withDescription("Server shutting down").asRuntimeException();
+                }
+            }
+        }
+    }
+
+    // Ends the database read once the client has cancelled; nothing is sent back
+    private static final class StreamCancelledException extends RuntimeException {
+
+        StreamCancelledException() {
+            super(null, null, false, false); // No stack trace, this is not an error
+        }
+    }
+}
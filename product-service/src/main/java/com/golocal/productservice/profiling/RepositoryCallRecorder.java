@@ -0,0 +1,73 @@
+package com.golocal.productservice.profiling;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Records every call of a @Repository bean's methods as a golocal.RepositoryCall JFR event.
+ * Works like Spring's PersistenceExceptionTranslationPostProcessor: the advice is added to the
+ * bean's existing proxy (Spring Data repositories, or @Repository classes already proxied for
+ * exception translation), otherwise the bean is proxied. Without a recording that enables the
+ * event, committing it is a no-op.
+ */
+public class RepositoryCallRecorder implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        String repository = repositoryName(bean);
+        if (repository == null) {
+            return bean;
+        }
+        MethodInterceptor interceptor = new Interceptor(repository);
+        if (bean instanceof Advised advised && !advised.isFrozen()) {
+            advised.addAdvice(0, interceptor);
+            return bean;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(interceptor);
+        return proxyFactory.getProxy(ClassUtils.getDefaultClassLoader());
+    }
+
+    /**
+     * @return The repository's simple name (the interface for a Spring Data repository, whose
+     * target is Spring's SimpleJpaRepository), or null if the bean is not a repository.
+     */
+    private static String repositoryName(Object bean) {
+        Class<?> target = AopUtils.getTargetClass(bean);
+        if (target.isAnnotationPresent(Repository.class) && !target.getName().startsWith("org.springframework.")) {
+            return target.getSimpleName();
+        }
+        for (Class<?> type : ClassUtils.getAllInterfacesForClass(bean.getClass())) {
+            if (type.isAnnotationPresent(Repository.class)) {
+                return type.getSimpleName();
+            }
+        }
+        return null;
+    }
+
+    private record Interceptor(String repository) implements MethodInterceptor {
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            RepositoryCallEvent event = new RepositoryCallEvent();
+            event.begin();
+            event.outcome = "error";
+            try {
+                Object result = invocation.proceed();
+                event.outcome = "success";
+                return result;
+            } finally {
+                event.repository = repository;
+                event.method = invocation.getMethod().getName();
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.golocal.productservice.repository;
+
+import com.golocal.productservice.entity.ProductPrice;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads the columns ProductFacetIndex is built from (id, category, normalized price), and
+ * fills the normalized price of products stored before it existed. Plain JDBC: up to
+ * millions of rows are streamed, never loaded as entities.
+ */
+@Repository
+public class ProductFacetRepository {
+
+    private static final String SELECT_FACETS = "SELECT id, category, price_amount, price_currency FROM product";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate; // Cursor-based reads (PostgreSQL needs a transaction for that)
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ProductFacetRepository(DataSource dataSource, JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(10_000);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Streams every product's facet columns in id order.
+     */
+    public void forEachProduct(Consumer<FacetRow> action) {
+        readOnlyTransaction.executeWithoutResult(status ->
+                streamingJdbcTemplate.query(SELECT_FACETS + " ORDER BY id", (ResultSet rs) -> {
+                    action.accept(toRow(rs));
+                }));
+    }
+
+    /**
+     * Streams the facet columns of products updated at or after the given time, in id order.
+     */
+    public void forEachProductUpdatedSince(Instant since, Consumer<FacetRow> action) {
+        readOnlyTransaction.executeWithoutResult(status ->
+                streamingJdbcTemplate.query(SELECT_FACETS + " WHERE updated_at >= ? ORDER BY id",
+                        (ResultSet rs) -> {
+                            action.accept(toRow(rs));
+                        }, Timestamp.from(since)));
+    }
+
+    /**
+     * @return The database's current time (the clock updated_at is compared against).
+     */
+    public Instant currentTime() {
+        return jdbcTemplate.queryForObject("SELECT now()", Timestamp.class).toInstant();
+    }
+
+    /**
+     * Sets price_amount/price_currency for products that have a price description but no
+     * normalized price yet (stored before the columns existed), in batches of the given size.
+     * Does not touch updated_at: nothing a client sees has changed.
+     *
+     * @return The number of products updated.
+     */
+    public long backfillNormalizedPrices(int batchSize) {
+        long updated = 0;
+        long afterId = 0;
+        while (true) {
+            List<Long> ids = new ArrayList<>(batchSize);
+            List<BigDecimal> amounts = new ArrayList<>(batchSize);
+            List<String> currencies = new ArrayList<>(batchSize);
+            long[] lastId = {afterId};
+            jdbcTemplate.query("SELECT id, price FROM product WHERE price IS NOT NULL AND price_currency IS NULL "
+                            + "AND id > ? ORDER BY id LIMIT ?",
+                    (ResultSet rs) -> {
+                        lastId[0] = rs.getLong(1);
+                        ProductPrice price = ProductPrice.parse(rs.getString(2));
+                        if (price != null) {
+                            ids.add(rs.getLong(1));
+                            amounts.add(price.amount());
+                            currencies.add(price.currency());
+                        }
+                    }, afterId, batchSize);
+            if (lastId[0] == afterId) {
+                return updated; // No more rows
+            }
+            afterId = lastId[0];
+            if (!ids.isEmpty()) {
+                // One statement per batch: the arrays are joined back to the rows by id
+                updated += jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+                    try (PreparedStatement update = connection.prepareStatement("UPDATE product p "
+                            + "SET price_amount = v.amount, price_currency = v.currency "
+                            + "FROM unnest(?::bigint[], ?::numeric[], ?::text[]) AS v(id, amount, currency) "
+                            + "WHERE p.id = v.id")) {
+                        update.setArray(1, connection.createArrayOf("bigint", ids.toArray()));
+                        update.setArray(2, connection.createArrayOf("numeric", amounts.toArray()));
+                        update.setArray(3, connection.createArrayOf("text", currencies.toArray()));
+                        return update.executeUpdate();
+                    }
+                });
+            }
+        }
+    }
+
+    private static FacetRow toRow(ResultSet rs) throws SQLException {
+        return new FacetRow(rs.getLong(1), rs.getString(2), rs.getBigDecimal(3), rs.getString(4));
+    }
+
+    /**
+     * The facet columns of one product.
+     */
+    public record FacetRow(long id, String category, BigDecimal priceAmount, String priceCurrency) {
+    }
+}
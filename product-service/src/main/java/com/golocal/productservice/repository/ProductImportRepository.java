@@ -0,0 +1,167 @@
+package com.golocal.productservice.repository;
+
+import com.golocal.productservice.dto.ProductImportRow;
+import com.golocal.productservice.entity.Product;
+import com.golocal.productservice.entity.ProductPrice;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Bulk upserts of products for the supplier import (PostgreSQL only). Bypasses JPA: with
+ * IDENTITY ids Hibernate inserts row by row, and it cannot express "insert or update".
+ *
+ * A batch is streamed with COPY into a session-local staging table, then merged into
+ * 'product' with one INSERT ... SELECT ... ON CONFLICT (name) statement (uk_product_name).
+ * Product names are unique across suppliers, so the merge only ever updates a product of
+ * the importing supplier; rows whose name belongs to another supplier are reported back.
+ * Products whose fields did not change are left alone (no new row version, no index churn).
+ * Updated products are evicted from Hibernate's second-level cache once the batch is committed.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductImportRepository {
+
+    // Temporary: private to the connection, never WAL-logged; emptied by every commit or rollback.
+    // Created once per pooled connection and reused by later imports on it.
+    private static final String CREATE_STAGING = "CREATE TEMP TABLE IF NOT EXISTS product_import ("
+            + "name TEXT NOT NULL, price TEXT, price_amount NUMERIC(12,2), price_currency TEXT, "
+            + "image TEXT, description TEXT, category TEXT"
+            + ") ON COMMIT DELETE ROWS";
+    private static final String COPY_STAGING =
+            "COPY product_import (name, price, price_amount, price_currency, image, description, category) "
+            + "FROM STDIN WITH (FORMAT csv)";
+    // Counts and the updated IDs come from RETURNING: xmax = 0 only for freshly inserted row versions
+    private static final String MERGE = "WITH merged AS ("
+            + "INSERT INTO product AS p (name, price, price_amount, price_currency, image, supplier_name, description, "
+            + "category, created_at, updated_at) "
+            + "SELECT s.name, s.price, s.price_amount, s.price_currency, s.image, ?, s.description, s.category, now(), now() "
+            + "FROM product_import s "
+            + "ON CONFLICT (name) DO UPDATE SET price = EXCLUDED.price, price_amount = EXCLUDED.price_amount, "
+            + "price_currency = EXCLUDED.price_currency, image = EXCLUDED.image, "
+            + "description = EXCLUDED.description, category = EXCLUDED.category, updated_at = EXCLUDED.updated_at "
+            + "WHERE p.supplier_name = EXCLUDED.supplier_name "
+            + "AND (p.price, p.price_currency, p.image, p.description, p.category) IS DISTINCT FROM "
+            + "(EXCLUDED.price, EXCLUDED.price_currency, EXCLUDED.image, EXCLUDED.description, EXCLUDED.category) "
+            + "RETURNING p.id, p.xmax = 0 AS inserted) "
+            + "SELECT count(*) FILTER (WHERE inserted), array_agg(id) FILTER (WHERE NOT inserted) FROM merged";
+    private static final String FOREIGN_NAMES = "SELECT s.name FROM product_import s "
+            + "JOIN product p ON p.name = s.name WHERE p.supplier_name <> ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory; // For its second-level cache
+
+    /**
+     * Inserts or updates a batch of a supplier's products in one transaction.
+     *
+     * @param supplierName The importing supplier.
+     * @param rows         Validated rows with distinct names.
+     * @return What happened to the rows; rows neither inserted, updated nor foreign were unchanged.
+     */
+    public UpsertResult upsert(String supplierName, Collection<ProductImportRow> rows) {
+        UpsertResult upsert = jdbcTemplate.execute((ConnectionCallback<UpsertResult>) connection -> {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_STAGING);
+                connection.unwrap(PGConnection.class).getCopyAPI()
+                        .copyIn(COPY_STAGING, new StringReader(toCsv(rows)));
+                UpsertResult result;
+                try (PreparedStatement merge = connection.prepareStatement(MERGE)) {
+                    merge.setString(1, supplierName);
+                    try (ResultSet rs = merge.executeQuery()) {
+                        rs.next();
+                        Array updated = rs.getArray(2); // NULL if nothing was updated
+                        result = new UpsertResult(rs.getLong(1), updated == null ? new Long[0] : (Long[]) updated.getArray(),
+                                new HashSet<>());
+                    }
+                }
+                if (result.inserted() + result.updated() < rows.size()) { // Some were skipped: unchanged or foreign
+                    try (PreparedStatement foreign = connection.prepareStatement(FOREIGN_NAMES)) {
+                        foreign.setString(1, supplierName);
+                        try (ResultSet rs = foreign.executeQuery()) {
+                            while (rs.next()) {
+                                result.foreignNames().add(rs.getString(1));
+                            }
+                        }
+                    }
+                }
+                connection.commit(); // Also empties the staging table
+                return result;
+            } catch (SQLException | IOException | RuntimeException e) {
+                connection.rollback();
+                throw e instanceof SQLException sqlException ? sqlException : new SQLException(e.getMessage(), e);
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        });
+        // After the commit, so a reader cannot put the old row back from before it. A load that
+        // read the old row just before the commit can still put it after this; the region's
+        // time to live bounds that
+        for (Long id : upsert.updatedIds()) {
+            entityManagerFactory.getCache().evict(Product.class, id);
+        }
+        return upsert;
+    }
+
+    // COPY's CSV format: every value quoted (so empty strings survive), unquoted empty = NULL
+    private static String toCsv(Collection<ProductImportRow> rows) {
+        StringBuilder csv = new StringBuilder(rows.size() * 160);
+        for (ProductImportRow row : rows) {
+            appendValue(csv, row.getName()).append(',');
+            appendValue(csv, row.getPrice()).append(',');
+            ProductPrice price = ProductPrice.parse(row.getPrice()); // Same normalization as JPA writes
+            if (price != null) {
+                csv.append(price.amount().toPlainString()).append(',').append(price.currency());
+            } else {
+                csv.append(',');
+            }
+            csv.append(',');
+            appendValue(csv, row.getImage()).append(',');
+            appendValue(csv, row.getDescription()).append(',');
+            appendValue(csv, row.getCategory()).append('\n');
+        }
+        return csv.toString();
+    }
+
+    private static StringBuilder appendValue(StringBuilder csv, String value) {
+        if (value == null) {
+            return csv;
+        }
+        csv.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                csv.append('"'); // Doubled
+            }
+            csv.append(c);
+        }
+        return csv.append('"');
+    }
+
+    /**
+     * @param inserted     New products.
+     * @param updatedIds   Existing products of the supplier that changed.
+     * @param foreignNames Names that belong to another supplier's product (not imported).
+     */
+    public record UpsertResult(long inserted, Long[] updatedIds, Set<String> foreignNames) {
+
+        public long updated() {
+            return updatedIds.length;
+        }
+    }
+}
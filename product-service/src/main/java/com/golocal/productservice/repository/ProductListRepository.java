@@ -0,0 +1,59 @@
+package com.golocal.productservice.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * Reads the product list (GET /api/products) for ProductListWriter, which turns each row
+ * straight into JSON. Plain JDBC like ProductFacetRepository: the rows are streamed through
+ * a cursor, never loaded as entities, so a response costs the same memory for ten products
+ * or a million.
+ */
+@Repository
+public class ProductListRepository {
+
+    // The ProductDto columns, in ProductListWriter's order
+    private static final String SELECT_LIST =
+            "SELECT id, name, price, image, supplier_name, category, price_amount, price_currency FROM product";
+    // Same predicate as ProductRepository's derived name/supplier search, so the trigram indexes
+    // on upper(name) and upper(supplier_name) apply (V4 migration)
+    private static final String WHERE_SEARCH =
+            " WHERE upper(name) LIKE upper(?) ESCAPE '\\' OR upper(supplier_name) LIKE upper(?) ESCAPE '\\'";
+
+    private final JdbcTemplate streamingJdbcTemplate; // Cursor-based reads (PostgreSQL needs a transaction for that)
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ProductListRepository(DataSource dataSource, PlatformTransactionManager transactionManager) {
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(1_000); // Rows held per round trip
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Streams every product's list columns, in no particular order (like findAll).
+     */
+    public void forEachProduct(RowCallbackHandler action) {
+        readOnlyTransaction.executeWithoutResult(status ->
+                streamingJdbcTemplate.query(SELECT_LIST, action));
+    }
+
+    /**
+     * Streams the list columns of the products whose name or supplier name contains the term
+     * (case-insensitive; '%' and '_' in the term match themselves).
+     */
+    public void forEachProductMatching(String searchTerm, RowCallbackHandler action) {
+        String pattern = "%" + escapeLike(searchTerm) + "%";
+        readOnlyTransaction.executeWithoutResult(status ->
+                streamingJdbcTemplate.query(SELECT_LIST + WHERE_SEARCH, action, pattern, pattern));
+    }
+
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -2,6 +2,8 @@ package com.golocal.productservice.repository;
 
 import com.golocal.productservice.entity.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,7 +16,8 @@ public interface ProductRepository extends JpaRepository<Product, Long> { // Ent
 
     /**
      * Finds products whose name OR supplier name contains the given search term (case-insensitive).
-     * Used for implementing the product search functionality.
+     * GET /api/products?search= runs the same predicate through ProductListRepository instead,
+     * streaming rows rather than loading entities.
      *
      * @param nameSearchTerm The term to search for in the product name.
      * @param supplierSearchTerm The term to search for in the supplier name.
@@ -31,6 +34,17 @@ public interface ProductRepository extends JpaRepository<Product, Long> { // Ent
      */
     List<Product> findByNameContainingIgnoreCase(String nameSearchTerm);
 
+    /**
+     * Finds the products with the given IDs in one query. Unlike findAllById (IN with one
+     * bind parameter per ID), the SQL is the same for any number of IDs, so PostgreSQL and the
+     * driver reuse one prepared statement. Rows come back in no particular order.
+     *
+     * @param ids The product IDs.
+     * @return The products that exist.
+     */
+    @Query(value = "SELECT * FROM product WHERE id = ANY(:ids)", nativeQuery = true)
+    List<Product> findAllByIdArray(@Param("ids") Long[] ids);
+
     // Add more specific query methods if needed, e.g.:
     // List<Product> findByCategoryIgnoreCase(String category);
     // List<Product> findBySupplierNameIgnoreCase(String supplierName);
@@ -0,0 +1,98 @@
+package com.golocal.productservice.repository;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Reads the columns ProductSuggestIndex is built from (name, supplier, popularity) and
+ * adds up product views. Plain JDBC, streamed like ProductFacetRepository.
+ */
+@Repository
+public class ProductSuggestRepository {
+
+    private static final String SELECT_NAMES = "SELECT id, name, supplier_name, view_count FROM product";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate; // Cursor-based reads (PostgreSQL needs a transaction for that)
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ProductSuggestRepository(DataSource dataSource, JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(10_000);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Streams every product's name, supplier and view count.
+     */
+    public void forEachProduct(Consumer<NameRow> action) {
+        readOnlyTransaction.executeWithoutResult(status ->
+                streamingJdbcTemplate.query(SELECT_NAMES, (ResultSet rs) -> {
+                    action.accept(toRow(rs));
+                }));
+    }
+
+    /**
+     * Streams the products updated at or after the given time.
+     */
+    public void forEachProductUpdatedSince(Instant since, Consumer<NameRow> action) {
+        readOnlyTransaction.executeWithoutResult(status ->
+                streamingJdbcTemplate.query(SELECT_NAMES + " WHERE updated_at >= ?",
+                        (ResultSet rs) -> {
+                            action.accept(toRow(rs));
+                        }, Timestamp.from(since)));
+    }
+
+    /**
+     * @return The database's current time (the clock updated_at is compared against).
+     */
+    public Instant currentTime() {
+        return jdbcTemplate.queryForObject("SELECT now()", Timestamp.class).toInstant();
+    }
+
+    /**
+     * Adds views to products' view_count in one statement. Leaves updated_at alone: views
+     * are not a change to the product.
+     *
+     * @param views Product id -> views to add.
+     */
+    public void addViews(Map<Long, Long> views) {
+        if (views.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            try (PreparedStatement update = connection.prepareStatement("UPDATE product p "
+                    + "SET view_count = p.view_count + v.views "
+                    + "FROM unnest(?::bigint[], ?::bigint[]) AS v(id, views) "
+                    + "WHERE p.id = v.id")) {
+                update.setArray(1, connection.createArrayOf("bigint", views.keySet().toArray()));
+                update.setArray(2, connection.createArrayOf("bigint", views.values().toArray()));
+                return update.executeUpdate();
+            }
+        });
+    }
+
+    private static NameRow toRow(ResultSet rs) throws SQLException {
+        return new NameRow(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getLong(4));
+    }
+
+    /**
+     * The suggestion columns of one product.
+     */
+    public record NameRow(long id, String name, String supplierName, long views) {
+    }
+}
@@ -0,0 +1,117 @@
+package com.golocal.productservice.service;
+
+import java.util.Arrays;
+
+/**
+ * A growable bitmap over ProductFacetIndex positions (one bit per product), with the
+ * operations facet counting needs. Unlike java.util.BitSet it counts intersections
+ * without allocating (andCardinality), which is what every facet count is.
+ * Not thread-safe; ProductFacetIndex guards access.
+ */
+final class FacetBitmap {
+
+    private long[] words;
+
+    FacetBitmap(int capacity) {
+        this.words = new long[Math.max(1, (capacity + 63) >>> 6)];
+    }
+
+    private FacetBitmap(long[] words) {
+        this.words = words;
+    }
+
+    void set(int position) {
+        int word = position >>> 6;
+        if (word >= words.length) {
+            words = Arrays.copyOf(words, Math.max(word + 1, words.length * 2));
+        }
+        words[word] |= 1L << position;
+    }
+
+    void clear(int position) {
+        int word = position >>> 6;
+        if (word < words.length) {
+            words[word] &= ~(1L << position);
+        }
+    }
+
+    boolean get(int position) {
+        int word = position >>> 6;
+        return word < words.length && (words[word] & (1L << position)) != 0;
+    }
+
+    int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * @return The number of positions set in both bitmaps.
+     */
+    int andCardinality(FacetBitmap other) {
+        int count = 0;
+        int length = Math.min(words.length, other.words.length);
+        for (int i = 0; i < length; i++) {
+            count += Long.bitCount(words[i] & other.words[i]);
+        }
+        return count;
+    }
+
+    /**
+     * Keeps only the positions also set in the other bitmap.
+     */
+    void and(FacetBitmap other) {
+        int length = Math.min(words.length, other.words.length);
+        for (int i = 0; i < length; i++) {
+            words[i] &= other.words[i];
+        }
+        Arrays.fill(words, length, words.length, 0L);
+    }
+
+    /**
+     * Adds the positions set in the other bitmap.
+     */
+    void or(FacetBitmap other) {
+        if (other.words.length > words.length) {
+            words = Arrays.copyOf(words, other.words.length);
+        }
+        for (int i = 0; i < other.words.length; i++) {
+            words[i] |= other.words[i];
+        }
+    }
+
+    /**
+     * @return The highest set position at or below 'from', or -1.
+     */
+    int previousSetBit(int from) {
+        if (from < 0) {
+            return -1;
+        }
+        int word = from >>> 6;
+        if (word >= words.length) {
+            word = words.length - 1;
+            from = (word << 6) + 63;
+        }
+        long bits = words[word] & (-1L >>> (63 - (from & 63)));
+        while (true) {
+            if (bits != 0) {
+                return (word << 6) + 63 - Long.numberOfLeadingZeros(bits);
+            }
+            if (--word < 0) {
+                return -1;
+            }
+            bits = words[word];
+        }
+    }
+
+    FacetBitmap copy() {
+        return new FacetBitmap(words.clone());
+    }
+
+    long sizeInBytes() {
+        return (long) words.length * Long.BYTES;
+    }
+}
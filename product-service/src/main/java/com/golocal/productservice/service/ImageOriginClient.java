@@ -0,0 +1,156 @@
+package com.golocal.productservice.service;
+
+import com.golocal.productservice.exception.ImageNotFoundException;
+import com.golocal.productservice.exception.ImageOriginException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Downloads product images from wherever suppliers host them. Image URLs are supplier
+ * input, so every request (and every redirect) is checked: http/https only, no
+ * loopback/private/link-local addresses unless 'product.media.allow-private-origins' is set
+ * (local development and tests with a stub origin), a response size limit and timeouts.
+ */
+@Component
+public class ImageOriginClient {
+
+    private static final int MAX_REDIRECTS = 3;
+
+    private final HttpClient httpClient;
+    private final Duration readTimeout;
+    private final long maxBytes;
+    private final boolean allowPrivateOrigins;
+
+    public ImageOriginClient(@Value("${product.media.origin-connect-timeout:3s}") Duration connectTimeout,
+                             @Value("${product.media.origin-read-timeout:5s}") Duration readTimeout,
+                             @Value("${product.media.origin-max-size:10MB}") DataSize maxSize,
+                             @Value("${product.media.allow-private-origins:false}") boolean allowPrivateOrigins) {
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NEVER) // Followed by hand, so each hop is checked
+                .build();
+        this.readTimeout = readTimeout;
+        this.maxBytes = maxSize.toBytes();
+        this.allowPrivateOrigins = allowPrivateOrigins;
+    }
+
+    /**
+     * @return The image's bytes.
+     * @throws ImageNotFoundException if the origin answers 404/410.
+     * @throws ImageOriginException   for any other failure.
+     */
+    public byte[] fetch(String url) {
+        URI uri = parse(url);
+        for (int hop = 0; hop <= MAX_REDIRECTS; hop++) {
+            check(uri);
+            HttpResponse<InputStream> response = send(uri);
+            int status = response.statusCode();
+            if (status >= 300 && status < 400 && response.headers().firstValue("Location").isPresent()) {
+                close(response);
+                uri = uri.resolve(response.headers().firstValue("Location").get());
+                continue;
+            }
+            if (status == 404 || status == 410) {
+                close(response);
+                throw new ImageNotFoundException("Image not found at origin: " + uri.getHost());
+            }
+            if (status != 200) {
+                close(response);
+                throw new ImageOriginException("Image origin " + uri.getHost() + " answered " + status);
+            }
+            return read(response, uri);
+        }
+        throw new ImageOriginException("Too many redirects for image at " + uri.getHost());
+    }
+
+    private static URI parse(String url) {
+        try {
+            URI uri = URI.create(url.trim());
+            if (uri.getHost() == null) {
+                throw new ImageOriginException("Image URL has no host");
+            }
+            return uri;
+        } catch (IllegalArgumentException e) {
+            throw new ImageOriginException("Invalid image URL", e);
+        }
+    }
+
+    private void check(URI uri) {
+        String scheme = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase(Locale.ROOT);
+        if (!scheme.equals("http") && !scheme.equals("https")) {
+            throw new ImageOriginException("Unsupported image URL scheme: " + scheme);
+        }
+        if (allowPrivateOrigins) {
+            return;
+        }
+        try {
+            for (InetAddress address : InetAddress.getAllByName(uri.getHost())) {
+                if (address.isLoopbackAddress() || address.isSiteLocalAddress() || address.isLinkLocalAddress()
+                        || address.isAnyLocalAddress() || address.isMulticastAddress()
+                        || (address.getAddress().length == 16 && (address.getAddress()[0] & 0xFE) == 0xFC)) { // IPv6 unique local
+                    throw new ImageOriginException("Image host is not public: " + uri.getHost());
+                }
+            }
+        } catch (UnknownHostException e) {
+            throw new ImageOriginException("Unknown image host: " + uri.getHost(), e);
+        }
+    }
+
+    private HttpResponse<InputStream> send(URI uri) {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(readTimeout)
+                .header("Accept", "image/jpeg,image/png,image/gif,image/bmp,image/*;q=0.8")
+                .GET()
+                .build();
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (IOException e) {
+            throw new ImageOriginException("Image origin " + uri.getHost() + " failed: " + e, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ImageOriginException("Interrupted while fetching image", e);
+        }
+    }
+
+    private byte[] read(HttpResponse<InputStream> response, URI uri) {
+        long declared = response.headers().firstValueAsLong("Content-Length").orElse(-1);
+        if (declared > maxBytes) {
+            close(response);
+            throw new ImageOriginException("Image at " + uri.getHost() + " is too large (" + declared + " bytes)");
+        }
+        try (InputStream body = response.body()) {
+            ByteArrayOutputStream content = new ByteArrayOutputStream(declared > 0 ? (int) declared : 64 * 1024);
+            byte[] buffer = new byte[16 * 1024];
+            for (int read; (read = body.read(buffer)) != -1; ) {
+                if (content.size() + read > maxBytes) {
+                    throw new ImageOriginException("Image at " + uri.getHost() + " is larger than " + maxBytes + " bytes");
+                }
+                content.write(buffer, 0, read);
+            }
+            return content.toByteArray();
+        } catch (IOException e) {
+            throw new ImageOriginException("Reading image from " + uri.getHost() + " failed: " + e.getMessage(), e);
+        }
+    }
+
+    private static void close(HttpResponse<InputStream> response) {
+        try {
+            response.body().close();
+        } catch (IOException ignored) {
+            // Connection is discarded either way
+        }
+    }
+}
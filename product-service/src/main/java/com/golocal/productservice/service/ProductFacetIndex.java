@@ -0,0 +1,388 @@
+package com.golocal.productservice.service;
+
+import com.golocal.productservice.repository.ProductFacetRepository;
+import com.golocal.productservice.repository.ProductFacetRepository.FacetRow;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory bitmap index over every product's category and normalized price, for
+ * GET /api/products/browse. Filtering and facet counting never touch the database:
+ * each category and each price range of each currency is a bitmap with one bit per
+ * product, so a filter is an AND/OR of bitmaps and a facet count is the population count
+ * of an intersection (a few microseconds per 100k products). Only the page of products
+ * to show is then loaded, by primary key.
+ *
+ * Products are held in id order (a position per product), which is also the result
+ * order: newest first. Per product about 20 bytes plus one bit per category and price
+ * range it falls into, i.e. roughly 25 MB for a million products.
+ *
+ * Kept current per instance: loaded on startup (after filling in the normalized price of
+ * older rows), then every 'product.facets.refresh-ms' the products with a recent updated_at
+ * are re-read (with 'product.facets.refresh-overlap-ms' of overlap, so rows committed late
+ * are not missed), and every 'product.facets.rebuild-ms' the index is rebuilt from scratch
+ * (which also drops deleted products).
+ */
+@Component
+@Slf4j
+public class ProductFacetIndex {
+
+    private static final int APPLY_CHUNK = 1000; // Changed rows applied per write-lock hold
+
+    private final ProductFacetRepository productFacetRepository;
+    private final int[] bucketEdges; // Price range boundaries in cents, ascending; n edges -> n + 1 ranges
+    private final Duration refreshOverlap;
+    private final Duration rebuildInterval;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private FacetData data; // Guarded by lock; null until loaded
+    private Instant watermark; // DB time the last refresh/rebuild started
+    private Instant lastRebuild;
+    private boolean rebuildRequested;
+
+    public ProductFacetIndex(ProductFacetRepository productFacetRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${product.facets.price-buckets:1,2,5,10,20,50}") List<BigDecimal> priceBuckets,
+                             @Value("${product.facets.refresh-overlap-ms:30000}") long refreshOverlapMs,
+                             @Value("${product.facets.rebuild-ms:3600000}") long rebuildMs) {
+        this.productFacetRepository = productFacetRepository;
+        this.bucketEdges = priceBuckets.stream().sorted().mapToInt(ProductFacetIndex::toCents).toArray();
+        this.refreshOverlap = Duration.ofMillis(refreshOverlapMs);
+        this.rebuildInterval = Duration.ofMillis(rebuildMs);
+        Gauge.builder("golocal.products.facets.products", this, ProductFacetIndex::size)
+                .description("Products in this instance's facet index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Loads the index on the first run, then applies recent changes; rebuilds when due.
+     * Runs on the scheduler thread only, so loads and refreshes never overlap.
+     */
+    @Scheduled(fixedDelayString = "${product.facets.refresh-ms:5000}")
+    public void refresh() {
+        try {
+            if (data == null) {
+                long backfilled = productFacetRepository.backfillNormalizedPrices(5000);
+                if (backfilled > 0) {
+                    log.info("Normalized the price of {} existing products", backfilled);
+                }
+                rebuild();
+            } else if (rebuildRequested || Instant.now().isAfter(lastRebuild.plus(rebuildInterval))) {
+                rebuild();
+            } else {
+                applyChanges();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Product facet index refresh failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return The price range boundaries, in cents, ascending.
+     */
+    public int[] getBucketEdges() {
+        return bucketEdges.clone();
+    }
+
+    /**
+     * Filters products and counts facets. Facet counts follow the usual convention for
+     * multi-select facets: category counts apply every filter except the category one,
+     * price range counts every filter except the price one.
+     *
+     * @param categories Products in any of these categories (empty: any category).
+     * @param currency   Currency of the price filter and the price range counts.
+     * @param minCents   Lowest price, inclusive (null: no lower bound).
+     * @param maxCents   Highest price, inclusive (null: no upper bound).
+     * @param beforeId   Only products with a smaller id (the previous page's cursor), or null.
+     * @param limit      Page size.
+     * @return The page's product ids (newest first) with totals and facet counts, or null if not loaded yet.
+     */
+    public Result query(Set<String> categories, String currency, Integer minCents, Integer maxCents, Long beforeId, int limit) {
+        lock.readLock().lock();
+        try {
+            if (data == null) {
+                return null;
+            }
+            FacetBitmap categoryFilter = categories.isEmpty() ? null : data.categoryFilter(categories);
+            FacetBitmap priceFilter = minCents == null && maxCents == null ? null
+                    : data.priceFilter(currency, minCents != null ? minCents : 0, maxCents != null ? maxCents : Integer.MAX_VALUE);
+
+            FacetBitmap matches = data.live.copy();
+            if (categoryFilter != null) {
+                matches.and(categoryFilter);
+            }
+            if (priceFilter != null) {
+                matches.and(priceFilter);
+            }
+
+            List<Long> ids = new ArrayList<>(limit);
+            int position = data.positionBefore(beforeId);
+            while (ids.size() <= limit && (position = matches.previousSetBit(position)) >= 0) {
+                ids.add(data.ids[position--]);
+            }
+            boolean hasMore = ids.size() > limit;
+            if (hasMore) {
+                ids.remove(limit);
+            }
+
+            Map<String, Integer> categoryCounts = new LinkedHashMap<>();
+            for (int i = 0; i < data.categories.size(); i++) {
+                FacetBitmap bits = data.categoryBits.get(i);
+                int count = priceFilter == null ? bits.cardinality() : bits.andCardinality(priceFilter);
+                if (count > 0) {
+                    categoryCounts.put(data.categories.get(i), count);
+                }
+            }
+            int[] priceCounts = new int[bucketEdges.length + 1];
+            FacetBitmap[] buckets = data.bucketsOf(currency);
+            for (int i = 0; buckets != null && i < buckets.length; i++) {
+                priceCounts[i] = categoryFilter == null ? buckets[i].cardinality() : buckets[i].andCardinality(categoryFilter);
+            }
+            return new Result(ids, matches.cardinality(), hasMore, categoryCounts, priceCounts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int size() {
+        lock.readLock().lock();
+        try {
+            return data == null ? 0 : data.live.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Builds a new index off-lock and swaps it in; changes after 'startedAt' are picked up by the next refresh
+    private void rebuild() {
+        long start = System.nanoTime();
+        Instant startedAt = productFacetRepository.currentTime();
+        FacetData rebuilt = new FacetData(bucketEdges);
+        productFacetRepository.forEachProduct(rebuilt::put); // In id order: every product is appended
+        lock.writeLock().lock();
+        try {
+            data = rebuilt;
+            rebuildRequested = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        watermark = startedAt;
+        lastRebuild = Instant.now();
+        log.info("Product facet index built: {} products, {} categories in {} ms", rebuilt.size,
+                rebuilt.categories.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private void applyChanges() {
+        Instant startedAt = productFacetRepository.currentTime();
+        List<FacetRow> chunk = new ArrayList<>(APPLY_CHUNK);
+        productFacetRepository.forEachProductUpdatedSince(watermark.minus(refreshOverlap), row -> {
+            chunk.add(row);
+            if (chunk.size() == APPLY_CHUNK) {
+                apply(chunk);
+                chunk.clear();
+            }
+        });
+        apply(chunk);
+        watermark = startedAt;
+    }
+
+    private void apply(List<FacetRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (FacetRow row : rows) {
+                if (!data.put(row)) {
+                    // A new product with a lower id than one already indexed (transactions committed
+                    // out of order): positions must stay in id order, so rebuild on the next run
+                    rebuildRequested = true;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static int toCents(BigDecimal amount) {
+        return amount.movePointRight(2).intValueExact();
+    }
+
+    /**
+     * Outcome of a query.
+     *
+     * @param ids            The page's product ids, newest first.
+     * @param total          Products matching all filters.
+     * @param hasMore        Whether there are more matches after this page.
+     * @param categoryCounts Products per category (price filter applied); categories without any are left out.
+     * @param priceCounts    Products per price range of the requested currency (category filter applied).
+     */
+    public record Result(List<Long> ids, long total, boolean hasMore, Map<String, Integer> categoryCounts, int[] priceCounts) {
+    }
+
+    /**
+     * The index proper: per-position columns plus the bitmaps. Mutated only under the write lock.
+     */
+    private static final class FacetData {
+
+        private final int[] bucketEdges;
+        private long[] ids = new long[1024]; // Position -> product id, ascending
+        private int[] categoryOf = new int[1024]; // Position -> category number, -1 if none
+        private int[] currencyOf = new int[1024]; // Position -> currency number, -1 if no normalized price
+        private int[] cents = new int[1024];
+        private int size;
+        private final FacetBitmap live = new FacetBitmap(1024);
+        private final List<String> categories = new ArrayList<>();
+        private final Map<String, Integer> categoryNumbers = new HashMap<>();
+        private final List<FacetBitmap> categoryBits = new ArrayList<>();
+        private final Map<String, Integer> currencyNumbers = new HashMap<>();
+        private final List<FacetBitmap[]> bucketBits = new ArrayList<>(); // Per currency, per price range
+
+        FacetData(int[] bucketEdges) {
+            this.bucketEdges = bucketEdges;
+        }
+
+        /**
+         * Adds or updates a product.
+         *
+         * @return false if it is a new product whose id is lower than the highest indexed one.
+         */
+        boolean put(FacetRow row) {
+            int position = Arrays.binarySearch(ids, 0, size, row.id());
+            if (position >= 0) {
+                remove(position);
+            } else if (-position - 1 == size) {
+                position = append(row.id());
+            } else {
+                return false;
+            }
+            live.set(position);
+            categoryOf[position] = -1;
+            if (row.category() != null) {
+                int category = categoryNumbers.computeIfAbsent(row.category(), name -> {
+                    categories.add(name);
+                    categoryBits.add(new FacetBitmap(ids.length));
+                    return categories.size() - 1;
+                });
+                categoryOf[position] = category;
+                categoryBits.get(category).set(position);
+            }
+            currencyOf[position] = -1;
+            if (row.priceCurrency() != null && row.priceAmount() != null
+                    && row.priceAmount().compareTo(BigDecimal.valueOf(Integer.MAX_VALUE, 2)) <= 0) {
+                int currency = currencyNumbers.computeIfAbsent(row.priceCurrency(), code -> {
+                    FacetBitmap[] buckets = new FacetBitmap[bucketEdges.length + 1];
+                    for (int i = 0; i < buckets.length; i++) {
+                        buckets[i] = new FacetBitmap(ids.length);
+                    }
+                    bucketBits.add(buckets);
+                    return bucketBits.size() - 1;
+                });
+                currencyOf[position] = currency;
+                cents[position] = toCents(row.priceAmount());
+                bucketBits.get(currency)[bucketOf(cents[position])].set(position);
+            }
+            return true;
+        }
+
+        FacetBitmap categoryFilter(Set<String> names) {
+            FacetBitmap filter = new FacetBitmap(size);
+            for (String name : names) {
+                Integer category = categoryNumbers.get(name);
+                if (category != null) {
+                    filter.or(categoryBits.get(category));
+                }
+            }
+            return filter;
+        }
+
+        // Whole price ranges inside [min, max] are OR-ed in; only the products of the ranges
+        // cut by a bound are checked one by one
+        FacetBitmap priceFilter(String currency, int min, int max) {
+            FacetBitmap filter = new FacetBitmap(size);
+            FacetBitmap[] buckets = bucketsOf(currency);
+            if (buckets == null) {
+                return filter;
+            }
+            int currencyNumber = currencyNumbers.get(currency);
+            for (int i = 0; i < buckets.length; i++) {
+                long low = i == 0 ? 0 : bucketEdges[i - 1]; // Inclusive
+                long high = i == bucketEdges.length ? Long.MAX_VALUE : bucketEdges[i] - 1L; // Inclusive
+                if (high < min || low > max) {
+                    continue;
+                }
+                if (low >= min && high <= max) {
+                    filter.or(buckets[i]);
+                    continue;
+                }
+                for (int p = buckets[i].previousSetBit(size - 1); p >= 0; p = buckets[i].previousSetBit(p - 1)) {
+                    if (currencyOf[p] == currencyNumber && cents[p] >= min && cents[p] <= max) {
+                        filter.set(p);
+                    }
+                }
+            }
+            return filter;
+        }
+
+        FacetBitmap[] bucketsOf(String currency) {
+            Integer number = currencyNumbers.get(currency);
+            return number == null ? null : bucketBits.get(number);
+        }
+
+        // Position to start a newest-first scan from: just below beforeId's position
+        int positionBefore(Long beforeId) {
+            if (beforeId == null) {
+                return size - 1;
+            }
+            int position = Arrays.binarySearch(ids, 0, size, beforeId);
+            return (position >= 0 ? position : -position - 1) - 1;
+        }
+
+        private int bucketOf(int amountCents) {
+            int bucket = 0;
+            while (bucket < bucketEdges.length && amountCents >= bucketEdges[bucket]) {
+                bucket++;
+            }
+            return bucket;
+        }
+
+        private void remove(int position) {
+            if (categoryOf[position] >= 0) {
+                categoryBits.get(categoryOf[position]).clear(position);
+            }
+            if (currencyOf[position] >= 0) {
+                bucketBits.get(currencyOf[position])[bucketOf(cents[position])].clear(position);
+            }
+        }
+
+        private int append(long id) {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                categoryOf = Arrays.copyOf(categoryOf, capacity);
+                currencyOf = Arrays.copyOf(currencyOf, capacity);
+                cents = Arrays.copyOf(cents, capacity);
+            }
+            ids[size] = id;
+            return size++;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.golocal.productservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.golocal.productservice.dto.ProductImportRow;
+import com.golocal.productservice.exception.InvalidImportException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads the rows of a bulk product import from the request body, one at a time, so memory
+ * use does not depend on the size of the upload: at most one row (product.import.max-row-chars)
+ * plus an 8K character buffer. Two formats:
+ *  - CSV (text/csv, RFC 4180): a header row naming the columns (name, price, image,
+ *    description, category, supplierName; any order, only 'name' required), quoted fields
+ *    may contain commas, quotes ("") and line breaks,
+ *  - NDJSON (application/x-ndjson): one JSON object per line with the same fields.
+ * A malformed row is returned as an error and reading goes on; IOException means the rest
+ * of the input cannot be read (e.g. an unterminated quoted CSV field, or the client went away).
+ */
+abstract class ProductImportReader {
+
+    private final Reader in;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    protected final int maxRowChars;
+
+    private ProductImportReader(Reader in, int maxRowChars) {
+        this.in = in;
+        this.maxRowChars = maxRowChars;
+    }
+
+    static ProductImportReader csv(Reader in, int maxRowChars) throws IOException {
+        return new CsvReader(in, maxRowChars);
+    }
+
+    static ProductImportReader ndjson(Reader in, int maxRowChars, ObjectReader rowReader) {
+        return new NdjsonReader(in, maxRowChars, rowReader);
+    }
+
+    /**
+     * @return The next row, or null at the end of the input.
+     */
+    abstract ParsedRow next() throws IOException;
+
+    // Unsynchronized single-character reads (BufferedReader locks on every read())
+    protected final int read() throws IOException {
+        if (position == limit) {
+            limit = in.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+
+    /**
+     * A data row: either the parsed product or why it was rejected.
+     *
+     * @param row   1-based data row (CSV: record after the header, NDJSON: line number).
+     * @param value The parsed row, or null if unreadable.
+     * @param error Why the row is unreadable, or null.
+     */
+    record ParsedRow(long row, ProductImportRow value, String error) {
+    }
+
+    private static final class CsvReader extends ProductImportReader {
+
+        private static final int NAME = 0, PRICE = 1, IMAGE = 2, DESCRIPTION = 3, CATEGORY = 4, SUPPLIER_NAME = 5;
+        private static final String COLUMNS = "name, price, image, description, category, supplierName";
+
+        private final int[] columns; // Field position -> column
+        private final List<String> record = new ArrayList<>();
+        private final StringBuilder field = new StringBuilder();
+        private long row;
+
+        CsvReader(Reader in, int maxRowChars) throws IOException {
+            super(in, maxRowChars);
+            List<String> header = readRecord();
+            if (header == null) {
+                throw new InvalidImportException("Empty CSV: a header row is required (" + COLUMNS + ")");
+            }
+            this.columns = new int[header.size()];
+            boolean[] seen = new boolean[6];
+            for (int i = 0; i < header.size(); i++) {
+                String column = header.get(i).strip();
+                if (i == 0 && column.startsWith("\uFEFF")) {
+                    column = column.substring(1); // Byte order mark written by spreadsheet exports
+                }
+                int id = column(column);
+                if (seen[id]) {
+                    throw new InvalidImportException("Duplicate CSV column '" + column + "'");
+                }
+                seen[id] = true;
+                columns[i] = id;
+            }
+            if (!seen[NAME]) {
+                throw new InvalidImportException("CSV header has no 'name' column");
+            }
+        }
+
+        @Override
+        ParsedRow next() throws IOException {
+            List<String> values;
+            do {
+                values = readRecord();
+                if (values == null) {
+                    return null;
+                }
+            } while (values.size() == 1 && values.get(0).isEmpty()); // Blank line
+            row++;
+            if (values.size() != columns.length) {
+                return new ParsedRow(row, null, "Expected " + columns.length + " fields but found " + values.size());
+            }
+            ProductImportRow product = new ProductImportRow();
+            for (int i = 0; i < columns.length; i++) {
+                String value = values.get(i).isEmpty() ? null : values.get(i);
+                switch (columns[i]) {
+                    case NAME -> product.setName(value);
+                    case PRICE -> product.setPrice(value);
+                    case IMAGE -> product.setImage(value);
+                    case DESCRIPTION -> product.setDescription(value);
+                    case CATEGORY -> product.setCategory(value);
+                    default -> product.setSupplierName(value);
+                }
+            }
+            return new ParsedRow(row, product, null);
+        }
+
+        private static int column(String header) {
+            return switch (header.toLowerCase(Locale.ROOT).replace("_", "")) {
+                case "name" -> NAME;
+                case "price" -> PRICE;
+                case "image" -> IMAGE;
+                case "description" -> DESCRIPTION;
+                case "category" -> CATEGORY;
+                case "suppliername" -> SUPPLIER_NAME;
+                default -> throw new InvalidImportException("Unknown CSV column '" + header + "', expected " + COLUMNS);
+            };
+        }
+
+        // One RFC 4180 record, or null at the end of the input
+        private List<String> readRecord() throws IOException {
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+            record.clear();
+            field.setLength(0);
+            boolean quoted = false;
+            int chars = 0;
+            while (true) {
+                if (c == -1) {
+                    if (quoted) {
+                        throw new IOException("Unterminated quoted field in row " + (row + 1));
+                    }
+                    record.add(field.toString());
+                    return record;
+                }
+                if (++chars > maxRowChars) {
+                    // The end of this record cannot be told apart from data any more: stop here
+                    throw new IOException("Row " + (row + 1) + " is longer than " + maxRowChars + " characters");
+                }
+                if (quoted) {
+                    if (c == '"') {
+                        c = read();
+                        if (c != '"') {
+                            quoted = false; // Closing quote; c is the character after it
+                            continue;
+                        }
+                    }
+                    field.append((char) c);
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    record.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    record.add(field.toString());
+                    return record;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+        }
+    }
+
+    private static final class NdjsonReader extends ProductImportReader {
+
+        private final ObjectReader rowReader;
+        private final StringBuilder line = new StringBuilder();
+        private long lineNumber;
+
+        NdjsonReader(Reader in, int maxRowChars, ObjectReader rowReader) {
+            super(in, maxRowChars);
+            this.rowReader = rowReader;
+        }
+
+        @Override
+        ParsedRow next() throws IOException {
+            while (true) {
+                line.setLength(0);
+                boolean tooLong = false;
+                int c = read();
+                if (c == -1) {
+                    return null;
+                }
+                while (c != -1 && c != '\n') {
+                    if (line.length() < maxRowChars) {
+                        line.append((char) c);
+                    } else {
+                        tooLong = true; // Skip to the end of the line, then report it
+                    }
+                    c = read();
+                }
+                lineNumber++;
+                if (tooLong) {
+                    return new ParsedRow(lineNumber, null, "Line is longer than " + maxRowChars + " characters");
+                }
+                String json = line.toString();
+                if (json.isBlank()) {
+                    continue;
+                }
+                try {
+                    ProductImportRow product = rowReader.readValue(json);
+                    if (product == null) {
+                        return new ParsedRow(lineNumber, null, "Expected a JSON object");
+                    }
+                    return new ParsedRow(lineNumber, product, null);
+                } catch (JsonProcessingException e) {
+                    return new ParsedRow(lineNumber, null, "Invalid JSON: " + e.getOriginalMessage());
+                }
+            }
+        }
+    }
+}
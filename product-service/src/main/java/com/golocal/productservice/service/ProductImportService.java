@@ -0,0 +1,288 @@
+package com.golocal.productservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.golocal.productservice.dto.ProductImportReportDto;
+import com.golocal.productservice.dto.ProductImportRow;
+import com.golocal.productservice.exception.ImportCapacityException;
+import com.golocal.productservice.exception.InvalidImportException;
+import com.golocal.productservice.repository.ProductImportRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk import of a supplier's products from a streamed CSV or NDJSON upload.
+ *
+ * The upload is processed in batches of 'product.import.batch-size' rows as it arrives:
+ * while the request thread parses the next batch, the previous one is validated and written
+ * (COPY plus one merge statement, see ProductImportRepository) on the import executor.
+ * At most two batches are in memory per import, so heap use does not depend on the file size.
+ * Each batch commits on its own; if the import stops early the report says so and the rows
+ * before that point stay imported (importing the same file again is safe: rows are upserts).
+ *
+ * Metrics: golocal.products.import (timer, tagged format and outcome) and
+ * golocal.products.import.rows (counter, tagged result).
+ */
+@Service
+@Slf4j
+public class ProductImportService {
+
+    private static final String IMPORT_TIMER = "golocal.products.import";
+    private static final String ROWS_COUNTER = "golocal.products.import.rows";
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv");
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final ProductImportRepository productImportRepository;
+    private final Validator validator;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolTaskExecutor executor;
+    private final ObjectReader rowReader;
+    private final Semaphore permits;
+    private final int batchSize;
+    private final int maxRowChars;
+    private final int maxReportedErrors;
+
+    public ProductImportService(ProductImportRepository productImportRepository,
+                                Validator validator,
+                                MeterRegistry meterRegistry,
+                                ObjectMapper objectMapper,
+                                @Value("${product.import.max-concurrent:2}") int maxConcurrent,
+                                @Value("${product.import.batch-size:5000}") int batchSize,
+                                @Value("${product.import.max-row-chars:65536}") int maxRowChars,
+                                @Value("${product.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.productImportRepository = productImportRepository;
+        this.validator = validator;
+        this.meterRegistry = meterRegistry;
+        // One writer thread per concurrent import: each import has at most one batch in flight
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(Math.max(1, maxConcurrent));
+        this.executor.setThreadNamePrefix("product-import-");
+        this.executor.initialize();
+        this.rowReader = objectMapper.readerFor(ProductImportRow.class);
+        this.permits = new Semaphore(Math.max(1, maxConcurrent));
+        this.batchSize = Math.max(1, batchSize);
+        this.maxRowChars = Math.max(1024, maxRowChars);
+        this.maxReportedErrors = Math.max(0, maxReportedErrors);
+    }
+
+    /**
+     * Imports products for a supplier from the request body.
+     *
+     * @param body         The upload, read as it arrives.
+     * @param contentType  text/csv or application/x-ndjson (charset parameter optional, default UTF-8).
+     * @param supplierName The importing supplier; every row is stored as this supplier's product.
+     * @return Counts and per-row errors.
+     * @throws InvalidImportException  if the Content-Type or the CSV header is not usable (nothing imported).
+     * @throws ImportCapacityException if product.import.max-concurrent imports are running.
+     */
+    public ProductImportReportDto importProducts(InputStream body, String contentType, String supplierName) {
+        MediaType mediaType = parseContentType(contentType);
+        boolean csv = CSV.isCompatibleWith(mediaType);
+        if (!csv && !NDJSON.isCompatibleWith(mediaType)) {
+            throw new InvalidImportException("Unsupported Content-Type '" + contentType + "', use text/csv or application/x-ndjson");
+        }
+        Charset charset = mediaType.getCharset() != null ? mediaType.getCharset() : StandardCharsets.UTF_8;
+        if (!permits.tryAcquire()) {
+            throw new ImportCapacityException();
+        }
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            InputStreamReader in = new InputStreamReader(body, charset);
+            ProductImportReader reader = csv
+                    ? ProductImportReader.csv(in, maxRowChars)
+                    : ProductImportReader.ndjson(in, maxRowChars, rowReader);
+            ProductImportReportDto report = run(reader, supplierName);
+            outcome = report.getAborted() == null ? "success" : "aborted";
+            report.setDurationMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            log.info("Product import for supplier '{}': {} rows, {} inserted, {} updated, {} unchanged, {} duplicates, {} failed in {} ms{}",
+                    supplierName, report.getRows(), report.getInserted(), report.getUpdated(), report.getUnchanged(),
+                    report.getDuplicates(), report.getFailed(), report.getDurationMs(),
+                    report.getAborted() == null ? "" : " (aborted: " + report.getAborted() + ")");
+            return report;
+        } catch (IOException e) {
+            throw new InvalidImportException("Could not read the import: " + e.getMessage()); // Before the first row
+        } finally {
+            meterRegistry.timer(IMPORT_TIMER, "format", csv ? "csv" : "ndjson", "outcome", outcome)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            permits.release();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    // Parses on the calling thread; validates and writes each batch on the executor,
+    // overlapping with the parsing of the next one
+    private ProductImportReportDto run(ProductImportReader reader, String supplierName) {
+        ProductImportReportDto report = new ProductImportReportDto();
+        report.setErrors(new ArrayList<>());
+        CompletableFuture<BatchResult> pending = CompletableFuture.completedFuture(null);
+        List<ProductImportReader.ParsedRow> batch = new ArrayList<>(batchSize);
+        try {
+            ProductImportReader.ParsedRow row;
+            while ((row = reader.next()) != null) {
+                batch.add(row);
+                if (batch.size() == batchSize) {
+                    pending = submit(pending, batch, supplierName, report);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Product import for supplier '{}' stopped early: {}", supplierName, e.getMessage());
+            report.setAborted(e.getMessage());
+        }
+        if (!batch.isEmpty()) {
+            pending = submit(pending, batch, supplierName, report);
+        }
+        addToReport(report, pending.join());
+        return report;
+    }
+
+    // Waits for the batch in progress (at most one), then hands over the next
+    private CompletableFuture<BatchResult> submit(CompletableFuture<BatchResult> pending,
+                                                  List<ProductImportReader.ParsedRow> batch,
+                                                  String supplierName,
+                                                  ProductImportReportDto report) {
+        addToReport(report, pending.join());
+        return CompletableFuture.supplyAsync(() -> writeBatch(batch, supplierName), executor);
+    }
+
+    private BatchResult writeBatch(List<ProductImportReader.ParsedRow> batch, String supplierName) {
+        BatchResult result = new BatchResult(batch.size());
+        // Valid rows by name; a later row with the same name replaces an earlier one
+        // (one merge statement cannot touch the same product twice)
+        Map<String, ProductImportReader.ParsedRow> rowsByName = new LinkedHashMap<>();
+        for (ProductImportReader.ParsedRow row : batch) {
+            String error = row.error() != null ? row.error() : validate(row.value(), supplierName);
+            if (error != null) {
+                result.fail(row, error);
+            } else if (rowsByName.put(row.value().getName(), row) != null) {
+                result.duplicates++;
+            }
+        }
+        if (rowsByName.isEmpty()) {
+            return result;
+        }
+        try {
+            ProductImportRepository.UpsertResult upsert = productImportRepository.upsert(supplierName,
+                    rowsByName.values().stream().map(ProductImportReader.ParsedRow::value).collect(Collectors.toList()));
+            result.inserted = upsert.inserted();
+            result.updated = upsert.updated();
+            Set<String> foreign = upsert.foreignNames();
+            for (String name : foreign) {
+                result.fail(rowsByName.get(name), "Product name is already used by another supplier");
+            }
+            result.unchanged = rowsByName.size() - upsert.inserted() - upsert.updated() - foreign.size();
+        } catch (DataAccessException e) {
+            String message = "Batch could not be stored: " + e.getMostSpecificCause().getMessage();
+            log.warn("Product import for supplier '{}': {}", supplierName, message);
+            rowsByName.values().forEach(row -> result.fail(row, message));
+        }
+        result.errors.sort(Comparator.comparingLong(ProductImportReportDto.RowError::getRow));
+        return result;
+    }
+
+    private String validate(ProductImportRow row, String supplierName) {
+        if (row.getSupplierName() != null && !row.getSupplierName().equals(supplierName)) {
+            return "supplierName must be the importing supplier ('" + supplierName + "') or empty";
+        }
+        Set<ConstraintViolation<ProductImportRow>> violations = validator.validate(row);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> String.format("'%s': %s", violation.getPropertyPath(), violation.getMessage()))
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private void addToReport(ProductImportReportDto report, BatchResult result) {
+        if (result == null) {
+            return;
+        }
+        report.setRows(report.getRows() + result.rows);
+        report.setInserted(report.getInserted() + result.inserted);
+        report.setUpdated(report.getUpdated() + result.updated);
+        report.setUnchanged(report.getUnchanged() + result.unchanged);
+        report.setDuplicates(report.getDuplicates() + result.duplicates);
+        report.setFailed(report.getFailed() + result.errors.size());
+        for (ProductImportReportDto.RowError error : result.errors) {
+            if (report.getErrors().size() < maxReportedErrors) {
+                report.getErrors().add(error);
+            } else {
+                report.setErrorsTruncated(true);
+            }
+        }
+        countRows("inserted", result.inserted);
+        countRows("updated", result.updated);
+        countRows("unchanged", result.unchanged);
+        countRows("duplicate", result.duplicates);
+        countRows("failed", result.errors.size());
+    }
+
+    private void countRows(String result, long rows) {
+        if (rows > 0) {
+            meterRegistry.counter(ROWS_COUNTER, "result", result).increment(rows);
+        }
+    }
+
+    private static MediaType parseContentType(String contentType) {
+        try {
+            return MediaType.parseMediaType(Objects.requireNonNullElse(contentType, ""));
+        } catch (InvalidMediaTypeException e) {
+            throw new InvalidImportException("Missing or invalid Content-Type, use text/csv or application/x-ndjson");
+        }
+    }
+
+    /**
+     * What happened to one batch; created and filled on the executor, read by the
+     * request thread after the batch's future completed.
+     */
+    private static final class BatchResult {
+
+        private final long rows;
+        private final List<ProductImportReportDto.RowError> errors = new ArrayList<>();
+        private long inserted;
+        private long updated;
+        private long unchanged;
+        private long duplicates;
+
+        BatchResult(long rows) {
+            this.rows = rows;
+        }
+
+        void fail(ProductImportReader.ParsedRow row, String message) {
+            String name = row.value() != null ? row.value().getName() : null;
+            errors.add(new ProductImportReportDto.RowError(row.row(), name, message));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.golocal.productservice.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Writes the product list (GET /api/products) as a JSON array straight from the rows of
+ * ProductListRepository: no Product entities, no ProductDto list, no reflection over the
+ * DTO, and the field names are encoded once, not per product. The output is what Jackson
+ * writes for a List of ProductDto (same fields, order and null handling), so clients see
+ * no difference. See docs/performance.md for the allocation measurements.
+ * Writes JSON or Smile (see WireFormatConfig), the same generator calls for both.
+ */
+@Component
+public class ProductListWriter {
+
+    public static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    // ProductDto's fields in declaration order (Jackson's default order), pre-encoded as UTF-8
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString NAME = new SerializedString("name");
+    private static final SerializedString PRICE = new SerializedString("price");
+    private static final SerializedString IMAGE = new SerializedString("image");
+    private static final SerializedString SUPPLIER_NAME = new SerializedString("supplierName");
+    private static final SerializedString CATEGORY = new SerializedString("category");
+    private static final SerializedString PRICE_AMOUNT = new SerializedString("priceAmount");
+    private static final SerializedString PRICE_CURRENCY = new SerializedString("priceCurrency");
+    private static final SerializedString THUMBNAIL = new SerializedString("thumbnail");
+
+    private final JsonFactory jsonFactory;
+    private final SmileFactory smileFactory = new SmileFactory(); // Same defaults as WireFormatConfig's converter
+    private final ThumbnailService thumbnailService;
+
+    public ProductListWriter(ObjectMapper objectMapper, ThumbnailService thumbnailService) {
+        this.jsonFactory = objectMapper.getFactory(); // Shares Spring's generator settings and buffer recycling
+        this.thumbnailService = thumbnailService;
+    }
+
+    /**
+     * Writes the products the source streams as one array.
+     *
+     * @param out    Where to write (not closed).
+     * @param format application/json or application/x-jackson-smile.
+     * @param source Streams the rows (ProductListRepository's column order) to the given handler.
+     * @return The number of products written.
+     */
+    public long write(OutputStream out, MediaType format, Consumer<RowCallbackHandler> source) throws IOException {
+        JsonFactory factory = SMILE.equalsTypeAndSubtype(format) ? smileFactory : jsonFactory;
+        long[] count = {0};
+        try (JsonGenerator json = factory.createGenerator(out, JsonEncoding.UTF8)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET); // The servlet container owns the stream
+            json.writeStartArray();
+            try {
+                source.accept(rs -> {
+                    writeProduct(rs, json);
+                    count[0]++;
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause(); // Client gone: not a database error
+            }
+            json.writeEndArray();
+        }
+        return count[0];
+    }
+
+    /**
+     * The format to write for a request: the first of the accepted media types (most
+     * preferred first) that is JSON or Smile; JSON if the request accepts neither.
+     */
+    public static MediaType formatFor(List<MediaType> accepted) {
+        for (MediaType mediaType : accepted) {
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return MediaType.APPLICATION_JSON; // Also */*
+            }
+            if (mediaType.isCompatibleWith(SMILE)) {
+                return SMILE;
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    private void writeProduct(ResultSet rs, JsonGenerator json) throws SQLException {
+        try {
+            long id = rs.getLong(1);
+            String image = rs.getString(4);
+            json.writeStartObject();
+            json.writeFieldName(ID);
+            json.writeNumber(id);
+            json.writeFieldName(NAME);
+            json.writeString(rs.getString(2));
+            json.writeFieldName(PRICE);
+            json.writeString(rs.getString(3)); // writeString/writeNumber write null for null
+            json.writeFieldName(IMAGE);
+            json.writeString(image);
+            json.writeFieldName(SUPPLIER_NAME);
+            json.writeString(rs.getString(5));
+            json.writeFieldName(CATEGORY);
+            json.writeString(rs.getString(6));
+            json.writeFieldName(PRICE_AMOUNT);
+            json.writeNumber(rs.getBigDecimal(7));
+            json.writeFieldName(PRICE_CURRENCY);
+            json.writeString(rs.getString(8));
+            json.writeFieldName(THUMBNAIL);
+            json.writeString(thumbnailService.thumbnailPath(id, image, ThumbnailSize.MEDIUM));
+            json.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // RowCallbackHandler may only throw SQLException
+        }
+    }
+}
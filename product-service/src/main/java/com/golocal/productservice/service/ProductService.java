@@ -1,16 +1,46 @@
 package com.golocal.productservice.service;
 
+import com.golocal.productservice.dto.ProductBatchDto;
+import com.golocal.productservice.dto.ProductBrowsePageDto;
 import com.golocal.productservice.dto.ProductDto;
+import com.golocal.productservice.dto.ProductSuggestionDto;
 import com.golocal.productservice.entity.Product;
+import com.golocal.productservice.entity.ProductPrice;
+import com.golocal.productservice.exception.BatchTooLargeException;
+import com.golocal.productservice.exception.FacetIndexUnavailableException;
 import com.golocal.productservice.exception.ProductNotFoundException;
+import com.golocal.productservice.repository.ProductListRepository;
 import com.golocal.productservice.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils; // For checking blank search term
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -23,33 +53,89 @@ import java.util.stream.Collectors;
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final EntityManager entityManager; // For products in the second-level cache
+    private final ProductListRepository productListRepository; // Streamed rows for the product list
+    private final ProductListWriter productListWriter; // ...written straight to JSON or Smile
+    private final MeterRegistry meterRegistry; // For custom service-layer timers
+    private final ProductFacetIndex productFacetIndex; // Category/price filters and facet counts
+    private final ProductSuggestIndex productSuggestIndex; // Search-as-you-type names
+    private final ProductViewCounter productViewCounter; // Popularity for suggestions
+    private final ThumbnailService thumbnailService; // Thumbnail paths for product images
+
+    @Value("${product.batch.max-ids:100}")
+    private int maxBatchIds; // Most IDs per getProductsByIds call
+
+    // Timer for the product list query. Tags stay low-cardinality on purpose:
+    // only whether a search term was given, never the term itself.
+    private static final String LIST_TIMER = "golocal.products.list";
+    private static final String BROWSE_TIMER = "golocal.products.browse";
+    private static final String SUGGEST_TIMER = "golocal.products.suggest";
+    private static final String BATCH_TIMER = "golocal.products.batch";
+    private static final int MAX_SUGGESTIONS = 20;
+    private static final int MAX_PAGE_SIZE = 100;
 
     /**
-     * Retrieves a list of all products, optionally filtered by a search term.
-     * If a search term is provided, it searches in product name and supplier name.
+     * Writes all products, optionally filtered by a search term, to the output as a JSON
+     * array of ProductDto. If a search term is provided, it searches in product name and
+     * supplier name. The rows are streamed from the database into the output
+     * (ProductListWriter), so the list is never held in memory; the timer covers writing it.
      *
      * @param searchTerm Optional search term (can be null or empty).
-     * @return A list of ProductDto objects.
+     * @param format     application/json or application/x-jackson-smile (ProductListWriter.formatFor).
+     * @param out        The response body (not closed).
      */
-    @Transactional(readOnly = true) // Read-only transaction for fetching data
-    public List<ProductDto> getAllProducts(String searchTerm) {
-        List<Product> products;
+    public void writeAllProducts(String searchTerm, MediaType format, OutputStream out) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            long count = productListWriter.write(out, format, rows -> forEachListRow(searchTerm, rows));
+            log.debug("Wrote {} products.", count);
+            outcome = "success";
+        } finally {
+            sample.stop(meterRegistry.timer(LIST_TIMER,
+                    "filtered", String.valueOf(StringUtils.hasText(searchTerm)),
+                    "outcome", outcome));
+        }
+    }
 
+    /**
+     * Passes all products, optionally filtered by a search term (as writeAllProducts), to the
+     * action one at a time as the rows are read (gRPC ListProducts). The action runs on the
+     * calling thread inside the read: while it blocks, no more rows are read.
+     *
+     * @param searchTerm Optional search term (can be null or empty).
+     * @param action     Receives each product.
+     * @return The number of products passed to the action.
+     */
+    public long forEachProduct(String searchTerm, Consumer<ProductDto> action) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            long[] count = {0};
+            forEachListRow(searchTerm, rs -> {
+                action.accept(mapListRowToProductDto(rs));
+                count[0]++;
+            });
+            log.debug("Streamed {} products.", count[0]);
+            outcome = "success";
+            return count[0];
+        } finally {
+            sample.stop(meterRegistry.timer(LIST_TIMER,
+                    "filtered", String.valueOf(StringUtils.hasText(searchTerm)),
+                    "outcome", outcome));
+        }
+    }
+
+    // Untimed: the product list rows, all of them or those matching the search term
+    private void forEachListRow(String searchTerm, RowCallbackHandler rows) {
         // Check if the search term is provided and not blank
         if (StringUtils.hasText(searchTerm)) {
             log.debug("Searching products with term: '{}'", searchTerm);
-            // Use the repository method for combined name/supplier search
-            products = productRepository.findByNameContainingIgnoreCaseOrSupplierNameContainingIgnoreCase(searchTerm, searchTerm);
+            productListRepository.forEachProductMatching(searchTerm, rows);
         } else {
             log.debug("Fetching all products (no search term).");
-            // Fetch all products if no search term is given
-            products = productRepository.findAll();
+            productListRepository.forEachProduct(rows);
         }
-
-        // Map the list of Product entities to a list of ProductDto objects
-        return products.stream()
-                .map(this::mapToProductDto) // Use helper method for mapping
-                .collect(Collectors.toList());
     }
 
     /**
@@ -68,9 +154,170 @@ public class ProductService {
                     return new ProductNotFoundException(id); // Throw specific exception
                 });
         log.debug("Product found: {}", product.getName());
+        productViewCounter.recordView(product.getId());
         return mapToProductDto(product); // Map the found entity to DTO
     }
 
+    /**
+     * Retrieves several products by ID with one query, e.g. to show the products of a
+     * list of inquiries without one request per product.
+     *
+     * @param ids The product IDs (duplicates are ignored; at most 'product.batch.max-ids').
+     * @return The products found, in the order of 'ids', and the IDs not found.
+     * @throws BatchTooLargeException if more distinct IDs than allowed are given.
+     */
+    @Transactional(readOnly = true)
+    public ProductBatchDto getProductsByIds(List<Long> ids) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            Set<Long> distinct = new LinkedHashSet<>(ids);
+            distinct.remove(null);
+            if (distinct.size() > maxBatchIds) {
+                throw new BatchTooLargeException(distinct.size(), maxBatchIds);
+            }
+            Map<Long, Product> productsById = findProductsByIds(distinct);
+            List<ProductDto> products = new ArrayList<>(productsById.size());
+            List<Long> missing = new ArrayList<>();
+            for (Long id : distinct) {
+                Product product = productsById.get(id);
+                if (product != null) {
+                    products.add(mapToProductDto(product));
+                } else {
+                    missing.add(id);
+                }
+            }
+            outcome = "success";
+            return new ProductBatchDto(products, missing);
+        } finally {
+            sample.stop(meterRegistry.timer(BATCH_TIMER, "outcome", outcome));
+        }
+    }
+
+    /**
+     * Suggests product and supplier names for what the user has typed so far, most viewed
+     * first. Served from the in-memory ProductSuggestIndex; never queries the database.
+     *
+     * @param prefix Typed text, matched case-insensitively against the start of any word of a name.
+     * @param limit  Most suggestions to return (at most 20).
+     * @return The suggestions; empty for blank input and while the index is loading after a start.
+     */
+    public List<ProductSuggestionDto> suggestProducts(String prefix, int limit) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            if (!StringUtils.hasText(prefix)) {
+                return List.of();
+            }
+            return productSuggestIndex.suggest(prefix, Math.max(1, Math.min(limit, MAX_SUGGESTIONS))).stream()
+                    .map(suggestion -> suggestion.productId() == SuggestIndex.SUPPLIER
+                            ? new ProductSuggestionDto(suggestion.text(), "supplier", null)
+                            : new ProductSuggestionDto(suggestion.text(), "product", suggestion.productId()))
+                    .collect(Collectors.toList());
+        } finally {
+            sample.stop(meterRegistry.timer(SUGGEST_TIMER));
+        }
+    }
+
+    /**
+     * Retrieves one page of products filtered by category and price range, newest first,
+     * with category and price range facet counts. Filtering and counting run on the
+     * in-memory ProductFacetIndex; only the page's products are read from the database.
+     *
+     * @param categories Products in any of these categories (null or empty: all).
+     * @param minPrice   Lowest price, inclusive (optional).
+     * @param maxPrice   Highest price, inclusive (optional).
+     * @param currency   Currency of the prices (null: the marketplace default).
+     * @param cursor     The nextCursor of the previous page (null for the first page).
+     * @param limit      Page size (at most 100).
+     * @return The page with its facet counts.
+     * @throws FacetIndexUnavailableException while the index is still loading after a start.
+     */
+    @Transactional(readOnly = true)
+    public ProductBrowsePageDto browseProducts(List<String> categories, BigDecimal minPrice, BigDecimal maxPrice,
+                                               String currency, Long cursor, int limit) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        boolean filtered = (categories != null && !categories.isEmpty()) || minPrice != null || maxPrice != null;
+        try {
+            ProductBrowsePageDto page = browse(categories, minPrice, maxPrice, currency, cursor, limit);
+            outcome = "success";
+            return page;
+        } finally {
+            sample.stop(meterRegistry.timer(BROWSE_TIMER, "filtered", String.valueOf(filtered), "outcome", outcome));
+        }
+    }
+
+    // Untimed body of browseProducts
+    private ProductBrowsePageDto browse(List<String> categories, BigDecimal minPrice, BigDecimal maxPrice,
+                                        String currency, Long cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        String priceCurrency = StringUtils.hasText(currency) ? currency.trim().toUpperCase(Locale.ROOT) : ProductPrice.DEFAULT_CURRENCY;
+        ProductFacetIndex.Result result = productFacetIndex.query(
+                categories == null ? Set.of() : new HashSet<>(categories), priceCurrency,
+                minPrice == null ? null : toCents(minPrice.setScale(2, RoundingMode.CEILING)),
+                maxPrice == null ? null : toCents(maxPrice.setScale(2, RoundingMode.FLOOR)),
+                cursor, pageSize);
+        if (result == null) {
+            throw new FacetIndexUnavailableException();
+        }
+
+        // Page rows by primary key, returned in the index's order
+        Map<Long, Product> productsById = findProductsByIds(result.ids());
+        List<ProductDto> items = result.ids().stream()
+                .map(productsById::get)
+                .filter(Objects::nonNull) // Deleted since the last index refresh
+                .map(this::mapToProductDto)
+                .collect(Collectors.toList());
+        String nextCursor = result.hasMore() ? String.valueOf(result.ids().get(result.ids().size() - 1)) : null;
+
+        List<ProductBrowsePageDto.CategoryCount> categoryCounts = result.categoryCounts().entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .map(entry -> new ProductBrowsePageDto.CategoryCount(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
+        int[] edges = productFacetIndex.getBucketEdges();
+        List<ProductBrowsePageDto.PriceRangeCount> priceRanges = new ArrayList<>(edges.length + 1);
+        for (int i = 0; i <= edges.length; i++) {
+            priceRanges.add(new ProductBrowsePageDto.PriceRangeCount(
+                    i == 0 ? BigDecimal.ZERO.setScale(2) : BigDecimal.valueOf(edges[i - 1], 2),
+                    i == edges.length ? null : BigDecimal.valueOf(edges[i], 2),
+                    result.priceCounts()[i]));
+        }
+        return new ProductBrowsePageDto(items, result.total(), nextCursor, priceCurrency, categoryCounts, priceRanges);
+    }
+
+    // The products with the given IDs that exist: those in the second-level cache from there,
+    // the rest with one query (which puts them in the cache). Must run in a transaction
+    private Map<Long, Product> findProductsByIds(Collection<Long> ids) {
+        Map<Long, Product> productsById = new HashMap<>(ids.size() * 2);
+        List<Long> uncached = new ArrayList<>();
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        for (Long id : ids) {
+            if (cache.contains(Product.class, id)) {
+                Product product = entityManager.find(Product.class, id); // Reads the database if it expired meanwhile
+                if (product != null) {
+                    productsById.put(id, product);
+                }
+            } else {
+                uncached.add(id);
+            }
+        }
+        if (!uncached.isEmpty()) {
+            for (Product product : productRepository.findAllByIdArray(uncached.toArray(Long[]::new))) {
+                productsById.put(product.getId(), product);
+            }
+        }
+        return productsById;
+    }
+
+    // Price bound in cents, clamped to what the index can hold
+    private static int toCents(BigDecimal amount) {
+        BigDecimal cents = amount.movePointRight(2);
+        if (cents.signum() < 0) {
+            return 0;
+        }
+        return cents.compareTo(BigDecimal.valueOf(Integer.MAX_VALUE)) > 0 ? Integer.MAX_VALUE : cents.intValueExact();
+    }
+
     // --- Add methods for CREATE, UPDATE, DELETE if needed ---
     /*
     @Transactional
@@ -126,6 +373,14 @@ public class ProductService {
      * @param product The Product entity.
      * @return The corresponding ProductDto object.
      */
+    // One row of ProductListRepository (its column order) to a DTO, as ProductListWriter writes it
+    private ProductDto mapListRowToProductDto(ResultSet rs) throws SQLException {
+        long id = rs.getLong(1);
+        String image = rs.getString(4);
+        return new ProductDto(id, rs.getString(2), rs.getString(3), image, rs.getString(5), rs.getString(6),
+                rs.getBigDecimal(7), rs.getString(8), thumbnailService.thumbnailPath(id, image, ThumbnailSize.MEDIUM));
+    }
+
     private ProductDto mapToProductDto(Product product) {
         if (product == null) {
             return null;
@@ -135,10 +390,13 @@ public class ProductService {
                 product.getName(),
                 product.getPrice(),
                 product.getImage(),
-                product.getSupplierName()
+                product.getSupplierName(),
+                product.getCategory(),
+                product.getPriceAmount(),
+                product.getPriceCurrency(),
+                thumbnailService.thumbnailPath(product, ThumbnailSize.MEDIUM)
                 // Map other fields if they exist in DTO
                 // product.getDescription(),
-                // product.getCategory(),
                 // product.getCreatedAt(),
                 // product.getUpdatedAt()
         );
@@ -0,0 +1,170 @@
+package com.golocal.productservice.service;
+
+import com.golocal.productservice.repository.ProductSuggestRepository;
+import com.golocal.productservice.repository.ProductSuggestRepository.NameRow;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * In-memory index of product and supplier names for GET /api/products/suggest
+ * (search-as-you-type). Answers from memory only: a SuggestIndex over all names, plus a
+ * small one over the products changed since it was built.
+ *
+ * Kept current per instance, like ProductFacetIndex: built on startup, then every
+ * 'product.suggest.refresh-ms' the products with a recent updated_at are re-read into the
+ * small index (their entries in the large one are skipped), and every
+ * 'product.suggest.rebuild-ms', or once more than 'product.suggest.max-changed' products
+ * changed, everything is rebuilt (which also picks up new view counts and deletions).
+ * Queries read an immutable snapshot and never wait for a refresh.
+ */
+@Component
+@Slf4j
+public class ProductSuggestIndex {
+
+    private final ProductSuggestRepository productSuggestRepository;
+    private final Duration refreshOverlap;
+    private final Duration rebuildInterval;
+    private final int maxChanged;
+
+    private volatile Snapshot snapshot; // Null until built
+
+    // Scheduler thread only
+    private final Map<Long, NameRow> changed = new HashMap<>(); // Products changed since the last rebuild
+    private Instant watermark; // DB time the last refresh/rebuild started
+    private Instant lastRebuild;
+
+    public ProductSuggestIndex(ProductSuggestRepository productSuggestRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${product.suggest.refresh-overlap-ms:30000}") long refreshOverlapMs,
+                               @Value("${product.suggest.rebuild-ms:900000}") long rebuildMs,
+                               @Value("${product.suggest.max-changed:20000}") int maxChanged) {
+        this.productSuggestRepository = productSuggestRepository;
+        this.refreshOverlap = Duration.ofMillis(refreshOverlapMs);
+        this.rebuildInterval = Duration.ofMillis(rebuildMs);
+        this.maxChanged = maxChanged;
+        Gauge.builder("golocal.products.suggest.names", this, index -> index.snapshot == null ? 0 : index.snapshot.names())
+                .description("Names in this instance's suggestion index")
+                .register(meterRegistry);
+        Gauge.builder("golocal.products.suggest.size", this, index -> index.snapshot == null ? 0 : index.snapshot.sizeInBytes())
+                .description("Memory held by this instance's suggestion index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Builds the index on the first run, then applies recent changes; rebuilds when due.
+     * Runs on the scheduler thread only.
+     */
+    @Scheduled(fixedDelayString = "${product.suggest.refresh-ms:5000}")
+    public void refresh() {
+        try {
+            if (snapshot == null || changed.size() > maxChanged || Instant.now().isAfter(lastRebuild.plus(rebuildInterval))) {
+                rebuild();
+            } else {
+                applyChanges();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Product suggestion index refresh failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @param prefix Typed text (case-insensitive), matched against the start of any word of a name.
+     * @param limit  Most suggestions to return.
+     * @return The most popular matching names, or an empty list before the index is built.
+     */
+    public List<SuggestIndex.Suggestion> suggest(String prefix, int limit) {
+        Snapshot current = snapshot;
+        int[] folded = SuggestIndex.fold(prefix.strip());
+        if (current == null || folded.length == 0) {
+            return List.of();
+        }
+        List<SuggestIndex.Suggestion> candidates = new ArrayList<>(current.main.top(folded, limit, current.changedIds::contains));
+        candidates.addAll(current.changes.top(folded, limit, null));
+        candidates.sort(Comparator.comparingInt(SuggestIndex.Suggestion::score).reversed()
+                .thenComparing(SuggestIndex.Suggestion::text, String.CASE_INSENSITIVE_ORDER));
+
+        // A supplier can appear in both indexes: keep its first (highest-ranked) occurrence
+        List<SuggestIndex.Suggestion> result = new ArrayList<>(limit);
+        Set<String> suppliers = new HashSet<>();
+        for (SuggestIndex.Suggestion candidate : candidates) {
+            if (result.size() == limit) {
+                break;
+            }
+            if (candidate.productId() != SuggestIndex.SUPPLIER || suppliers.add(candidate.text())) {
+                result.add(candidate);
+            }
+        }
+        return result;
+    }
+
+    private void rebuild() {
+        long start = System.nanoTime();
+        Instant startedAt = productSuggestRepository.currentTime();
+        SuggestIndex main = build(productSuggestRepository::forEachProduct);
+        snapshot = new Snapshot(main, new SuggestIndex.Builder().build(), Set.of());
+        changed.clear();
+        watermark = startedAt;
+        lastRebuild = Instant.now();
+        log.info("Product suggestion index built: {} names, {} KB in {} ms", main.names(), main.sizeInBytes() / 1024,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private void applyChanges() {
+        Instant startedAt = productSuggestRepository.currentTime();
+        boolean[] updated = {false};
+        productSuggestRepository.forEachProductUpdatedSince(watermark.minus(refreshOverlap), row -> {
+            if (!row.equals(changed.put(row.id(), row))) {
+                updated[0] = true;
+            }
+        });
+        watermark = startedAt;
+        if (updated[0]) {
+            // Small: rebuilt whole on every change
+            snapshot = new Snapshot(snapshot.main, build(changed.values()::forEach), Set.copyOf(changed.keySet()));
+        }
+    }
+
+    // Indexes each product's name, and each supplier's name ranked by the views of all its products
+    private static SuggestIndex build(Consumer<Consumer<NameRow>> rows) {
+        SuggestIndex.Builder builder = new SuggestIndex.Builder();
+        Map<String, Long> supplierViews = new HashMap<>();
+        rows.accept(row -> {
+            builder.add(row.name(), row.id(), row.views());
+            supplierViews.merge(row.supplierName(), row.views(), Long::sum);
+        });
+        supplierViews.forEach((supplier, views) -> builder.add(supplier, SuggestIndex.SUPPLIER, views));
+        return builder.build();
+    }
+
+    /**
+     * What queries read: the index over all names, the one over changed products, and the
+     * ids of those products (superseded in the main index).
+     */
+    private record Snapshot(SuggestIndex main, SuggestIndex changes, Set<Long> changedIds) {
+
+        int names() {
+            return main.names() + changes.names();
+        }
+
+        long sizeInBytes() {
+            return main.sizeInBytes() + changes.sizeInBytes();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.golocal.productservice.service;
+
+import com.golocal.productservice.repository.ProductSuggestRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counts product detail views, the popularity that ranks suggestions. Views are added up
+ * in memory and written to product.view_count in one statement every
+ * 'product.suggest.views-flush-ms', so a page view never waits for a database write.
+ * Views not yet flushed are lost if the instance stops.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductViewCounter {
+
+    private final ProductSuggestRepository productSuggestRepository;
+
+    private final ConcurrentHashMap<Long, Long> pending = new ConcurrentHashMap<>();
+
+    public void recordView(long productId) {
+        pending.merge(productId, 1L, Long::sum);
+    }
+
+    @Scheduled(fixedDelayString = "${product.suggest.views-flush-ms:10000}")
+    public void flush() {
+        // remove() is atomic per key: a view recorded meanwhile starts a new entry for the next flush
+        Map<Long, Long> views = new HashMap<>();
+        for (Long productId : pending.keySet()) {
+            Long count = pending.remove(productId);
+            if (count != null) {
+                views.put(productId, count);
+            }
+        }
+        try {
+            productSuggestRepository.addViews(views);
+        } catch (RuntimeException e) {
+            log.warn("Could not store {} products' views: {}", views.size(), e.getMessage());
+            views.forEach((productId, count) -> pending.merge(productId, count, Long::sum)); // Retry next time
+        }
+    }
+}
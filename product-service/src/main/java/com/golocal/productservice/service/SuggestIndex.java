@@ -0,0 +1,339 @@
+package com.golocal.productservice.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.LongPredicate;
+
+/**
+ * Immutable, compact prefix index over names (product and supplier names) for
+ * ProductSuggestIndex. Finds the most popular names with a word starting with a prefix,
+ * case-insensitively, in O(log n + k log n) without allocating per name.
+ *
+ * Layout, all in primitive arrays:
+ * - the names' UTF-8 bytes back to back in one byte[] (no String per name);
+ * - one entry per word start of every name ("Organic Apples" has two: "organic apples"
+ *   and "apples"), sorted by the case-folded text from that word on, so the entries
+ *   matching a prefix form one contiguous range found by binary search;
+ * - a range-maximum tree over the entries' popularity, so the top k of a range are taken
+ *   without visiting the rest of the range (a prefix like "b" can match a million names).
+ *
+ * Built once by a Builder, then only read; safe to share between threads.
+ */
+final class SuggestIndex {
+
+    static final long SUPPLIER = -1; // Product id of a supplier name
+
+    private final byte[] text; // UTF-8 names, back to back
+    private final int[] offsets; // Name -> start in text; offsets[names] = text length
+    private final long[] productIds; // Name -> product id, or SUPPLIER
+    private final int[] scores; // Name -> popularity
+    private final int[] entryName; // Entry -> name, in sorted order
+    private final short[] entryStart; // Entry -> byte offset of the word within the name
+    private final int[] tree; // Range-maximum tree: node -> entry with the highest score below it (leaves implicit)
+
+    private SuggestIndex(byte[] text, int[] offsets, long[] productIds, int[] scores, int[] entryName, short[] entryStart) {
+        this.text = text;
+        this.offsets = offsets;
+        this.productIds = productIds;
+        this.scores = scores;
+        this.entryName = entryName;
+        this.entryStart = entryStart;
+        int entries = entryName.length;
+        this.tree = new int[Math.max(1, entries)];
+        for (int node = entries - 1; node >= 1; node--) {
+            tree[node] = better(top(2 * node), top(2 * node + 1));
+        }
+    }
+
+    /**
+     * Case-folds a prefix as the index folds names.
+     */
+    static int[] fold(String prefix) {
+        return prefix.codePoints().map(Character::toLowerCase).toArray();
+    }
+
+    /**
+     * @param prefix Folded prefix (see fold); must not be empty.
+     * @param limit  Most names to return.
+     * @param skip   Product ids to leave out (superseded by newer data), or null.
+     * @return Up to 'limit' distinct names with a word starting with the prefix, most popular
+     *         first (ties: alphabetical by the matching word).
+     */
+    List<Suggestion> top(int[] prefix, int limit, LongPredicate skip) {
+        int from = lowerBound(prefix, false);
+        int to = lowerBound(prefix, true);
+        List<Suggestion> result = new ArrayList<>(limit);
+        if (from >= to) {
+            return result;
+        }
+        // Best-first over sub-ranges: each queued range is represented by its best entry
+        PriorityQueue<int[]> ranges = new PriorityQueue<>((a, b) -> compareEntries(a[2], b[2]));
+        ranges.add(new int[]{from, to, argMax(from, to)});
+        int[] taken = new int[limit];
+        while (result.size() < limit && !ranges.isEmpty()) {
+            int[] range = ranges.poll();
+            int entry = range[2];
+            int name = entryName[entry];
+            if ((skip == null || !skip.test(productIds[name])) && !contains(taken, result.size(), name)) {
+                taken[result.size()] = name;
+                result.add(new Suggestion(nameAt(name), productIds[name], scores[name]));
+            }
+            if (range[0] < entry) {
+                ranges.add(new int[]{range[0], entry, argMax(range[0], entry)});
+            }
+            if (entry + 1 < range[1]) {
+                ranges.add(new int[]{entry + 1, range[1], argMax(entry + 1, range[1])});
+            }
+        }
+        return result;
+    }
+
+    int names() {
+        return scores.length;
+    }
+
+    long sizeInBytes() {
+        return text.length + (long) offsets.length * Integer.BYTES + (long) productIds.length * Long.BYTES
+                + (long) scores.length * Integer.BYTES + (long) entryName.length * Integer.BYTES
+                + (long) entryStart.length * Short.BYTES + (long) tree.length * Integer.BYTES;
+    }
+
+    private String nameAt(int name) {
+        return new String(text, offsets[name], offsets[name + 1] - offsets[name], StandardCharsets.UTF_8);
+    }
+
+    // First entry whose text is not below the prefix (or, with 'after', not below or starting with it)
+    private int lowerBound(int[] prefix, boolean after) {
+        int low = 0;
+        int high = entryName.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int cmp = comparePrefix(mid, prefix);
+            if (cmp < 0 || (after && cmp == 0)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // <0: the entry's text sorts before the prefix; 0: it starts with the prefix; >0: after
+    private int comparePrefix(int entry, int[] prefix) {
+        int position = offsets[entryName[entry]] + entryStart[entry];
+        int end = offsets[entryName[entry] + 1];
+        for (int codePoint : prefix) {
+            if (position >= end) {
+                return -1;
+            }
+            int c = foldedAt(text, position);
+            if (c != codePoint) {
+                return Integer.compare(c, codePoint);
+            }
+            position += utf8Length(text[position]);
+        }
+        return 0;
+    }
+
+    // Entry with the highest score in [from, to); ties go to the lower (alphabetically first) entry
+    private int argMax(int from, int to) {
+        int entries = entryName.length;
+        int best = -1;
+        for (int low = from + entries, high = to + entries; low < high; low >>= 1, high >>= 1) {
+            if ((low & 1) == 1) {
+                best = better(best, top(low++));
+            }
+            if ((high & 1) == 1) {
+                best = better(best, top(--high));
+            }
+        }
+        return best;
+    }
+
+    private int top(int node) {
+        return node >= entryName.length ? node - entryName.length : tree[node];
+    }
+
+    private int better(int a, int b) {
+        if (a < 0) {
+            return b;
+        }
+        return compareEntries(a, b) <= 0 ? a : b;
+    }
+
+    // Higher score first, then lower entry
+    private int compareEntries(int a, int b) {
+        int cmp = Integer.compare(scores[entryName[b]], scores[entryName[a]]);
+        return cmp != 0 ? cmp : Integer.compare(a, b);
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Lower-cased code point of the UTF-8 sequence at 'position' (input is valid UTF-8 from String.getBytes)
+    private static int foldedAt(byte[] bytes, int position) {
+        int b = bytes[position] & 0xff;
+        if (b < 0x80) {
+            return b >= 'A' && b <= 'Z' ? b + ('a' - 'A') : b;
+        }
+        int codePoint;
+        if (b < 0xE0) {
+            codePoint = (b & 0x1F) << 6 | (bytes[position + 1] & 0x3F);
+        } else if (b < 0xF0) {
+            codePoint = (b & 0x0F) << 12 | (bytes[position + 1] & 0x3F) << 6 | (bytes[position + 2] & 0x3F);
+        } else {
+            codePoint = (b & 0x07) << 18 | (bytes[position + 1] & 0x3F) << 12
+                    | (bytes[position + 2] & 0x3F) << 6 | (bytes[position + 3] & 0x3F);
+        }
+        return Character.toLowerCase(codePoint);
+    }
+
+    private static int utf8Length(byte first) {
+        int b = first & 0xff;
+        return b < 0x80 ? 1 : b < 0xE0 ? 2 : b < 0xF0 ? 3 : 4;
+    }
+
+    /**
+     * One suggested name.
+     *
+     * @param text      The name as stored.
+     * @param productId The product's id, or SUPPLIER for a supplier name.
+     * @param score     Its popularity.
+     */
+    record Suggestion(String text, long productId, int score) {
+    }
+
+    /**
+     * Collects names, then sorts them into a SuggestIndex. Names are encoded as they are
+     * added, so a build holds no String per name.
+     */
+    static final class Builder {
+
+        private byte[] text = new byte[1 << 16];
+        private int textLength;
+        private int[] offsets = new int[1025];
+        private long[] productIds = new long[1024];
+        private int[] scores = new int[1024];
+        private int names;
+
+        /**
+         * @param name      The name (blank names are ignored).
+         * @param productId The product's id, or SUPPLIER.
+         * @param score     Popularity (clamped to int).
+         */
+        Builder add(String name, long productId, long score) {
+            if (name == null || name.isBlank()) {
+                return this;
+            }
+            byte[] bytes = name.strip().getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > Short.MAX_VALUE) {
+                return this; // Word offsets are shorts; far above the 150-character column limit
+            }
+            if (textLength + bytes.length > text.length) {
+                text = Arrays.copyOf(text, Math.max(textLength + bytes.length, text.length * 2));
+            }
+            if (names == scores.length) {
+                offsets = Arrays.copyOf(offsets, names * 2 + 1);
+                productIds = Arrays.copyOf(productIds, names * 2);
+                scores = Arrays.copyOf(scores, names * 2);
+            }
+            System.arraycopy(bytes, 0, text, textLength, bytes.length);
+            offsets[names] = textLength;
+            productIds[names] = productId;
+            scores[names] = (int) Math.min(Integer.MAX_VALUE, Math.max(0, score));
+            textLength += bytes.length;
+            names++;
+            offsets[names] = textLength;
+            return this;
+        }
+
+        SuggestIndex build() {
+            byte[] finalText = Arrays.copyOf(text, textLength);
+            int[] finalOffsets = Arrays.copyOf(offsets, names + 1);
+
+            // One entry per word start: the name's start, and every letter or digit after a separator
+            int entries = 0;
+            int[] entryName = new int[names + names / 2 + 16];
+            short[] entryStart = new short[entryName.length];
+            for (int name = 0; name < names; name++) {
+                boolean separator = true;
+                for (int position = finalOffsets[name]; position < finalOffsets[name + 1]; position += utf8Length(finalText[position])) {
+                    boolean wordChar = Character.isLetterOrDigit(foldedAt(finalText, position));
+                    if (wordChar && separator) {
+                        if (entries == entryName.length) {
+                            entryName = Arrays.copyOf(entryName, entries * 2);
+                            entryStart = Arrays.copyOf(entryStart, entries * 2);
+                        }
+                        entryName[entries] = name;
+                        entryStart[entries] = (short) (position - finalOffsets[name]);
+                        entries++;
+                    }
+                    separator = !wordChar;
+                }
+            }
+
+            // Sort entries by their folded text (a merge sort over packed entry numbers)
+            long[] packed = new long[entries];
+            for (int i = 0; i < entries; i++) {
+                packed[i] = (long) entryName[i] << 16 | (entryStart[i] & 0xFFFF);
+            }
+            mergeSort(packed, new long[entries], 0, entries, finalText, finalOffsets);
+            int[] sortedName = new int[entries];
+            short[] sortedStart = new short[entries];
+            for (int i = 0; i < entries; i++) {
+                sortedName[i] = (int) (packed[i] >>> 16);
+                sortedStart[i] = (short) packed[i];
+            }
+            return new SuggestIndex(finalText, finalOffsets, Arrays.copyOf(productIds, names),
+                    Arrays.copyOf(scores, names), sortedName, sortedStart);
+        }
+
+        private static void mergeSort(long[] values, long[] buffer, int from, int to, byte[] text, int[] offsets) {
+            if (to - from < 2) {
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            mergeSort(values, buffer, from, mid, text, offsets);
+            mergeSort(values, buffer, mid, to, text, offsets);
+            if (compareText(values[mid - 1], values[mid], text, offsets) <= 0) {
+                return; // Already in order
+            }
+            System.arraycopy(values, from, buffer, from, to - from);
+            for (int i = from, left = from, right = mid; i < to; i++) {
+                if (right >= to || (left < mid && compareText(buffer[left], buffer[right], text, offsets) <= 0)) {
+                    values[i] = buffer[left++];
+                } else {
+                    values[i] = buffer[right++];
+                }
+            }
+        }
+
+        // Compares two packed entries by their folded text from the word start to the end of the name
+        private static int compareText(long a, long b, byte[] text, int[] offsets) {
+            int nameA = (int) (a >>> 16);
+            int nameB = (int) (b >>> 16);
+            int positionA = offsets[nameA] + (int) (a & 0xFFFF);
+            int positionB = offsets[nameB] + (int) (b & 0xFFFF);
+            int endA = offsets[nameA + 1];
+            int endB = offsets[nameB + 1];
+            while (positionA < endA && positionB < endB) {
+                int cmp = Integer.compare(foldedAt(text, positionA), foldedAt(text, positionB));
+                if (cmp != 0) {
+                    return cmp;
+                }
+                positionA += utf8Length(text[positionA]);
+                positionB += utf8Length(text[positionB]);
+            }
+            return Integer.compare(endA - positionA, endB - positionB);
+        }
+    }
+}
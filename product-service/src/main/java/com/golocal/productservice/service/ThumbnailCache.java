@@ -0,0 +1,148 @@
+package com.golocal.productservice.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * On-disk store of generated thumbnails, addressed by ThumbnailService's key (a hash of
+ * what the thumbnail is derived from), evicting the least recently used files once the
+ * total exceeds 'product.media.cache-max-size'.
+ *
+ * Files are written under a temporary name and moved into place, so a reader never sees
+ * a partial file; an existing file is never rewritten (same key, same content). Recency is
+ * tracked in memory; on startup the existing files are taken in modification-time order.
+ */
+@Component
+@Slf4j
+public class ThumbnailCache {
+
+    private final Path directory;
+    private final long maxBytes;
+
+    // Key -> file size, in access order (least recently used first); guarded by 'this'
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(1024, 0.75f, true);
+    private long totalBytes;
+
+    public ThumbnailCache(@Value("${product.media.cache-dir:${java.io.tmpdir}/golocal-thumbnails}") Path directory,
+                          @Value("${product.media.cache-max-size:512MB}") DataSize maxSize,
+                          MeterRegistry meterRegistry) {
+        this.directory = directory;
+        this.maxBytes = maxSize.toBytes();
+        Gauge.builder("golocal.products.thumbnails.cache.size", this, ThumbnailCache::totalBytes)
+                .description("Bytes of thumbnails in this instance's disk cache")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void load() throws IOException {
+        Files.createDirectories(directory);
+        List<Map.Entry<Path, BasicFileAttributes>> files = new ArrayList<>();
+        try (Stream<Path> paths = Files.walk(directory, 2)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                if (!attributes.isRegularFile()) {
+                    continue;
+                }
+                if (path.getFileName().toString().endsWith(".tmp")) {
+                    Files.deleteIfExists(path); // Left by a write interrupted by a stop
+                } else {
+                    files.add(Map.entry(path, attributes));
+                }
+            }
+        }
+        files.sort(Comparator.comparing(file -> file.getValue().lastModifiedTime()));
+        synchronized (this) {
+            for (Map.Entry<Path, BasicFileAttributes> file : files) {
+                String name = file.getKey().getFileName().toString();
+                entries.put(name.substring(0, name.length() - ".jpg".length()), file.getValue().size());
+                totalBytes += file.getValue().size();
+            }
+            evict();
+        }
+        log.info("Thumbnail cache at {}: {} files, {} KB", directory, files.size(), totalBytes() / 1024);
+    }
+
+    /**
+     * @return The cached thumbnail's file, or null if there is none.
+     */
+    public Path get(String key) {
+        synchronized (this) {
+            if (entries.get(key) == null) { // get() also marks it as recently used
+                return null;
+            }
+        }
+        return pathOf(key);
+    }
+
+    /**
+     * Stores a thumbnail and evicts the least recently used ones beyond the size limit.
+     *
+     * @return The stored thumbnail's file.
+     */
+    public Path put(String key, byte[] content) {
+        Path path = pathOf(key);
+        try {
+            Files.createDirectories(path.getParent());
+            Path temporary = Files.createTempFile(path.getParent(), key, ".tmp");
+            Files.write(temporary, content);
+            try {
+                Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store thumbnail " + key, e);
+        }
+        synchronized (this) {
+            Long previous = entries.put(key, (long) content.length);
+            totalBytes += content.length - (previous != null ? previous : 0);
+            evict();
+        }
+        return path;
+    }
+
+    synchronized long totalBytes() {
+        return totalBytes;
+    }
+
+    // Two-character fan-out keeps directories small
+    private Path pathOf(String key) {
+        return directory.resolve(key.substring(0, 2)).resolve(key + ".jpg");
+    }
+
+    // Caller holds 'this'. The most recent entry is kept even if it alone exceeds the limit.
+    private void evict() {
+        Iterator<Map.Entry<String, Long>> eldest = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && entries.size() > 1) {
+            Map.Entry<String, Long> entry = eldest.next();
+            try {
+                Files.deleteIfExists(pathOf(entry.getKey()));
+            } catch (IOException e) {
+                log.warn("Could not evict thumbnail {}: {}", entry.getKey(), e.getMessage());
+            }
+            totalBytes -= entry.getValue();
+            eldest.remove();
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package com.golocal.productservice.service;
+
+import com.golocal.productservice.entity.Product;
+import com.golocal.productservice.exception.ImageNotFoundException;
+import com.golocal.productservice.exception.ImageOriginException;
+import com.golocal.productservice.exception.ProductNotFoundException;
+import com.golocal.productservice.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+
+/**
+ * Thumbnails of product images in the fixed ThumbnailSizes, generated on first request
+ * and kept in the ThumbnailCache.
+ *
+ * A thumbnail's key is a hash of what it is derived from (image URL, size, encoding
+ * settings), so it never changes for the same inputs and a new image URL gets a new key.
+ * ProductDto.thumbnail carries the key ("v"), which makes the thumbnail URL safe to cache
+ * for a year and lets a cache hit skip the database.
+ *
+ * On a miss the image is downloaded and scaled on a small pool
+ * ('product.media.max-concurrent' threads): a burst of new images queues instead of
+ * decoding dozens of originals at once, and concurrent requests for the same thumbnail
+ * share one download. Failed images are not retried for 'product.media.failure-ttl'.
+ */
+@Service
+@Slf4j
+public class ThumbnailService {
+
+    private static final String KEY_VERSION = "v1"; // Change when the encoding below changes, to re-derive everything
+    private static final float JPEG_QUALITY = 0.82f;
+    private static final long MAX_SOURCE_PIXELS = 40_000_000L; // Decoded as ARGB: 160 MB
+    private static final Pattern KEY = Pattern.compile("[0-9a-f]{32}");
+    private static final String TIMER = "golocal.products.thumbnails";
+
+    // For keyOf: one digest per thread, and the "<version>|<size>|" prefix of each size as UTF-8
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+    private static final Map<ThumbnailSize, byte[]> KEY_PREFIXES = new EnumMap<>(ThumbnailSize.class);
+
+    static {
+        for (ThumbnailSize size : ThumbnailSize.values()) {
+            KEY_PREFIXES.put(size, (KEY_VERSION + "|" + size.name() + "|").getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private final ProductRepository productRepository;
+    private final ImageOriginClient imageOriginClient;
+    private final ThumbnailCache thumbnailCache;
+    private final MeterRegistry meterRegistry;
+    private final Duration generateTimeout;
+    private final Duration failureTtl;
+    private final ThreadPoolTaskExecutor executor;
+
+    private final Map<String, Future<Path>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Failure> failures = new ConcurrentHashMap<>(); // Key -> recent failure
+
+    public ThumbnailService(ProductRepository productRepository,
+                            ImageOriginClient imageOriginClient,
+                            ThumbnailCache thumbnailCache,
+                            MeterRegistry meterRegistry,
+                            @Value("${product.media.max-concurrent:2}") int maxConcurrent,
+                            @Value("${product.media.generate-timeout:8s}") Duration generateTimeout,
+                            @Value("${product.media.failure-ttl:5m}") Duration failureTtl) {
+        this.productRepository = productRepository;
+        this.imageOriginClient = imageOriginClient;
+        this.thumbnailCache = thumbnailCache;
+        this.meterRegistry = meterRegistry;
+        this.generateTimeout = generateTimeout;
+        this.failureTtl = failureTtl;
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(maxConcurrent);
+        this.executor.setMaxPoolSize(maxConcurrent);
+        this.executor.setQueueCapacity(1000);
+        this.executor.setThreadNamePrefix("thumbnail-");
+        this.executor.initialize();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * @return The thumbnail path for a product, for ProductDto ("/api/products/{id}/thumbnail?..."),
+     *         or null if the product has no image.
+     */
+    public String thumbnailPath(Product product, ThumbnailSize size) {
+        return thumbnailPath(product.getId(), product.getImage(), size);
+    }
+
+    /**
+     * The same from a product's ID and image URL (ProductListWriter, which has no entity).
+     */
+    public String thumbnailPath(long productId, String image, ThumbnailSize size) {
+        if (!StringUtils.hasText(image)) {
+            return null;
+        }
+        return "/api/products/" + productId + "/thumbnail?size=" + size.name().toLowerCase(Locale.ROOT)
+                + "&v=" + keyOf(image, size);
+    }
+
+    /**
+     * Finds or generates a product's thumbnail.
+     *
+     * @param productId    The product.
+     * @param size         The thumbnail size.
+     * @param requestedKey The 'v' from the thumbnail path, or null. If its thumbnail is cached
+     *                     it is returned without reading the product.
+     * @return The thumbnail file and its key (differs from requestedKey if the image changed since).
+     * @throws ProductNotFoundException if there is no such product.
+     * @throws ImageNotFoundException   if the product has no image or the origin does not have it.
+     * @throws ImageOriginException     if the image could not be fetched or decoded.
+     */
+    public Thumbnail getThumbnail(long productId, ThumbnailSize size, String requestedKey) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String result = "error";
+        try {
+            if (requestedKey != null && KEY.matcher(requestedKey).matches()) {
+                Path cached = thumbnailCache.get(requestedKey);
+                if (cached != null) {
+                    result = "hit";
+                    return new Thumbnail(cached, requestedKey);
+                }
+            }
+            Product product = productRepository.findById(productId)
+                    .orElseThrow(() -> new ProductNotFoundException(productId));
+            if (!StringUtils.hasText(product.getImage())) {
+                throw new ImageNotFoundException("Product " + productId + " has no image");
+            }
+            String key = keyOf(product.getImage(), size);
+            Path cached = thumbnailCache.get(key);
+            if (cached != null) {
+                result = "hit";
+                return new Thumbnail(cached, key);
+            }
+            Path generated = await(key, product.getImage(), size);
+            result = "miss";
+            return new Thumbnail(generated, key);
+        } finally {
+            sample.stop(meterRegistry.timer(TIMER, "size", size.name().toLowerCase(Locale.ROOT), "result", result));
+        }
+    }
+
+    // Waits for the thumbnail, generating it unless a request for the same key already is
+    private Path await(String key, String imageUrl, ThumbnailSize size) {
+        Failure failure = failures.get(key);
+        if (failure != null) {
+            if (System.nanoTime() - failure.atNanos() < failureTtl.toNanos()) {
+                throw failure.exception();
+            }
+            failures.remove(key, failure);
+        }
+        Future<Path> future = inFlight.computeIfAbsent(key, k -> executor.submit(() -> {
+            try {
+                return thumbnailCache.put(k, render(imageOriginClient.fetch(imageUrl), size));
+            } catch (ImageNotFoundException | ImageOriginException e) {
+                log.warn("Could not generate thumbnail {} from {}: {}", k, imageUrl, e.getMessage());
+                failures.put(k, new Failure(e, System.nanoTime()));
+                throw e;
+            } finally {
+                inFlight.remove(k);
+            }
+        }));
+        try {
+            return future.get(generateTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new ImageOriginException("Thumbnail generation failed", e.getCause());
+        } catch (TimeoutException | CancellationException e) {
+            future.cancel(true); // Interrupts a stalled download
+            throw new ImageOriginException("Thumbnail generation timed out after " + generateTimeout.toMillis() + " ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ImageOriginException("Interrupted while waiting for a thumbnail", e);
+        }
+    }
+
+    // Decodes the image (checking its dimensions first), scales it to fit the size and encodes it as JPEG;
+    // in memory throughout (ImageIO's default streams may spill to temporary files)
+    private static byte[] render(byte[] source, ThumbnailSize size) {
+        BufferedImage image;
+        try (ImageInputStream input = new MemoryCacheImageInputStream(new ByteArrayInputStream(source))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new ImageOriginException("Not a supported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                if ((long) reader.getWidth(0) * reader.getHeight(0) > MAX_SOURCE_PIXELS) {
+                    throw new ImageOriginException("Image too large: " + reader.getWidth(0) + "x" + reader.getHeight(0));
+                }
+                image = reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            throw new ImageOriginException("Could not decode image: " + e.getMessage(), e);
+        }
+
+        double scale = Math.min(1.0, Math.min((double) size.getWidth() / image.getWidth(),
+                (double) size.getHeight() / image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+
+        // Halve with bilinear filtering until within 2x of the target: a single bilinear step
+        // from a large original skips most source pixels and looks aliased
+        BufferedImage current = image;
+        int currentWidth = image.getWidth();
+        int currentHeight = image.getHeight();
+        do {
+            currentWidth = Math.max(width, currentWidth / 2);
+            currentHeight = Math.max(height, currentHeight / 2);
+            if (currentWidth < width * 2 && currentHeight < height * 2) {
+                currentWidth = width;
+                currentHeight = height;
+            }
+            BufferedImage step = new BufferedImage(currentWidth, currentHeight, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = step.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.setColor(Color.WHITE); // Transparent areas become white in JPEG
+                graphics.fillRect(0, 0, currentWidth, currentHeight);
+                graphics.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = step;
+        } while (currentWidth != width || currentHeight != height);
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream(32 * 1024);
+        try (ImageOutputStream output = new MemoryCacheImageOutputStream(encoded)) {
+            writer.setOutput(output);
+            ImageWriteParam parameters = writer.getDefaultWriteParam();
+            parameters.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            parameters.setCompressionQuality(JPEG_QUALITY);
+            parameters.setProgressiveMode(ImageWriteParam.MODE_DISABLED);
+            writer.write(null, new IIOImage(current, null, null), parameters);
+        } catch (IOException e) {
+            throw new ImageOriginException("Could not encode thumbnail: " + e.getMessage(), e);
+        } finally {
+            writer.dispose();
+        }
+        return encoded.toByteArray();
+    }
+
+    // 128 bits of SHA-256 over "<version>|<size>|<url>": a content address for the derived file.
+    // Computed for every product in a list response, hence the reused digest and prefixes above.
+    private static String keyOf(String imageUrl, ThumbnailSize size) {
+        MessageDigest digest = SHA_256.get();
+        digest.update(KEY_PREFIXES.get(size));
+        byte[] hash = digest.digest(imageUrl.trim().getBytes(StandardCharsets.UTF_8)); // digest() also resets it
+        return HexFormat.of().formatHex(hash, 0, 16);
+    }
+
+    /**
+     * A thumbnail file and its key.
+     */
+    public record Thumbnail(Path file, String key) {
+    }
+
+    private record Failure(RuntimeException exception, long atNanos) {
+    }
+}
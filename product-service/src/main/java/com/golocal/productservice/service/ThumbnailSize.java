@@ -0,0 +1,38 @@
+package com.golocal.productservice.service;
+
+import java.util.Locale;
+
+/**
+ * The fixed thumbnail sizes ThumbnailService derives from product images. An image is
+ * scaled to fit the box, keeping its aspect ratio, and never enlarged.
+ */
+public enum ThumbnailSize {
+
+    SMALL(150, 150),   // Suggestion lists, inquiry rows
+    MEDIUM(400, 300),  // Product cards
+    LARGE(800, 600);   // Product cards on high-density screens, product page
+
+    private final int width;
+    private final int height;
+
+    ThumbnailSize(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return The size for a request parameter ("small", "medium", "large"; any case).
+     * @throws IllegalArgumentException if there is no such size.
+     */
+    public static ThumbnailSize fromParameter(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
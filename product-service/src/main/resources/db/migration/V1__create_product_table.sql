@@ -0,0 +1,28 @@
+-- Schema of 'product' as Hibernate's ddl-auto=update last created it, before migrations took over.
+-- Also applied to databases created by ddl-auto (baseline version 0): existing objects are
+-- kept, and the columns and index added by later releases are created if missing.
+
+CREATE TABLE IF NOT EXISTS product (
+    id             BIGSERIAL PRIMARY KEY,
+    name           VARCHAR(150) NOT NULL,
+    price          VARCHAR(50),
+    price_amount   NUMERIC(12, 2),
+    price_currency VARCHAR(3),
+    image          VARCHAR(512),
+    supplier_name  VARCHAR(100) NOT NULL,
+    description    TEXT,
+    category       VARCHAR(100),
+    view_count     BIGINT NOT NULL DEFAULT 0,
+    created_at     TIMESTAMP(6) WITH TIME ZONE,
+    updated_at     TIMESTAMP(6) WITH TIME ZONE,
+    CONSTRAINT uk_product_name UNIQUE (name)
+);
+
+-- Added by the faceted browsing and suggestion releases
+ALTER TABLE product ADD COLUMN IF NOT EXISTS price_amount NUMERIC(12, 2);
+ALTER TABLE product ADD COLUMN IF NOT EXISTS price_currency VARCHAR(3);
+ALTER TABLE product ADD COLUMN IF NOT EXISTS view_count BIGINT NOT NULL DEFAULT 0;
+
+CREATE INDEX IF NOT EXISTS idx_product_supplier ON product (supplier_name);
+-- Incremental refresh of ProductFacetIndex and ProductSuggestIndex
+CREATE INDEX IF NOT EXISTS idx_product_updated_at ON product (updated_at);
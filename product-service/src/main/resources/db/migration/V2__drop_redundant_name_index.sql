@@ -0,0 +1,6 @@
+-- idx_product_name duplicates the index behind uk_product_name (both are btree (name)), so
+-- every insert and rename maintained two identical indexes. Lookups and sorts by name use
+-- the unique one.
+-- CONCURRENTLY: does not block reads and writes of 'product'; Flyway runs this migration
+-- outside a transaction.
+DROP INDEX CONCURRENTLY IF EXISTS idx_product_name;
@@ -0,0 +1,3 @@
+-- Trigram operator classes for the substring search indexes (V4). pg_trgm ships with
+-- PostgreSQL and is a trusted extension, so the database owner can create it.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
@@ -0,0 +1,14 @@
+-- GET /api/products?search= matches the term anywhere in the name or supplier name
+-- (upper(name) LIKE upper('%term%'), see ProductRepository), which a btree index cannot
+-- serve: every search read the whole table. GIN trigram indexes on the same expressions
+-- turn both conditions into index scans.
+--
+-- CONCURRENTLY builds the indexes without blocking writes to 'product'; Flyway runs this
+-- migration outside a transaction. An interrupted concurrent build leaves an INVALID index
+-- behind, so each index is dropped first: after 'flyway repair' the migration can simply
+-- run again.
+DROP INDEX CONCURRENTLY IF EXISTS idx_product_name_trgm;
+CREATE INDEX CONCURRENTLY idx_product_name_trgm ON product USING gin (upper(name) gin_trgm_ops);
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_product_supplier_trgm;
+CREATE INDEX CONCURRENTLY idx_product_supplier_trgm ON product USING gin (upper(supplier_name) gin_trgm_ops);
@@ -0,0 +1,79 @@
+#!/usr/bin/env python3
+"""
+Drives concurrent load through the API Gateway and reports how requests were spread
+across upstream instances (via the X-Instance header set by scripts/stub-service.py)
+together with client-observed latency percentiles and errors.
+
+Typical setup: three stubs, one of them slow, behind product-service:
+  python3 scripts/stub-service.py --port 8181 --name fast-1 &
+  python3 scripts/stub-service.py --port 8182 --name fast-2 &
+  python3 scripts/stub-service.py --port 8183 --name slow --delay-ms 200 &
+and start the gateway with spring.cloud.discovery.client.simple.instances.product-service[0..2].uri
+pointing at them (see docs/performance.md).
+
+Usage: python3 scripts/measure-lb.py [requests per worker] [workers] [gateway base url] [path]
+"""
+import collections
+import http.client
+import sys
+import threading
+import time
+from urllib.parse import urlparse
+
+PER_WORKER = int(sys.argv[1]) if len(sys.argv) > 1 else 500
+WORKERS = int(sys.argv[2]) if len(sys.argv) > 2 else 16
+BASE = urlparse(sys.argv[3] if len(sys.argv) > 3 else "http://localhost:9000")
+PATH = sys.argv[4] if len(sys.argv) > 4 else "/api/products/1"
+
+lock = threading.Lock()
+instances = collections.Counter()
+statuses = collections.Counter()
+latencies = []
+
+
+def worker():
+    conn = http.client.HTTPConnection(BASE.hostname, BASE.port or 80, timeout=30)
+    local_instances, local_statuses, local_latencies = collections.Counter(), collections.Counter(), []
+    for _ in range(PER_WORKER):
+        start = time.perf_counter()
+        try:
+            conn.request("GET", PATH)
+            response = conn.getresponse()
+            response.read()
+            local_statuses[response.status] += 1
+            local_instances[response.getheader("X-Instance", "-")] += 1
+        except (OSError, http.client.HTTPException):
+            local_statuses["error"] += 1
+            conn.close()
+            conn = http.client.HTTPConnection(BASE.hostname, BASE.port or 80, timeout=30)
+        local_latencies.append(time.perf_counter() - start)
+    with lock:
+        instances.update(local_instances)
+        statuses.update(local_statuses)
+        latencies.extend(local_latencies)
+
+
+def percentile(sorted_values, p):
+    return sorted_values[min(len(sorted_values) - 1, int(len(sorted_values) * p))] * 1000
+
+
+def main():
+    threads = [threading.Thread(target=worker) for _ in range(WORKERS)]
+    start = time.perf_counter()
+    for t in threads:
+        t.start()
+    for t in threads:
+        t.join()
+    elapsed = time.perf_counter() - start
+
+    total = len(latencies)
+    latencies.sort()
+    print(f"requests={total} throughput_rps={total / elapsed:.0f} "
+          f"p50_ms={percentile(latencies, 0.50):.1f} p95_ms={percentile(latencies, 0.95):.1f} "
+          f"p99_ms={percentile(latencies, 0.99):.1f} mean_ms={sum(latencies) / total * 1000:.1f}")
+    print("statuses: " + ", ".join(f"{k}={v}" for k, v in sorted(statuses.items(), key=str)))
+    print("instances: " + ", ".join(f"{k}={v} ({v * 100 / total:.1f}%)" for k, v in sorted(instances.items())))
+
+
+if __name__ == "__main__":
+    main()
@@ -0,0 +1,49 @@
+#!/usr/bin/env python3
+"""
+Measures logging cost per request on the API Gateway.
+
+Sends N requests with an invalid bearer token to a secured route (the auth-failure
+path in JwtAuthFilter) and reports how many log events were emitted per request,
+using the 'logback_events_total' counter from /actuator/prometheus, plus the mean
+client-observed latency.
+
+Usage: python3 scripts/measure-log-events.py [requests] [gateway base url]
+"""
+import http.client
+import re
+import sys
+import time
+from urllib.parse import urlparse
+
+N = int(sys.argv[1]) if len(sys.argv) > 1 else 5000
+BASE = urlparse(sys.argv[2] if len(sys.argv) > 2 else "http://localhost:9000")
+PATH = "/api/inquiries/my-inquiries"
+HEADERS = {"Authorization": "Bearer abc.def.ghi"}
+
+
+def log_events(conn):
+    conn.request("GET", "/actuator/prometheus")
+    body = conn.getresponse().read().decode()
+    return sum(float(v) for v in re.findall(r"^logback_events_total\{[^}]*\} (\S+)", body, re.M))
+
+
+def main():
+    conn = http.client.HTTPConnection(BASE.hostname, BASE.port or 80)
+    for _ in range(200):  # Warm-up (JIT, connection)
+        conn.request("GET", PATH, headers=HEADERS)
+        conn.getresponse().read()
+
+    before = log_events(conn)
+    start = time.perf_counter()
+    for _ in range(N):
+        conn.request("GET", PATH, headers=HEADERS)
+        conn.getresponse().read()
+    elapsed = time.perf_counter() - start
+    after = log_events(conn)
+
+    print(f"requests={N} log_events_per_request={(after - before) / N:.2f} "
+          f"mean_latency_us={elapsed / N * 1e6:.0f}")
+
+
+if __name__ == "__main__":
+    main()
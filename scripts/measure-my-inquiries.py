@@ -0,0 +1,67 @@
+#!/usr/bin/env python3
+"""
+Measures "my inquiries" latency and payload size for a given user: the first page,
+and a page deep in the list (reached by following nextCursor), so you can check the
+per-request cost does not grow with the number of inquiries a user has.
+
+Auth: set TOKEN to a JWT when going through the gateway (default base URL), or set
+USER_ID to send X-User-Id directly to a service instance that trusts the header.
+
+Usage: TOKEN=<jwt> python3 scripts/measure-my-inquiries.py [base url] [runs] [deep page] [page size]
+"""
+import http.client
+import json
+import os
+import sys
+import time
+from urllib.parse import urlparse
+
+BASE = urlparse(sys.argv[1] if len(sys.argv) > 1 else "http://localhost:9000")
+RUNS = int(sys.argv[2]) if len(sys.argv) > 2 else 50
+DEEP_PAGE = int(sys.argv[3]) if len(sys.argv) > 3 else 100
+LIMIT = int(sys.argv[4]) if len(sys.argv) > 4 else 20
+HEADERS = ({"Authorization": "Bearer " + os.environ["TOKEN"]} if "TOKEN" in os.environ
+           else {"X-User-Id": os.environ.get("USER_ID", "1")})
+
+conn = http.client.HTTPConnection(BASE.hostname, BASE.port or 80, timeout=60)
+
+
+def get(path):
+    conn.request("GET", path, headers=HEADERS)
+    response = conn.getresponse()
+    body = response.read()
+    if response.status != 200:
+        sys.exit(f"GET {path} -> {response.status}: {body[:200]!r}")
+    return body
+
+
+def page_path(cursor):
+    return f"/api/inquiries/my-inquiries?limit={LIMIT}" + (f"&cursor={cursor}" if cursor else "")
+
+
+def measure(label, path):
+    get(path)  # Warm-up
+    timings, size = [], 0
+    for _ in range(RUNS):
+        start = time.perf_counter()
+        size = len(get(path))
+        timings.append(time.perf_counter() - start)
+    timings.sort()
+    print(f"{label:<24} bytes={size:<8} p50_ms={timings[len(timings) // 2] * 1000:.2f} "
+          f"mean_ms={sum(timings) / len(timings) * 1000:.2f}")
+
+
+def main():
+    measure("first page", page_path(None))
+    cursor, page = None, 0
+    while page < DEEP_PAGE:  # Follow the cursor chain to the requested depth
+        cursor = json.loads(get(page_path(cursor)))["nextCursor"]
+        page += 1
+        if cursor is None:
+            print(f"(list ends after {page} pages)")
+            return
+    measure(f"page {DEEP_PAGE + 1}", page_path(cursor))
+
+
+if __name__ == "__main__":
+    main()
@@ -0,0 +1,66 @@
+#!/usr/bin/env python3
+"""
+Compares fetching N products one GET /api/products/{id} at a time (over one keep-alive
+connection, as a page rendering a list of inquiries would) with one
+GET /api/products?ids=... for the same N, through the API Gateway. Product IDs are picked
+at random from [first id, last id].
+
+Usage: python3 scripts/measure-product-batch.py [rounds] [first id] [last id] [gateway base url]
+"""
+import http.client
+import json
+import random
+import sys
+import time
+from urllib.parse import urlparse
+
+ROUNDS = int(sys.argv[1]) if len(sys.argv) > 1 else 50
+FIRST_ID = int(sys.argv[2]) if len(sys.argv) > 2 else 1
+LAST_ID = int(sys.argv[3]) if len(sys.argv) > 3 else 1000
+BASE = urlparse(sys.argv[4] if len(sys.argv) > 4 else "http://localhost:9000")
+SIZES = (1, 10, 100)
+
+
+def get(conn, path):
+    conn.request("GET", path)
+    response = conn.getresponse()
+    body = response.read()
+    if response.status != 200:
+        raise SystemExit(f"GET {path[:80]} -> {response.status}: {body[:200]!r}")
+    return body
+
+
+def percentile(sorted_values, p):
+    return sorted_values[min(len(sorted_values) - 1, int(len(sorted_values) * p))] * 1000
+
+
+def main():
+    conn = http.client.HTTPConnection(BASE.hostname, BASE.port or 80, timeout=30)
+    random.seed(42)
+    print(f"{'ids':>4} {'mode':>6} {'p50 ms':>8} {'p95 ms':>8} {'requests':>9}")
+    for size in SIZES:
+        looped, batched = [], []
+        for round_ in range(ROUNDS + 5):  # First 5 rounds warm up
+            ids = random.sample(range(FIRST_ID, LAST_ID + 1), size)
+
+            start = time.perf_counter()
+            for product_id in ids:
+                get(conn, f"/api/products/{product_id}")
+            looped_seconds = time.perf_counter() - start
+
+            start = time.perf_counter()
+            batch = json.loads(get(conn, "/api/products?ids=" + ",".join(map(str, ids))))
+            batched_seconds = time.perf_counter() - start
+            if len(batch["products"]) + len(batch["missing"]) != size:
+                raise SystemExit(f"batch answered for {len(batch['products'])}+{len(batch['missing'])} of {size} ids")
+
+            if round_ >= 5:
+                looped.append(looped_seconds)
+                batched.append(batched_seconds)
+        for mode, values, requests in (("looped", looped, size), ("batch", batched, 1)):
+            values.sort()
+            print(f"{size:>4} {mode:>6} {percentile(values, 0.50):>8.1f} {percentile(values, 0.95):>8.1f} {requests:>9}")
+
+
+if __name__ == "__main__":
+    main()
@@ -0,0 +1,28 @@
+#!/bin/bash
+# Measures bytes on the wire and time to first byte for the product list through the gateway,
+# for each protocol/encoding combination a browser may negotiate.
+#
+# Usage: scripts/measure-product-list.sh [gateway base url] [requests per case]
+set -e
+
+BASE_URL=${1:-http://localhost:9000}
+RUNS=${2:-20}
+URL="$BASE_URL/api/products"
+
+measure() {
+    local label=$1; shift
+    local bytes=0 ttfb_total=0
+    for _ in $(seq "$RUNS"); do
+        read -r size ttfb < <(curl -s -o /dev/null -w '%{size_download} %{time_starttransfer}\n' "$@" "$URL")
+        bytes=$size
+        ttfb_total=$(awk -v a="$ttfb_total" -v b="$ttfb" 'BEGIN { print a + b }')
+    done
+    awk -v l="$label" -v b="$bytes" -v t="$ttfb_total" -v n="$RUNS" \
+        'BEGIN { printf "%-26s bytes=%-8d mean_ttfb_ms=%.2f\n", l, b, t / n * 1000 }'
+}
+
+measure "http/1.1 identity"  --http1.1 -H 'Accept-Encoding: identity'
+measure "http/1.1 gzip"      --http1.1 -H 'Accept-Encoding: gzip'
+measure "http/1.1 br"        --http1.1 -H 'Accept-Encoding: br'
+measure "h2c identity"       --http2-prior-knowledge -H 'Accept-Encoding: identity'
+measure "h2c br"             --http2-prior-knowledge -H 'Accept-Encoding: br'
@@ -0,0 +1,69 @@
+#!/usr/bin/env python3
+"""
+Measures a service's time to first request: starts the given command, polls URL until it
+answers 200 and reports the time from process start to that response, and the process's
+resident memory (RSS) at that point. The process is then stopped with SIGTERM before the
+next run.
+
+Usage: python3 scripts/measure-startup.py <runs> <url> <command...>
+  e.g. python3 scripts/measure-startup.py 5 http://localhost:8081/api/products/1 \
+           java -jar product-service/target/product-service-0.0.1-SNAPSHOT.jar
+       (cd /app && python3 measure-startup.py 5 http://localhost:8081/api/products/1 \
+           java -XX:SharedArchiveFile=app.jsa @classpath.args com.golocal.productservice.ProductServiceApplication)
+       python3 scripts/measure-startup.py 5 http://localhost:8081/api/products/1 product-service/target/product-service
+"""
+import statistics
+import subprocess
+import sys
+import time
+import urllib.error
+import urllib.request
+
+RUNS = int(sys.argv[1])
+URL = sys.argv[2]
+COMMAND = sys.argv[3:]
+TIMEOUT_SECONDS = 180
+
+
+def first_response(process, start):
+    while time.perf_counter() - start < TIMEOUT_SECONDS:
+        if process.poll() is not None:
+            raise SystemExit(f"exited with {process.returncode} before answering")
+        try:
+            with urllib.request.urlopen(URL, timeout=5) as response:
+                if response.status == 200:
+                    return time.perf_counter() - start
+        except (urllib.error.URLError, ConnectionError, TimeoutError):
+            pass
+        time.sleep(0.02)
+    raise SystemExit(f"no 200 from {URL} within {TIMEOUT_SECONDS} s")
+
+
+def rss_mb(pid):
+    with open(f"/proc/{pid}/status") as status:
+        for line in status:
+            if line.startswith("VmRSS:"):
+                return int(line.split()[1]) / 1024
+    return 0.0
+
+
+def main():
+    results, rss = [], []
+    for run in range(RUNS):
+        start = time.perf_counter()
+        process = subprocess.Popen(COMMAND, stdout=subprocess.DEVNULL, stderr=subprocess.DEVNULL)
+        try:
+            seconds = first_response(process, start)
+            rss.append(rss_mb(process.pid))
+        finally:
+            process.terminate()
+            process.wait()
+        results.append(seconds)
+        print(f"run {run}: first request after {seconds * 1000:.0f} ms, RSS {rss[-1]:.0f} MB", flush=True)
+        time.sleep(2)
+    print(f"median {statistics.median(results) * 1000:.0f} ms, min {min(results) * 1000:.0f} ms, "
+          f"median RSS {statistics.median(rss):.0f} MB")
+
+
+if __name__ == "__main__":
+    main()
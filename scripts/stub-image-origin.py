@@ -0,0 +1,114 @@
+#!/usr/bin/env python3
+"""
+Stand-in image host for testing product thumbnails (ThumbnailService) without the internet.
+
+Serves generated images; the path picks size, format and failure mode:
+  GET /img/{w}x{h}.png       -> a w x h PNG gradient (any name after the size is ignored)
+  GET /img/{w}x{h}.bmp       -> the same as an uncompressed BMP (large, fast to decode)
+  GET /missing/...           -> 404
+  GET /broken/...            -> 200 with bytes that are not an image
+  GET /slow/{w}x{h}.png      -> the PNG after --slow-ms
+Each response carries X-Request-Count (requests so far), so a test can check the origin was
+hit once per thumbnail. Start product-service with product.media.allow-private-origins=true.
+
+Usage: python3 scripts/stub-image-origin.py [--port 8190] [--slow-ms 10000]
+"""
+import argparse
+import re
+import struct
+import threading
+import time
+import zlib
+from http.server import BaseHTTPRequestHandler, ThreadingHTTPServer
+
+SIZE = re.compile(r"/(\d{1,5})x(\d{1,5})")
+
+
+def pixels(width, height):
+    # RGB rows: a diagonal gradient, so scaling artifacts would be visible
+    for y in range(height):
+        yield bytes(v for x in range(width)
+                    for v in ((x * 255) // max(1, width - 1), (y * 255) // max(1, height - 1), 128))
+
+
+def png(width, height):
+    def chunk(kind, data):
+        return struct.pack(">I", len(data)) + kind + data + struct.pack(">I", zlib.crc32(kind + data))
+    raw = b"".join(b"\x00" + row for row in pixels(width, height))
+    return (b"\x89PNG\r\n\x1a\n" + chunk(b"IHDR", struct.pack(">IIBBBBB", width, height, 8, 2, 0, 0, 0))
+            + chunk(b"IDAT", zlib.compress(raw, 6)) + chunk(b"IEND", b""))
+
+
+def bmp(width, height):
+    stride = (width * 3 + 3) & ~3
+    rows = []
+    for row in reversed(list(pixels(width, height))):  # Bottom-up, BGR
+        bgr = bytearray(row)
+        bgr[0::3], bgr[2::3] = row[2::3], row[0::3]
+        rows.append(bytes(bgr) + b"\x00" * (stride - width * 3))
+    body = b"".join(rows)
+    header = struct.pack("<2sIHHI", b"BM", 54 + len(body), 0, 0, 54)
+    info = struct.pack("<IiiHHIIiiII", 40, width, height, 1, 24, 0, len(body), 2835, 2835, 0, 0)
+    return header + info + body
+
+
+def make_handler(args):
+    lock = threading.Lock()
+    counter = [0]
+    cache = {}
+
+    class Handler(BaseHTTPRequestHandler):
+        protocol_version = "HTTP/1.1"
+        disable_nagle_algorithm = True
+
+        def do_GET(self):
+            with lock:
+                counter[0] += 1
+            path = self.path.split("?", 1)[0]
+            size = SIZE.search(path)
+            if path.startswith("/missing/"):
+                self.reply(404, "text/plain", b"not found")
+            elif path.startswith("/broken/"):
+                self.reply(200, "image/png", b"this is not an image")
+            elif size and (path.startswith("/img/") or path.startswith("/slow/")):
+                if path.startswith("/slow/"):
+                    time.sleep(args.slow_ms / 1000.0)
+                width, height = int(size.group(1)), int(size.group(2))
+                kind = "bmp" if path.endswith(".bmp") else "png"
+                key = (kind, width, height)
+                with lock:
+                    body = cache.get(key)
+                if body is None:
+                    body = bmp(width, height) if kind == "bmp" else png(width, height)
+                    with lock:
+                        cache[key] = body
+                self.reply(200, "image/" + kind, body)
+            else:
+                self.reply(404, "text/plain", b"unknown path")
+
+        def reply(self, status, content_type, body):
+            self.send_response(status)
+            self.send_header("Content-Type", content_type)
+            self.send_header("Content-Length", str(len(body)))
+            self.send_header("X-Request-Count", str(counter[0]))
+            self.end_headers()
+            self.wfile.write(body)
+
+        def log_message(self, fmt, *a):
+            pass
+
+    return Handler
+
+
+def main():
+    parser = argparse.ArgumentParser()
+    parser.add_argument("--port", type=int, default=8190)
+    parser.add_argument("--slow-ms", type=int, default=10000)
+    args = parser.parse_args()
+    server = ThreadingHTTPServer(("0.0.0.0", args.port), make_handler(args))
+    print(f"image origin listening on :{args.port}", flush=True)
+    server.serve_forever()
+
+
+if __name__ == "__main__":
+    main()
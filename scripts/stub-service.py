@@ -0,0 +1,85 @@
+#!/usr/bin/env python3
+"""
+Stand-in for a backend service, used to exercise the API Gateway without PostgreSQL.
+
+Serves a generated product catalog in the same JSON shape as product-service:
+  GET /api/products        -> list of ProductDto
+  GET /api/products/{id}   -> single ProductDto (404 if unknown)
+  GET /actuator/health     -> {"status":"UP"}
+Any other path returns 200 with a small JSON body naming the instance.
+
+Usage: python3 scripts/stub-service.py [--port 8081] [--products 200] [--delay-ms 0] [--name stub-1]
+"""
+import argparse
+import json
+import time
+from http.server import BaseHTTPRequestHandler, ThreadingHTTPServer
+
+
+def build_catalog(count):
+    suppliers = ["Green Valley Orchards", "Sunset Farms", "Happy Hens Homestead", "Local Bakehouse"]
+    return [{
+        "id": i,
+        "name": f"Organic Product {i}",
+        "price": f"$ {1 + i % 9}.{i % 100:02d} per lb",
+        "image": f"https://placehold.co/300x200/34D399/FFFFFF?text=Product+{i}",
+        "supplierName": suppliers[i % len(suppliers)],
+    } for i in range(1, count + 1)]
+
+
+def make_handler(args, catalog):
+    by_id = {p["id"]: p for p in catalog}
+    list_body = json.dumps(catalog).encode()
+
+    class Handler(BaseHTTPRequestHandler):
+        protocol_version = "HTTP/1.1"  # Keep-alive, like Tomcat
+        disable_nagle_algorithm = True  # Headers and body are separate writes; avoid 40 ms delayed-ACK stalls
+
+        def do_GET(self):
+            if args.delay_ms:
+                time.sleep(args.delay_ms / 1000.0)
+            path = self.path.split("?", 1)[0]
+            if path == "/api/products":
+                self.reply(200, list_body)
+            elif path.startswith("/api/products/"):
+                try:
+                    product = by_id.get(int(path.rsplit("/", 1)[1]))
+                except ValueError:
+                    product = None
+                if product is None:
+                    self.reply(404, b'{"error":"Not Found"}')
+                else:
+                    self.reply(200, json.dumps(product).encode())
+            elif path == "/actuator/health":
+                self.reply(200, b'{"status":"UP"}')
+            else:
+                self.reply(200, json.dumps({"instance": args.name, "path": path}).encode())
+
+        def reply(self, status, body):
+            self.send_response(status)
+            self.send_header("Content-Type", "application/json")
+            self.send_header("Content-Length", str(len(body)))
+            self.send_header("X-Instance", args.name)
+            self.end_headers()
+            self.wfile.write(body)
+
+        def log_message(self, fmt, *a):
+            pass  # Quiet: this is a load target
+
+    return Handler
+
+
+def main():
+    parser = argparse.ArgumentParser()
+    parser.add_argument("--port", type=int, default=8081)
+    parser.add_argument("--products", type=int, default=200)
+    parser.add_argument("--delay-ms", type=int, default=0)
+    parser.add_argument("--name", default="stub")
+    args = parser.parse_args()
+    server = ThreadingHTTPServer(("0.0.0.0", args.port), make_handler(args, build_catalog(args.products)))
+    print(f"{args.name} listening on :{args.port} (delay {args.delay_ms} ms)", flush=True)
+    server.serve_forever()
+
+
+if __name__ == "__main__":
+    main()
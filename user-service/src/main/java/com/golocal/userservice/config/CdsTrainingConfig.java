@@ -0,0 +1,48 @@
+package com.golocal.userservice.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Training run for the class data sharing (AppCDS) archive built into the Docker image (see
+ * the Dockerfile): with profile 'cds-training' the application starts without a database,
+ * answers one request to itself, and exits. The classes it loaded on the way are the ones
+ * archived.
+ */
+@Configuration
+@ConditionalOnProperty(name = "startup.training-run", havingValue = "true")
+@Slf4j
+public class CdsTrainingConfig {
+
+    // Before the other ready listeners, which would need the database
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void exitAfterFirstRequest(ApplicationReadyEvent event) {
+        int port = ((WebServerApplicationContext) event.getApplicationContext()).getWebServer().getPort();
+        try {
+            // Any answer will do (health is DOWN here): it loads what serving a request needs
+            HttpResponse<Void> response = HttpClient.newHttpClient().send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health"))
+                            .timeout(Duration.ofSeconds(30)).build(),
+                    HttpResponse.BodyHandlers.discarding());
+            log.info("Training run: first request answered {}, stopping", response.statusCode());
+        } catch (IOException | InterruptedException e) {
+            log.warn("Training run: first request failed, stopping: {}", e.toString());
+        }
+        System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
+}
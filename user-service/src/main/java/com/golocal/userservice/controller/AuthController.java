@@ -39,7 +39,7 @@ public class AuthController {
         log.debug("Received login request for user: {}", loginRequest.getUsername());
         // AuthService handles authentication logic and exceptions
         AuthResponse authResponse = authService.login(loginRequest);
-        log.info("Login successful via controller for user: {}", loginRequest.getUsername());
+        log.debug("Login successful via controller for user: {}", loginRequest.getUsername()); // Service logs the INFO line
         return ResponseEntity.ok(authResponse);
         // GlobalExceptionHandler will catch AuthenticationException and return 401
     }
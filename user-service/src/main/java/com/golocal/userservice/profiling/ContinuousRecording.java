@@ -0,0 +1,137 @@
+package com.golocal.userservice.profiling;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * The always-on Flight Recorder ring buffer: the last few hours of JFR events (GC, locks,
+ * allocation and CPU samples, the golocal.* events), of which the most recent minutes can be
+ * dumped to a file at any time (JfrEndpoint, SloBreachMonitor).
+ *
+ * The container images start the recording on the command line (-XX:StartFlightRecording,
+ * name "continuous", see the Dockerfile) so it also covers startup; it is adopted here.
+ * Without it (a local 'java -jar') an equivalent recording is started.
+ */
+@Slf4j
+public class ContinuousRecording {
+
+    public static final String NAME = "continuous";
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final String applicationName;
+    private final Path dumpDirectory;
+    private final Duration maxAge;
+    private final DataSize maxSize;
+    private final int maxDumps;
+
+    private Recording recording; // null if JFR is not available (e.g. a native executable built without it)
+    private boolean owned;       // Started here rather than on the command line
+
+    public ContinuousRecording(String applicationName, Path dumpDirectory, Duration maxAge, DataSize maxSize, int maxDumps) {
+        this.applicationName = applicationName;
+        this.dumpDirectory = dumpDirectory;
+        this.maxAge = maxAge;
+        this.maxSize = maxSize;
+        this.maxDumps = maxDumps;
+    }
+
+    public void start() throws IOException, ParseException {
+        if (!FlightRecorder.isAvailable()) {
+            log.warn("Flight Recorder is not available; continuous profiling is disabled");
+            return;
+        }
+        recording = FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .filter(r -> NAME.equals(r.getName()) && r.getState() == RecordingState.RUNNING)
+                .findFirst()
+                .orElse(null);
+        if (recording != null) {
+            log.info("Using the '{}' JFR recording started on the command line (max age {}, max size {} bytes)",
+                    NAME, recording.getMaxAge(), recording.getMaxSize());
+            return;
+        }
+        recording = new Recording(Configuration.getConfiguration("default")); // The low-overhead (~1%) settings
+        recording.setName(NAME);
+        recording.setToDisk(true); // The ring buffer lives in the JFR repository on disk, not the heap
+        recording.setMaxAge(maxAge);
+        recording.setMaxSize(maxSize.toBytes());
+        recording.start();
+        owned = true;
+        log.info("Started the '{}' JFR recording (max age {}, max size {})", NAME, maxAge, maxSize);
+    }
+
+    public void stop() {
+        if (owned) {
+            recording.close();
+        }
+    }
+
+    public boolean isAvailable() {
+        return recording != null;
+    }
+
+    /**
+     * Writes (at least) the last {@code last} of the recording to a new file in the dump
+     * directory. JFR keeps its data in chunks and the dump contains each chunk that overlaps
+     * the window whole, so it may reach further back. Only the newest max-dumps files are kept.
+     *
+     * @param reason Short tag for the file name, e.g. "on-demand" or "slow-requests".
+     * @return The file written.
+     */
+    public synchronized Path dump(Duration last, String reason) throws IOException {
+        if (recording == null) {
+            throw new IllegalStateException("Flight Recorder is not available");
+        }
+        Files.createDirectories(dumpDirectory);
+        Path file = dumpDirectory.resolve(String.format("%s-%s-%s.jfr",
+                applicationName, FILE_TIMESTAMP.format(ZonedDateTime.now(ZoneOffset.UTC)), reason));
+        // A stopped copy of the data so far; shortening its max age drops the older chunks
+        try (Recording copy = recording.copy(true)) {
+            copy.setMaxAge(last);
+            copy.dump(file);
+        }
+        log.info("Wrote JFR dump {} (last {}, {} KB)", file, last, Files.size(file) / 1024);
+        deleteOldDumps();
+        return file;
+    }
+
+    public Duration getMaxAge() {
+        return recording != null && recording.getMaxAge() != null ? recording.getMaxAge() : maxAge;
+    }
+
+    private void deleteOldDumps() throws IOException {
+        List<Path> dumps;
+        try (Stream<Path> files = Files.list(dumpDirectory)) {
+            dumps = files.filter(f -> f.getFileName().toString().endsWith(".jfr"))
+                    .sorted(Comparator.comparing(ContinuousRecording::lastModified).reversed())
+                    .toList();
+        }
+        for (Path old : dumps.subList(Math.min(maxDumps, dumps.size()), dumps.size())) {
+            Files.deleteIfExists(old);
+        }
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0; // Deleted meanwhile: sorts as oldest
+        }
+    }
+}
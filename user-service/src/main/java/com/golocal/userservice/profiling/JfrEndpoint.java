@@ -0,0 +1,41 @@
+package com.golocal.userservice.profiling;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * GET /actuator/jfr?minutes=N : the last N minutes (default profiling.jfr.default-dump-minutes)
+ * of the continuous JFR recording as a .jfr file, for JDK Mission Control or 'jfr print'.
+ * Admins only (ROLE_ADMIN, checked by ProfilingConfig's access filter). The dump is also
+ * kept in the dump directory next to the automatic ones.
+ */
+@WebEndpoint(id = "jfr")
+@RequiredArgsConstructor
+public class JfrEndpoint {
+
+    private final ContinuousRecording continuousRecording;
+    private final int defaultMinutes;
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> dump(@Nullable Integer minutes) throws IOException {
+        if (!continuousRecording.isAvailable()) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_SERVICE_UNAVAILABLE);
+        }
+        if (minutes != null && minutes <= 0) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        Duration last = Duration.ofMinutes(minutes != null ? minutes : defaultMinutes);
+        if (last.compareTo(continuousRecording.getMaxAge()) > 0) {
+            last = continuousRecording.getMaxAge(); // Everything the ring buffer holds
+        }
+        return new WebEndpointResponse<>(new FileSystemResource(continuousRecording.dump(last, "on-demand")));
+    }
+}
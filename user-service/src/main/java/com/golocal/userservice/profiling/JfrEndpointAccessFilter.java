@@ -0,0 +1,36 @@
+package com.golocal.userservice.profiling;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Restricts /actuator/jfr (registered for that path only, see ProfilingConfig) to admins.
+ * Like the supplier-only endpoints it trusts the gateway's X-User-Roles header: the gateway
+ * validates the token on its /api/admin/{service}/jfr routes and replaces whatever the client
+ * sent, and the service itself is not reachable from outside.
+ */
+public class JfrEndpointAccessFilter extends OncePerRequestFilter {
+
+    private static final String USER_ROLES_HEADER = "X-User-Roles"; // Comma-separated, e.g. "ROLE_USER,ROLE_ADMIN"
+    private static final String ADMIN_ROLE = "ROLE_ADMIN";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String roles = request.getHeader(USER_ROLES_HEADER);
+        boolean admin = roles != null && Arrays.stream(roles.split(","))
+                .map(String::trim)
+                .anyMatch(ADMIN_ROLE::equals);
+        if (!admin) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN, "Admin account required");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,24 @@
+package com.golocal.userservice.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one login (AuthService.login, mostly the BCrypt check). Like the login timer
+ * it carries the outcome only, never the username.
+ */
+@Name("golocal.Login")
+@Label("Login")
+@Category({"GoLocal", "Auth"})
+@Description("Password login")
+@StackTrace(false) // Always the same call site
+public class LoginEvent extends Event {
+
+    @Label("Outcome")
+    @Description("success, bad_credentials or error")
+    public String outcome;
+}
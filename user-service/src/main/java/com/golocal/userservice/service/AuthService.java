@@ -5,11 +5,15 @@ import com.golocal.userservice.dto.LoginRequest;
 import com.golocal.userservice.dto.RegisterRequest;
 import com.golocal.userservice.entity.User;
 import com.golocal.userservice.exception.UserAlreadyExistsException;
+import com.golocal.userservice.profiling.LoginEvent;
 import com.golocal.userservice.repository.UserRepository;
 import com.golocal.userservice.security.JwtUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -29,6 +33,12 @@ public class AuthService {
     private final UserRepository userRepository;             // For accessing user data
     private final PasswordEncoder passwordEncoder;           // For encoding passwords
     private final JwtUtil jwtUtil;                         // For generating JWT tokens
+    private final MeterRegistry meterRegistry;             // For custom service-layer timers
+
+    // Timer for login (dominated by the BCrypt check). Tagged only by outcome,
+    // never by username, to keep the number of time series fixed. Each login is
+    // also a golocal.Login JFR event (continuous profiling, see ProfilingConfig).
+    private static final String LOGIN_TIMER = "golocal.auth.login";
 
     /**
      * Authenticates a user based on provided credentials and generates a JWT token upon success.
@@ -39,6 +49,26 @@ public class AuthService {
      */
     @Transactional(readOnly = true) // Usually read-only, authentication manager handles state changes
     public AuthResponse login(LoginRequest loginRequest) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        LoginEvent event = new LoginEvent();
+        event.begin();
+        String outcome = "error";
+        try {
+            AuthResponse result = doLogin(loginRequest);
+            outcome = "success";
+            return result;
+        } catch (BadCredentialsException e) {
+            outcome = "bad_credentials";
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer(LOGIN_TIMER, "outcome", outcome));
+            event.outcome = outcome;
+            event.commit();
+        }
+    }
+
+    // Untimed body of login
+    private AuthResponse doLogin(LoginRequest loginRequest) {
         log.info("Attempting login for user: {}", loginRequest.getUsername());
 
         // Attempt authentication using Spring Security's AuthenticationManager
@@ -0,0 +1,13 @@
+-- Schema of 'users' as Hibernate's ddl-auto=update created it, before migrations took over.
+-- Also applied to databases created by ddl-auto (baseline version 0): an existing table is
+-- kept as it is (V2 tidies its constraints).
+
+CREATE TABLE IF NOT EXISTS users (
+    id       BIGSERIAL PRIMARY KEY,
+    username VARCHAR(50)  NOT NULL,
+    email    VARCHAR(100) NOT NULL,
+    password VARCHAR(100) NOT NULL, -- BCrypt hash
+    roles    VARCHAR(255) NOT NULL, -- Comma-separated, e.g. 'ROLE_USER,ROLE_ADMIN'
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
@@ -0,0 +1,24 @@
+-- ddl-auto=update named the unique constraints of 'users' after a hash, and Hibernate 5 and 6
+-- hash differently ('uk_6dot...' vs 'uk6dot...'). Databases that ran both versions ended up
+-- with two identical unique indexes per column, each maintained on every insert.
+-- Replaces whatever exists with the one named constraint per column that V1 creates. 'users'
+-- is small, and the whole migration is one transaction, so uniqueness is never unenforced.
+DO $$
+DECLARE
+    duplicate record;
+BEGIN
+    FOR duplicate IN
+        SELECT conname FROM pg_constraint
+        WHERE conrelid = 'users'::regclass AND contype = 'u'
+          AND conname NOT IN ('uk_users_username', 'uk_users_email')
+    LOOP
+        EXECUTE format('ALTER TABLE users DROP CONSTRAINT %I', duplicate.conname);
+    END LOOP;
+
+    IF NOT EXISTS (SELECT FROM pg_constraint WHERE conrelid = 'users'::regclass AND conname = 'uk_users_username') THEN
+        ALTER TABLE users ADD CONSTRAINT uk_users_username UNIQUE (username);
+    END IF;
+    IF NOT EXISTS (SELECT FROM pg_constraint WHERE conrelid = 'users'::regclass AND conname = 'uk_users_email') THEN
+        ALTER TABLE users ADD CONSTRAINT uk_users_email UNIQUE (email);
+    END IF;
+END $$;